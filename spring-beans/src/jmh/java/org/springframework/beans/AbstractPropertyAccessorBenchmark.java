@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.openjdk.jmh.annotations.State;
 
 import org.springframework.beans.propertyeditors.CustomNumberEditor;
 import org.springframework.beans.propertyeditors.StringTrimmerEditor;
+import org.springframework.core.SpringProperties;
 
 /**
  * Benchmark for {@link AbstractPropertyAccessor} use on beans.
@@ -38,7 +39,7 @@ public class AbstractPropertyAccessorBenchmark {
 	@State(Scope.Benchmark)
 	public static class BenchmarkState {
 
-		@Param({"DirectFieldAccessor", "BeanWrapper"})
+		@Param({"DirectFieldAccessor", "BeanWrapper", "GeneratedBeanWrapper"})
 		public String accessor;
 
 		@Param({"none", "stringTrimmer", "numberOnPath", "numberOnNestedPath", "numberOnType"})
@@ -54,10 +55,15 @@ public class AbstractPropertyAccessorBenchmark {
 		public void setup() {
 			this.target = new PrimitiveArrayBean();
 			this.input = new int[1024];
+			this.target.setArray(this.input);
 			if (this.accessor.equals("DirectFieldAccessor")) {
 				this.propertyAccessor = new DirectFieldAccessor(this.target);
 			}
 			else {
+				if (this.accessor.equals("GeneratedBeanWrapper")) {
+					// Read once per JVM, with each parameter combination running in its own fork
+					SpringProperties.setFlag(CachedIntrospectionResults.GENERATE_ACCESSORS_PROPERTY_NAME);
+				}
 				this.propertyAccessor = new BeanWrapperImpl(this.target);
 			}
 			switch (this.customEditor) {
@@ -85,6 +91,16 @@ public class AbstractPropertyAccessorBenchmark {
 		return state.target;
 	}
 
+	@Benchmark
+	public Object getPropertyValue(BenchmarkState state) {
+		return state.propertyAccessor.getPropertyValue("array");
+	}
+
+	@Benchmark
+	public Object getIndexedPropertyValue(BenchmarkState state) {
+		return state.propertyAccessor.getPropertyValue("array[1]");
+	}
+
 	@SuppressWarnings("unused")
 	private static class PrimitiveArrayBean {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2023 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -76,6 +77,18 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	private static final Log logger = LogFactory.getLog(AbstractNestablePropertyAccessor.class);
 
+	/**
+	 * Maximum number of keyed property names to keep parsed tokens for.
+	 */
+	private static final int PROPERTY_NAME_TOKENS_CACHE_LIMIT = 256;
+
+	/**
+	 * Cache of parsed tokens of keyed property names: property name -> tokens.
+	 * Cleared once full rather than evicting, keeping lookups lock-free.
+	 */
+	private static final Map<String, PropertyTokenHolder> propertyNameTokensCache =
+			new ConcurrentHashMap<>(PROPERTY_NAME_TOKENS_CACHE_LIMIT);
+
 	private int autoGrowCollectionLimit = Integer.MAX_VALUE;
 
 	@Nullable
@@ -893,11 +906,33 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 
 	/**
 	 * Parse the given property name into the corresponding property name tokens.
+	 * <p>Tokens of keyed property names are cached by property name, with each
+	 * call returning a new holder since holders may be modified by subclasses.
 	 *
 	 * @param propertyName the property name to parse
 	 * @return representation of the parsed property tokens
 	 */
 	private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
+		if (propertyName.indexOf(PROPERTY_KEY_PREFIX_CHAR) == -1) {
+			return new PropertyTokenHolder(propertyName);
+		}
+		PropertyTokenHolder parsedTokens = propertyNameTokensCache.get(propertyName);
+		if (parsedTokens == null) {
+			parsedTokens = parsePropertyNameTokens(propertyName);
+			if (propertyNameTokensCache.size() >= PROPERTY_NAME_TOKENS_CACHE_LIMIT) {
+				propertyNameTokensCache.clear();
+			}
+			propertyNameTokensCache.put(propertyName, parsedTokens);
+		}
+		PropertyTokenHolder tokens = new PropertyTokenHolder(parsedTokens.actualName);
+		tokens.canonicalName = parsedTokens.canonicalName;
+		if (parsedTokens.keys != null) {
+			tokens.keys = parsedTokens.keys.clone();
+		}
+		return tokens;
+	}
+
+	private static PropertyTokenHolder parsePropertyNameTokens(String propertyName) {
 		String actualName = null;
 		List<String> keys = new ArrayList<>(2);
 		int searchIndex = 0;
@@ -930,7 +965,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 		return tokens;
 	}
 
-	private int getPropertyNameKeyEnd(String propertyName, int startIndex) {
+	private static int getPropertyNameKeyEnd(String propertyName, int startIndex) {
 		int unclosedPrefixes = 0;
 		int length = propertyName.length();
 		for (int i = startIndex; i < length; i++) {
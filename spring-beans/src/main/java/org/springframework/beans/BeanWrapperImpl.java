@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 
+import org.springframework.beans.PropertyAccessorGenerator.GeneratedPropertyAccessor;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.Property;
 import org.springframework.core.convert.TypeDescriptor;
@@ -227,8 +228,9 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	@Override
 	@Nullable
 	protected BeanPropertyHandler getLocalPropertyHandler(String propertyName) {
-		PropertyDescriptor pd = getCachedIntrospectionResults().getPropertyDescriptor(propertyName);
-		return (pd != null ? new BeanPropertyHandler(pd) : null);
+		CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
+		PropertyDescriptor pd = cachedIntrospectionResults.getPropertyDescriptor(propertyName);
+		return (pd != null ? new BeanPropertyHandler(pd, cachedIntrospectionResults.getGeneratedAccessor(pd)) : null);
 	}
 
 	@Override
@@ -265,9 +267,17 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		private final PropertyDescriptor pd;
 
+		@Nullable
+		private final GeneratedPropertyAccessor generatedAccessor;
+
 		public BeanPropertyHandler(PropertyDescriptor pd) {
+			this(pd, null);
+		}
+
+		BeanPropertyHandler(PropertyDescriptor pd, @Nullable GeneratedPropertyAccessor generatedAccessor) {
 			super(pd.getPropertyType(), pd.getReadMethod() != null, pd.getWriteMethod() != null);
 			this.pd = pd;
+			this.generatedAccessor = generatedAccessor;
 		}
 
 		@Override
@@ -277,7 +287,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public TypeDescriptor toTypeDescriptor() {
-			return new TypeDescriptor(property(this.pd));
+			CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
+			TypeDescriptor td = cachedIntrospectionResults.getTypeDescriptor(this.pd);
+			if (td == null) {
+				td = cachedIntrospectionResults.addTypeDescriptor(this.pd, new TypeDescriptor(property(this.pd)));
+			}
+			return td;
 		}
 
 		@Override
@@ -289,6 +304,10 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		@Override
 		@Nullable
 		public Object getValue() throws Exception {
+			GeneratedPropertyAccessor generatedAccessor = this.generatedAccessor;
+			if (generatedAccessor != null && generatedAccessor.isReadable() && System.getSecurityManager() == null) {
+				return generatedAccessor.read(getWrappedInstance());
+			}
 			Method readMethod = this.pd.getReadMethod();
 			if (System.getSecurityManager() != null) {
 				AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
@@ -311,6 +330,11 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public void setValue(@Nullable Object value) throws Exception {
+			GeneratedPropertyAccessor generatedAccessor = this.generatedAccessor;
+			if (generatedAccessor != null && generatedAccessor.isWritable(value) && System.getSecurityManager() == null) {
+				generatedAccessor.write(getWrappedInstance(), value);
+				return;
+			}
 			Method writeMethod = (this.pd instanceof GenericTypeAwarePropertyDescriptor ?
 					((GenericTypeAwarePropertyDescriptor) this.pd).getWriteMethodForActualAccess() :
 					this.pd.getWriteMethod());
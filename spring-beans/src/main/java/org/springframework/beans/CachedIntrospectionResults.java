@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2023 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,7 @@ import java.util.concurrent.ConcurrentMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.PropertyAccessorGenerator.GeneratedPropertyAccessor;
 import org.springframework.core.SpringProperties;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.io.support.SpringFactoriesLoader;
@@ -97,10 +98,28 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to generate accessor classes for bean
+	 * properties: "spring.beaninfo.generateAccessors", with a value of "true" letting
+	 * {@link BeanWrapperImpl} invoke public read and write methods through a class
+	 * generated once per bean class rather than through reflection.
+	 * <p>The default is "false". Consider switching this flag to "true" for
+	 * applications that repeatedly bind large numbers of properties, e.g. for
+	 * data binding in web applications, where the reflective invocation of
+	 * accessor methods shows up in profiles. Generated classes are defined in
+	 * the ClassLoader of the bean class; properties that cannot be accessed from
+	 * there, as well as any access under a SecurityManager, use reflection.
+	 * @since 5.3.40
+	 */
+	public static final String GENERATE_ACCESSORS_PROPERTY_NAME = "spring.beaninfo.generateAccessors";
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final boolean shouldGeneratePropertyAccessors =
+			SpringProperties.getFlag(GENERATE_ACCESSORS_PROPERTY_NAME);
+
 	/** Stores the BeanInfoFactory instances. */
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -276,6 +295,10 @@ public final class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor. */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** Generated property accessors keyed by property name, lazily initialized. */
+	@Nullable
+	private volatile Map<String, GeneratedPropertyAccessor> generatedAccessors;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -458,4 +481,31 @@ public final class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Return the generated accessor for the given property descriptor,
+	 * generating the accessor class for the bean class on first access.
+	 * @param pd a property descriptor obtained from this instance
+	 * @return the generated accessor, or {@code null} if accessor generation
+	 * is turned off or not applicable for the given property
+	 * @see #GENERATE_ACCESSORS_PROPERTY_NAME
+	 */
+	@Nullable
+	GeneratedPropertyAccessor getGeneratedAccessor(PropertyDescriptor pd) {
+		if (!shouldGeneratePropertyAccessors) {
+			return null;
+		}
+		Map<String, GeneratedPropertyAccessor> accessors = this.generatedAccessors;
+		if (accessors == null) {
+			synchronized (this) {
+				accessors = this.generatedAccessors;
+				if (accessors == null) {
+					accessors = PropertyAccessorGenerator.generate(getBeanClass(), this.propertyDescriptors.values());
+					this.generatedAccessors = accessors;
+				}
+			}
+		}
+		GeneratedPropertyAccessor accessor = accessors.get(pd.getName());
+		return (accessor != null && accessor.getPropertyDescriptor() == pd ? accessor : null);
+	}
+
 }
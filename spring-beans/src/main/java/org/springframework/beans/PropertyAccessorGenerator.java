@@ -0,0 +1,475 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Generates a class per bean type that invokes the read and write methods
+ * of its properties directly, as an alternative to reflective invocation
+ * in {@link BeanWrapperImpl}.
+ *
+ * <p>The generated class implements {@link Function} for reading and
+ * {@link BiConsumer} for writing, dispatching on the index of the property
+ * that an instance has been created for. It is defined in the package and
+ * ClassLoader of the bean type, so only public read and write methods
+ * with accessible parameter types are supported; other methods as well as
+ * bean types that cannot be handled keep using reflection.
+ *
+ * @since 5.3.40
+ * @see CachedIntrospectionResults#GENERATE_ACCESSORS_PROPERTY_NAME
+ */
+final class PropertyAccessorGenerator implements Opcodes {
+
+	private static final String CLASS_NAME_SUFFIX = "$$SpringPropertyAccessor$";
+
+	private static final String FUNCTION_NAME = Type.getInternalName(Function.class);
+
+	private static final String BI_CONSUMER_NAME = Type.getInternalName(BiConsumer.class);
+
+	private static final String INDEX_FIELD = "index";
+
+	private static final Log logger = LogFactory.getLog(PropertyAccessorGenerator.class);
+
+	private static final AtomicInteger classCounter = new AtomicInteger();
+
+	/**
+	 * Accessor classes generated so far, keyed by bean class, so that
+	 * introspecting a bean class again does not define another class.
+	 */
+	private static final Map<Class<?>, AccessorClass> accessorClassCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	private PropertyAccessorGenerator() {
+	}
+
+
+	/**
+	 * Generate accessors for the given properties of the given bean class.
+	 * @param beanClass the bean class
+	 * @param pds the property descriptors of the bean class
+	 * @return the generated accessors keyed by property name, not containing
+	 * properties that need to be accessed through reflection
+	 */
+	static Map<String, GeneratedPropertyAccessor> generate(Class<?> beanClass, Collection<PropertyDescriptor> pds) {
+		if (!isSupported(beanClass)) {
+			return Collections.emptyMap();
+		}
+		List<PropertyDescriptor> properties = new ArrayList<>(pds.size());
+		List<Method> readMethods = new ArrayList<>(pds.size());
+		List<Method> writeMethods = new ArrayList<>(pds.size());
+		for (PropertyDescriptor pd : pds) {
+			Method readMethod = pd.getReadMethod();
+			if (readMethod != null && !isAccessible(beanClass, readMethod)) {
+				readMethod = null;
+			}
+			Method writeMethod = null;
+			if (pd.getWriteMethod() != null) {
+				writeMethod = (pd instanceof GenericTypeAwarePropertyDescriptor ?
+						((GenericTypeAwarePropertyDescriptor) pd).getWriteMethodForActualAccess() : pd.getWriteMethod());
+				if (!isAccessible(beanClass, writeMethod)) {
+					writeMethod = null;
+				}
+			}
+			if (readMethod != null || writeMethod != null) {
+				properties.add(pd);
+				readMethods.add(readMethod);
+				writeMethods.add(writeMethod);
+			}
+		}
+		if (properties.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, GeneratedPropertyAccessor> accessors = new HashMap<>(properties.size() * 2);
+		try {
+			Constructor<?> constructor = getAccessorClass(beanClass, readMethods, writeMethods).constructor;
+			for (int i = 0; i < properties.size(); i++) {
+				PropertyDescriptor pd = properties.get(i);
+				Object instance = constructor.newInstance(i);
+				Method writeMethod = writeMethods.get(i);
+				accessors.put(pd.getName(), new GeneratedPropertyAccessor(pd,
+						(readMethods.get(i) != null ? (Function<?, ?>) instance : null),
+						(writeMethod != null ? (BiConsumer<?, ?>) instance : null),
+						(writeMethod != null ? writeMethod.getParameterTypes()[0] : null)));
+			}
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Falling back to reflective property access for bean class [" +
+						beanClass.getName() + "]", ex);
+			}
+			return Collections.emptyMap();
+		}
+		return accessors;
+	}
+
+	/**
+	 * Return the accessor class for the given bean class and methods, reusing
+	 * a class generated earlier for the same methods if possible.
+	 */
+	private static AccessorClass getAccessorClass(Class<?> beanClass, List<Method> readMethods,
+			List<Method> writeMethods) throws Exception {
+
+		AccessorClass accessorClass = accessorClassCache.get(beanClass);
+		if (accessorClass != null && accessorClass.isFor(readMethods, writeMethods)) {
+			return accessorClass;
+		}
+		synchronized (accessorClassCache) {
+			accessorClass = accessorClassCache.get(beanClass);
+			if (accessorClass == null || !accessorClass.isFor(readMethods, writeMethods)) {
+				Class<?> generatedClass = generateClass(beanClass, readMethods, writeMethods);
+				accessorClass = new AccessorClass(readMethods, writeMethods,
+						ReflectionUtils.accessibleConstructor(generatedClass, int.class));
+				accessorClassCache.put(beanClass, accessorClass);
+			}
+			return accessorClass;
+		}
+	}
+
+	private static boolean isSupported(Class<?> beanClass) {
+		ClassLoader classLoader = beanClass.getClassLoader();
+		return (classLoader != null && !beanClass.isInterface() && !beanClass.isArray() &&
+				!beanClass.getName().startsWith("java.") && !beanClass.getName().startsWith("javax."));
+	}
+
+	/**
+	 * Determine whether the given method can be invoked from a class in the
+	 * package and ClassLoader of the given bean class.
+	 */
+	private static boolean isAccessible(Class<?> beanClass, Method method) {
+		if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			Class<?> type = parameterType;
+			while (type.isArray()) {
+				type = type.getComponentType();
+			}
+			if (!type.isPrimitive() && !Modifier.isPublic(type.getModifiers()) &&
+					!(type.getClassLoader() == beanClass.getClassLoader() &&
+							ClassUtils.getPackageName(type).equals(ClassUtils.getPackageName(beanClass)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Generate the accessor class for the given bean class, with a read and
+	 * a write method (or {@code null}) per property index.
+	 */
+	static Class<?> generateClass(Class<?> beanClass, List<Method> readMethods, List<Method> writeMethods)
+			throws Exception {
+
+		String beanName = Type.getInternalName(beanClass);
+		String className = beanName + CLASS_NAME_SUFFIX + classCounter.incrementAndGet();
+		ClassLoader classLoader = beanClass.getClassLoader();
+
+		ClassWriter cw = new AccessorClassWriter(classLoader);
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC, className, null, "java/lang/Object",
+				new String[] {FUNCTION_NAME, BI_CONSUMER_NAME});
+		cw.visitField(ACC_PRIVATE | ACC_FINAL, INDEX_FIELD, "I", null, null).visitEnd();
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(I)V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ILOAD, 1);
+		mv.visitFieldInsn(PUTFIELD, className, INDEX_FIELD, "I");
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		generateReadMethod(cw, className, beanName, readMethods);
+		generateWriteMethod(cw, className, beanName, writeMethods);
+
+		cw.visitEnd();
+		return ReflectUtils.defineClass(className.replace('/', '.'), cw.toByteArray(), classLoader,
+				beanClass.getProtectionDomain(), beanClass);
+	}
+
+	/**
+	 * Generate {@link Function#apply}, invoking the read method of the
+	 * property index and boxing primitive return values.
+	 */
+	private static void generateReadMethod(ClassWriter cw, String className, String beanName,
+			List<Method> readMethods) {
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		Label unsupported = new Label();
+		Label[] labels = visitIndexSwitch(mv, className, readMethods, unsupported);
+		for (int i = 0; i < labels.length; i++) {
+			Method readMethod = readMethods.get(i);
+			if (readMethod == null) {
+				continue;
+			}
+			mv.visitLabel(labels[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, beanName);
+			mv.visitMethodInsn(INVOKEVIRTUAL, beanName, readMethod.getName(),
+					Type.getMethodDescriptor(readMethod), false);
+			Class<?> returnType = readMethod.getReturnType();
+			if (returnType.isPrimitive()) {
+				Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(returnType);
+				String wrapperName = Type.getInternalName(wrapperType);
+				mv.visitMethodInsn(INVOKESTATIC, wrapperName, "valueOf",
+						"(" + Type.getDescriptor(returnType) + ")L" + wrapperName + ";", false);
+			}
+			mv.visitInsn(ARETURN);
+		}
+		visitUnsupported(mv, unsupported);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Generate {@link BiConsumer#accept}, invoking the write method of the
+	 * property index and unboxing primitive arguments.
+	 */
+	private static void generateWriteMethod(ClassWriter cw, String className, String beanName,
+			List<Method> writeMethods) {
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "accept", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+		mv.visitCode();
+		Label unsupported = new Label();
+		Label[] labels = visitIndexSwitch(mv, className, writeMethods, unsupported);
+		for (int i = 0; i < labels.length; i++) {
+			Method writeMethod = writeMethods.get(i);
+			if (writeMethod == null) {
+				continue;
+			}
+			mv.visitLabel(labels[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, beanName);
+			mv.visitVarInsn(ALOAD, 2);
+			Class<?> parameterType = writeMethod.getParameterTypes()[0];
+			if (parameterType.isPrimitive()) {
+				Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(parameterType);
+				String wrapperName = Type.getInternalName(wrapperType);
+				mv.visitTypeInsn(CHECKCAST, wrapperName);
+				mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, parameterType.getName() + "Value",
+						"()" + Type.getDescriptor(parameterType), false);
+			}
+			else if (parameterType != Object.class) {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(parameterType));
+			}
+			mv.visitMethodInsn(INVOKEVIRTUAL, beanName, writeMethod.getName(),
+					Type.getMethodDescriptor(writeMethod), false);
+			Class<?> returnType = writeMethod.getReturnType();
+			if (returnType == long.class || returnType == double.class) {
+				mv.visitInsn(POP2);
+			}
+			else if (returnType != void.class) {
+				mv.visitInsn(POP);
+			}
+			mv.visitInsn(RETURN);
+		}
+		visitUnsupported(mv, unsupported);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Visit a switch on the index field, jumping to the returned label of
+	 * the property index or to the given label for unsupported indexes.
+	 */
+	private static Label[] visitIndexSwitch(MethodVisitor mv, String className, List<Method> methods,
+			Label unsupported) {
+
+		Label[] labels = new Label[methods.size()];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = (methods.get(i) != null ? new Label() : unsupported);
+		}
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, className, INDEX_FIELD, "I");
+		mv.visitTableSwitchInsn(0, labels.length - 1, unsupported, labels);
+		return labels;
+	}
+
+	private static void visitUnsupported(MethodVisitor mv, Label unsupported) {
+		mv.visitLabel(unsupported);
+		mv.visitTypeInsn(NEW, "java/lang/IllegalStateException");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalStateException", "<init>", "()V", false);
+		mv.visitInsn(ATHROW);
+	}
+
+
+	/**
+	 * Generated accessor for a single property, reading and writing the
+	 * property value without reflection where supported.
+	 */
+	static final class GeneratedPropertyAccessor {
+
+		private final PropertyDescriptor propertyDescriptor;
+
+		@Nullable
+		private final Function<Object, Object> reader;
+
+		@Nullable
+		private final BiConsumer<Object, Object> writer;
+
+		@Nullable
+		private final Class<?> writeType;
+
+		private final boolean nullWritable;
+
+		@SuppressWarnings("unchecked")
+		GeneratedPropertyAccessor(PropertyDescriptor propertyDescriptor, @Nullable Function<?, ?> reader,
+				@Nullable BiConsumer<?, ?> writer, @Nullable Class<?> writeType) {
+
+			this.propertyDescriptor = propertyDescriptor;
+			this.reader = (Function<Object, Object>) reader;
+			this.writer = (BiConsumer<Object, Object>) writer;
+			this.writeType = (writeType != null ? ClassUtils.resolvePrimitiveIfNecessary(writeType) : null);
+			this.nullWritable = (writeType != null && !writeType.isPrimitive());
+		}
+
+		/**
+		 * Return the property descriptor that this accessor has been generated for.
+		 */
+		PropertyDescriptor getPropertyDescriptor() {
+			return this.propertyDescriptor;
+		}
+
+		/**
+		 * Determine whether the property can be read through this accessor.
+		 */
+		boolean isReadable() {
+			return (this.reader != null);
+		}
+
+		/**
+		 * Determine whether the given value can be written through this accessor,
+		 * i.e. without the argument conversion that reflective invocation performs.
+		 */
+		boolean isWritable(@Nullable Object value) {
+			return (this.writeType != null && (value != null ? this.writeType.isInstance(value) : this.nullWritable));
+		}
+
+		/**
+		 * Read the property value of the given bean.
+		 * @throws InvocationTargetException if the read method threw an exception
+		 */
+		@Nullable
+		Object read(Object bean) throws InvocationTargetException {
+			Function<Object, Object> reader = this.reader;
+			if (reader == null) {
+				throw new IllegalStateException("Property '" + this.propertyDescriptor.getName() + "' not readable");
+			}
+			try {
+				return reader.apply(bean);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+
+		/**
+		 * Write the given value to the property of the given bean.
+		 * @throws InvocationTargetException if the write method threw an exception
+		 * @see #isWritable(Object)
+		 */
+		void write(Object bean, @Nullable Object value) throws InvocationTargetException {
+			BiConsumer<Object, Object> writer = this.writer;
+			if (writer == null) {
+				throw new IllegalStateException("Property '" + this.propertyDescriptor.getName() + "' not writable");
+			}
+			try {
+				writer.accept(bean, value);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * A generated accessor class along with the read and write methods,
+	 * per property index, that it has been generated for.
+	 */
+	private static final class AccessorClass {
+
+		private final List<Method> readMethods;
+
+		private final List<Method> writeMethods;
+
+		private final Constructor<?> constructor;
+
+		AccessorClass(List<Method> readMethods, List<Method> writeMethods, Constructor<?> constructor) {
+			this.readMethods = readMethods;
+			this.writeMethods = writeMethods;
+			this.constructor = constructor;
+		}
+
+		boolean isFor(List<Method> readMethods, List<Method> writeMethods) {
+			return (this.readMethods.equals(readMethods) && this.writeMethods.equals(writeMethods));
+		}
+	}
+
+
+	/**
+	 * An ASM ClassWriter extension bound to the ClassLoader of the bean class.
+	 */
+	private static class AccessorClassWriter extends ClassWriter {
+
+		private final ClassLoader classLoader;
+
+		AccessorClassWriter(ClassLoader classLoader) {
+			super(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected ClassLoader getClassLoader() {
+			return this.classLoader;
+		}
+	}
+
+}
@@ -1073,6 +1073,10 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					(mbd.getFactoryBeanName() != null && isSingletonCurrentlyInCreation(mbd.getFactoryBeanName()))) {
 				return null;
 			}
+			if (!tryLockSingletonCreation(beanName)) {
+				// About to be created by another thread.
+				return null;
+			}
 
 			Object instance;
 			try {
@@ -1102,6 +1106,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			} finally {
 				// Finished partial creation of this bean.
 				afterSingletonCreation(beanName);
+				unlockSingletonCreation(beanName);
 			}
 
 			FactoryBean<?> fb = getFactoryBean(beanName, instance);
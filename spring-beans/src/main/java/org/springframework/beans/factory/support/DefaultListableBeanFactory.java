@@ -17,6 +17,7 @@
 package org.springframework.beans.factory.support;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -37,8 +38,10 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
 import org.springframework.core.OrderComparator;
@@ -54,6 +57,7 @@ import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.CompositeIterator;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import javax.inject.Provider;
@@ -71,15 +75,22 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -155,6 +166,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 */
 	private boolean allowEagerClassLoading = true;
 
+	/**
+	 * Number of threads to pre-instantiate singletons with, 1 for serial pre-instantiation.
+	 */
+	private int preInstantiationParallelism = 1;
+
 	/**
 	 * Optional OrderComparator for dependency Lists and arrays.
 	 */
@@ -308,6 +324,45 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.allowEagerClassLoading;
 	}
 
+	/**
+	 * Set the number of threads to pre-instantiate singletons with in
+	 * {@link #preInstantiateSingletons()}. Default is 1, i.e. serial
+	 * instantiation in registration order.
+	 * <p>With a higher value, the non-lazy singletons are partitioned into groups
+	 * of beans that are independent of each other according to their metadata
+	 * (bean references, factory beans, depends-on declarations and registered
+	 * dependent beans), and the groups are instantiated in parallel on a
+	 * {@link ForkJoinPool}, each singleton under its own creation lock. Each group
+	 * is still instantiated in registration order. Early references to a singleton
+	 * in creation are never handed to another thread: a group that runs into a
+	 * circular reference with a singleton created by another thread gives up the
+	 * singleton in question and is completed serially afterwards.
+	 * <p>Note that these groups are a mere scheduling hint: dependencies that are
+	 * only resolved during creation, such as {@code @Autowired} fields and methods
+	 * or programmatic {@code getBean} calls, are not known up front. Beans in
+	 * different groups may therefore still depend on each other, in which case
+	 * a singleton waits for its creation in another thread.
+	 * <p>Only switch this on if all bean post-processors and initialization
+	 * callbacks are thread-safe, and if no bean relies on the initialization of
+	 * another bean without declaring a dependency on it.
+	 *
+	 * @since 5.3.40
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setPreInstantiationParallelism(int preInstantiationParallelism) {
+		Assert.isTrue(preInstantiationParallelism > 0, "Pre-instantiation parallelism must be greater than 0");
+		this.preInstantiationParallelism = preInstantiationParallelism;
+	}
+
+	/**
+	 * Return the number of threads to pre-instantiate singletons with.
+	 *
+	 * @since 5.3.40
+	 */
+	public int getPreInstantiationParallelism() {
+		return this.preInstantiationParallelism;
+	}
+
 	/**
 	 * Set a {@link java.util.Comparator} for dependency Lists and arrays.
 	 *
@@ -363,6 +418,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			DefaultListableBeanFactory otherListableFactory = (DefaultListableBeanFactory) otherFactory;
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
+			this.preInstantiationParallelism = otherListableFactory.preInstantiationParallelism;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware
 			setAutowireCandidateResolver(otherListableFactory.getAutowireCandidateResolver().cloneIfNecessary());
@@ -1069,40 +1125,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			// 获取顶级 bd
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-
-			// 非抽象，非懒加载的单例 bean
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-
-				// 判断是否是 FactoryBean
-				if (isFactoryBean(beanName)) {
-
-					// 故意加上 & 前缀，先赶紧创建 FactoryBean 对象，但是到底要不要调用 FactoryBean.getObject 得看它聪不聪明
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						FactoryBean<?> factory = (FactoryBean<?>) bean;
-
-						// 下面这几行看起来很长，其实写得有点逻辑乱
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged(
-									(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						} else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-
-						// 一般情况下，preInstantiateSingletons 不会调用 FactoryBean.getObject 方法，除非 isEagerInit
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				} else {
-					getBean(beanName);
-				}
+		if (this.preInstantiationParallelism > 1) {
+			preInstantiateSingletonsInParallel(beanNames);
+		} else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -1126,6 +1153,226 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Instantiate the given bean if it is a non-lazy singleton.
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		// 获取顶级 bd
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+
+		// 非抽象，非懒加载的单例 bean
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+
+			// 判断是否是 FactoryBean
+			if (isFactoryBean(beanName)) {
+
+				// 故意加上 & 前缀，先赶紧创建 FactoryBean 对象，但是到底要不要调用 FactoryBean.getObject 得看它聪不聪明
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					FactoryBean<?> factory = (FactoryBean<?>) bean;
+
+					// 下面这几行看起来很长，其实写得有点逻辑乱
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged(
+								(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					} else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+
+					// 一般情况下，preInstantiateSingletons 不会调用 FactoryBean.getObject 方法，除非 isEagerInit
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			} else {
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Instantiate the non-lazy singletons among the given beans in parallel,
+	 * one task per group of beans that are independent of other groups.
+	 *
+	 * @see #setPreInstantiationParallelism
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames) {
+		List<List<String>> groups = getPreInstantiationGroups(beanNames);
+		if (groups.size() < 2) {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
+			}
+			return;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Pre-instantiating " + groups.size() + " groups of singletons with parallelism " +
+					this.preInstantiationParallelism);
+		}
+
+		ClassLoader beanClassLoader = getBeanClassLoader();
+		ForkJoinPool pool = new ForkJoinPool(this.preInstantiationParallelism, forkJoinPool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+			thread.setName("preinstantiate-" + thread.getPoolIndex());
+			thread.setContextClassLoader(beanClassLoader);
+			return thread;
+		}, null, false);
+		List<List<String>> serialBeanNames = new ArrayList<>(Collections.nCopies(groups.size(), null));
+		Throwable[] failures = new Throwable[groups.size()];
+		AtomicBoolean failed = new AtomicBoolean();
+
+		setConcurrentSingletonCreation(true);
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(groups.size());
+			for (int i = 0; i < groups.size(); i++) {
+				int groupIndex = i;
+				List<String> group = groups.get(i);
+				tasks.add(pool.submit(() -> {
+					for (int j = 0; j < group.size() && !failed.get(); j++) {
+						try {
+							preInstantiateSingleton(group.get(j));
+						} catch (Throwable ex) {
+							if (isSingletonCreationConflict(ex)) {
+								// 和其他线程创建的 bean 发生循环依赖，剩下的 bean 稍后串行创建
+								serialBeanNames.set(groupIndex, group.subList(j, group.size()));
+							} else {
+								failures[groupIndex] = ex;
+								failed.set(true);
+							}
+							return;
+						}
+					}
+				}));
+			}
+			for (ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+		} finally {
+			setConcurrentSingletonCreation(false);
+			pool.shutdown();
+		}
+
+		for (Throwable failure : failures) {
+			if (failure != null) {
+				ReflectionUtils.rethrowRuntimeException(failure);
+			}
+		}
+		for (List<String> group : serialBeanNames) {
+			if (group != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Pre-instantiating singletons " + group + " serially after creation conflict " +
+							"with singletons created by another thread");
+				}
+				for (String beanName : group) {
+					preInstantiateSingleton(beanName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Partition the non-lazy singletons among the given beans into groups that
+	 * do not reference each other according to their bean definitions and to the
+	 * dependencies registered so far, preserving registration order.
+	 * <p>Autowired fields and methods are not taken into account, so the groups
+	 * only serve as a scheduling hint rather than a guarantee of independence.
+	 */
+	private List<List<String>> getPreInstantiationGroups(List<String> beanNames) {
+		Map<String, String> parents = new HashMap<>(beanNames.size());
+		List<String> candidateNames = new ArrayList<>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (bd.isAbstract() || !bd.isSingleton() || bd.isLazyInit()) {
+				continue;
+			}
+			candidateNames.add(beanName);
+			Set<String> dependencies = new LinkedHashSet<>();
+			collectBeanDefinitionDependencies(bd, dependencies);
+			Collections.addAll(dependencies, getDependenciesForBean(beanName));
+			for (String dependency : dependencies) {
+				String root = findGroupRoot(parents, beanName);
+				String dependencyRoot = findGroupRoot(parents, transformedBeanName(dependency));
+				if (!root.equals(dependencyRoot)) {
+					parents.put(dependencyRoot, root);
+				}
+			}
+		}
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for (String beanName : candidateNames) {
+			groups.computeIfAbsent(findGroupRoot(parents, beanName), key -> new ArrayList<>()).add(beanName);
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	private static String findGroupRoot(Map<String, String> parents, String beanName) {
+		String root = beanName;
+		String parent = parents.get(root);
+		while (parent != null) {
+			root = parent;
+			parent = parents.get(root);
+		}
+		if (!root.equals(beanName)) {
+			// Path compression for subsequent lookups
+			parents.put(beanName, root);
+		}
+		return root;
+	}
+
+	/**
+	 * Collect the names of the beans that the given bean definition refers to:
+	 * depends-on declarations, its factory bean, and bean references in its
+	 * constructor arguments and property values, including inner beans.
+	 */
+	private void collectBeanDefinitionDependencies(BeanDefinition bd, Set<String> result) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			Collections.addAll(result, dependsOn);
+		}
+		String factoryBeanName = bd.getFactoryBeanName();
+		if (factoryBeanName != null) {
+			result.add(factoryBeanName);
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getIndexedArgumentValues().values()) {
+				collectValueDependencies(valueHolder.getValue(), result);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+				collectValueDependencies(valueHolder.getValue(), result);
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValueList()) {
+				collectValueDependencies(pv.getValue(), result);
+			}
+		}
+	}
+
+	private void collectValueDependencies(@Nullable Object value, Set<String> result) {
+		if (value instanceof BeanReference) {
+			result.add(((BeanReference) value).getBeanName());
+		} else if (value instanceof BeanDefinitionHolder) {
+			collectBeanDefinitionDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), result);
+		} else if (value instanceof BeanDefinition) {
+			collectBeanDefinitionDependencies((BeanDefinition) value, result);
+		} else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectValueDependencies(element, result);
+			}
+		} else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectValueDependencies(entry.getKey(), result);
+				collectValueDependencies(entry.getValue(), result);
+			}
+		} else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				collectValueDependencies(element, result);
+			}
+		}
+	}
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
@@ -25,6 +25,8 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCreationNotAllowedException;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -70,6 +73,12 @@ import org.springframework.util.StringUtils;
  */
 public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements SingletonBeanRegistry {
 
+	/**
+	 * Interval in milliseconds for re-checking a circular reference across
+	 * threads while waiting for a per-bean creation lock.
+	 */
+	private static final long SINGLETON_CREATION_WAIT_INTERVAL = 10;
+
 	/**
 	 * Maximum number of suppressed exceptions to preserve.
 	 */
@@ -108,10 +117,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
 	/**
-	 * Collection of suppressed Exceptions, available for associating related causes.
+	 * Collection of suppressed Exceptions, available for associating related causes,
+	 * per creating thread.
 	 */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions of singleton creation");
 
 	/**
 	 * Flag that indicates whether we're currently within destroySingletons.
@@ -138,6 +148,22 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
+	/**
+	 * Whether singletons may currently be created by several threads at once.
+	 */
+	private volatile boolean concurrentSingletonCreation = false;
+
+	/**
+	 * Per-bean creation locks, used instead of the full singleton lock
+	 * while singletons are created concurrently: bean name to lock.
+	 */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(256);
+
+	/**
+	 * Threads waiting for a per-bean creation lock held by another thread: thread to bean name.
+	 */
+	private final Map<Thread, String> singletonCreationWaits = new ConcurrentHashMap<>(16);
+
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		Assert.notNull(beanName, "Bean name must not be null");
@@ -210,6 +236,10 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		// 可能有些手工注册的 bean 直接存在于 singletonObjects，那么运气很好，直接得到对象
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+			if (isSingletonCreationLockHeldByOtherThread(beanName)) {
+				// Early references are only exposed to the thread creating the singleton
+				return null;
+			}
 			singletonObject = this.earlySingletonObjects.get(beanName);
 			if (singletonObject == null && allowEarlyReference) {
 				synchronized (this.singletonObjects) {
@@ -243,6 +273,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.concurrentSingletonCreation) {
+			return getSingletonUnderCreationLock(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			Object singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
@@ -262,9 +295,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
 				// Bean 创建的过程中，如果发生异常，比如说是循环依赖，那么会把异常记录到这个 Set 中
 				// 如果异常实在太多，比如超过 100 个，那么才会抛出
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+				Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+				boolean recordSuppressedExceptions = (suppressedExceptions == null);
 				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+					suppressedExceptions = new LinkedHashSet<>();
+					this.suppressedExceptions.set(suppressedExceptions);
 				}
 				try {
 					// 调用 createBean
@@ -279,14 +314,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 					}
 				} catch (BeanCreationException ex) {
 					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
+						for (Exception suppressedException : suppressedExceptions) {
 							ex.addRelatedCause(suppressedException);
 						}
 					}
 					throw ex;
 				} finally {
 					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+						this.suppressedExceptions.remove();
 					}
 
 					// 取消 singleton 正在创建中的标记 [singletonsCurrentlyInCreation.remove]
@@ -300,6 +335,260 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent
+	 * singleton creation: the singleton is created under its own creation lock,
+	 * with the full singleton lock only held for registry updates.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton with
+	 * @return the registered singleton object
+	 * @throws SingletonCreationConflictException if the singleton is being created
+	 * by another thread and waiting for it would lead to a deadlock
+	 */
+	private Object getSingletonUnderCreationLock(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		SingletonCreationLock lock;
+		while (true) {
+			lock = this.singletonCreationLocks.computeIfAbsent(beanName, key -> new SingletonCreationLock());
+			acquireSingletonCreationLock(beanName, lock);
+			if (this.singletonCreationLocks.get(beanName) == lock) {
+				break;
+			}
+			// Lock discarded by its previous owner in the meantime
+			lock.unlock();
+		}
+		boolean newSingleton = false;
+		try {
+			synchronized (this.singletonObjects) {
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
+				}
+				if (this.singletonsCurrentlyInDestruction) {
+					throw new BeanCreationNotAllowedException(beanName,
+							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+									"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+				}
+				beforeSingletonCreation(beanName);
+			}
+			Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+			boolean recordSuppressedExceptions = (suppressedExceptions == null);
+			if (recordSuppressedExceptions) {
+				suppressedExceptions = new LinkedHashSet<>();
+				this.suppressedExceptions.set(suppressedExceptions);
+			}
+			try {
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			} catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					throw ex;
+				}
+			} catch (BeanCreationException ex) {
+				if (recordSuppressedExceptions) {
+					for (Exception suppressedException : suppressedExceptions) {
+						ex.addRelatedCause(suppressedException);
+					}
+				}
+				throw ex;
+			} finally {
+				if (recordSuppressedExceptions) {
+					this.suppressedExceptions.remove();
+				}
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				addSingleton(beanName, singletonObject);
+			}
+			return singletonObject;
+		} finally {
+			releaseSingletonCreationLock(beanName, lock);
+		}
+	}
+
+	/**
+	 * Release the given creation lock, discarding it once it is no longer held:
+	 * later callers either find the singleton without locking or, if its creation
+	 * failed, start over with a new lock. Threads still waiting for a discarded
+	 * lock notice that it is no longer registered once they acquire it.
+	 */
+	private void releaseSingletonCreationLock(String beanName, SingletonCreationLock lock) {
+		if (lock.getHoldCount() == 1) {
+			this.singletonCreationLocks.remove(beanName, lock);
+		}
+		lock.unlock();
+	}
+
+	/**
+	 * Acquire the creation lock of the given singleton, waiting for another
+	 * thread to complete its creation if necessary.
+	 * <p>Rather than waiting forever, this fails fast when the current thread
+	 * holds the full singleton lock (which the other thread needs to register
+	 * the singleton), or when the other thread, directly or not, waits for a
+	 * singleton that the current thread is creating. Early references are never
+	 * handed to another thread: if the creation of the singleton fails, no other
+	 * thread may hold on to an instance that is about to be discarded.
+	 * @throws SingletonCreationConflictException if the full singleton lock is
+	 * held, or if waiting would close a circular reference across threads
+	 */
+	private void acquireSingletonCreationLock(String beanName, SingletonCreationLock lock) {
+		if (lock.tryLock()) {
+			return;
+		}
+		if (Thread.holdsLock(this.singletonObjects)) {
+			throw new SingletonCreationConflictException(beanName,
+					"Singleton is being created by another thread while the full singleton lock is held");
+		}
+		Thread currentThread = Thread.currentThread();
+		this.singletonCreationWaits.put(currentThread, beanName);
+		try {
+			while (true) {
+				synchronized (this.singletonObjects) {
+					if (isCircularSingletonCreation(lock, currentThread)) {
+						// Stop waiting right away, so that the other thread does not
+						// detect the same circular reference and give up as well.
+						this.singletonCreationWaits.remove(currentThread);
+						throw new SingletonCreationConflictException(beanName,
+								"Circular reference between singletons created by different threads");
+					}
+				}
+				try {
+					if (lock.tryLock(SINGLETON_CREATION_WAIT_INTERVAL, TimeUnit.MILLISECONDS)) {
+						return;
+					}
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new BeanCreationException(beanName,
+							"Interrupted while waiting for singleton creation in another thread", ex);
+				}
+			}
+		} finally {
+			this.singletonCreationWaits.remove(currentThread);
+		}
+	}
+
+	/**
+	 * Check whether waiting for the given lock closes a cycle of threads
+	 * waiting for each other. To be called within the full singleton lock.
+	 */
+	private boolean isCircularSingletonCreation(SingletonCreationLock lock, Thread currentThread) {
+		Set<Thread> seen = new HashSet<>();
+		Thread owner = lock.getOwner();
+		while (owner != null && seen.add(owner)) {
+			String awaitedBeanName = this.singletonCreationWaits.get(owner);
+			SingletonCreationLock awaitedLock =
+					(awaitedBeanName != null ? this.singletonCreationLocks.get(awaitedBeanName) : null);
+			Thread awaitedOwner = (awaitedLock != null ? awaitedLock.getOwner() : null);
+			if (awaitedOwner == currentThread) {
+				return true;
+			}
+			owner = awaitedOwner;
+		}
+		return false;
+	}
+
+	private boolean isSingletonCreationLockHeldByOtherThread(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		return (lock != null && lock.isLocked() && !lock.isHeldByCurrentThread());
+	}
+
+	/**
+	 * Try to acquire the creation lock of the given singleton without waiting,
+	 * e.g. for creating a partial instance of it outside of regular creation.
+	 * <p>Always succeeds unless singletons are created concurrently, since
+	 * creation is guarded by the full singleton lock otherwise. A successful
+	 * call needs to be followed by {@link #unlockSingletonCreation}.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if the lock was acquired, {@code false} if the
+	 * singleton is being created by another thread
+	 * @since 5.3.40
+	 * @see #setConcurrentSingletonCreation
+	 */
+	protected boolean tryLockSingletonCreation(String beanName) {
+		if (!this.concurrentSingletonCreation) {
+			return true;
+		}
+		while (true) {
+			SingletonCreationLock lock =
+					this.singletonCreationLocks.computeIfAbsent(beanName, key -> new SingletonCreationLock());
+			if (!lock.tryLock()) {
+				return false;
+			}
+			if (this.singletonCreationLocks.get(beanName) == lock) {
+				return true;
+			}
+			// Lock discarded by its previous owner in the meantime
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Release the creation lock of the given singleton, acquired through
+	 * {@link #tryLockSingletonCreation}.
+	 * @param beanName the name of the bean
+	 * @since 5.3.40
+	 */
+	protected void unlockSingletonCreation(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		if (lock != null && lock.isHeldByCurrentThread()) {
+			releaseSingletonCreationLock(beanName, lock);
+		}
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads at once,
+	 * e.g. for the duration of a parallel pre-instantiation phase.
+	 * <p>While enabled, each singleton is created under its own creation lock
+	 * instead of the full singleton lock, an early reference to a singleton in
+	 * creation is only exposed to the thread creating it, and a thread that
+	 * would deadlock waiting for a singleton fails with a
+	 * {@link BeanCreationException} instead.
+	 * @param concurrentSingletonCreation whether to enable concurrent creation
+	 * @since 5.3.40
+	 * @see #isSingletonCreationConflict(Throwable)
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		synchronized (this.singletonObjects) {
+			this.concurrentSingletonCreation = concurrentSingletonCreation;
+		}
+	}
+
+	/**
+	 * Return whether singletons may currently be created by several threads at once.
+	 * @since 5.3.40
+	 */
+	protected boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
+	/**
+	 * Determine whether the given exception, or any of its causes, indicates
+	 * that concurrent creation of a singleton had to be given up in order to
+	 * avoid a deadlock, in which case the creation may be retried serially.
+	 * @param ex the exception to check
+	 * @since 5.3.40
+	 * @see #setConcurrentSingletonCreation
+	 */
+	protected boolean isSingletonCreationConflict(Throwable ex) {
+		Throwable cause = ex;
+		while (cause != null) {
+			if (cause instanceof SingletonCreationConflictException) {
+				return true;
+			}
+			cause = (cause.getCause() != cause ? cause.getCause() : null);
+		}
+		return false;
+	}
+
 	/**
 	 * Register an exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -311,10 +600,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see BeanCreationException#getRelatedCauses()
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -568,6 +856,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		synchronized (this.singletonObjects) {
 			this.singletonsCurrentlyInDestruction = true;
 		}
+		// Let singletons currently in creation by other threads complete first
+		for (SingletonCreationLock lock : this.singletonCreationLocks.values()) {
+			if (!lock.isHeldByCurrentThread()) {
+				lock.lock();
+				lock.unlock();
+			}
+		}
 
 		String[] disposableBeanNames;
 		synchronized (this.disposableBeans) {
@@ -595,6 +890,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			this.singletonFactories.clear();
 			this.earlySingletonObjects.clear();
 			this.registeredSingletons.clear();
+			this.singletonCreationLocks.clear();
 			this.singletonsCurrentlyInDestruction = false;
 		}
 	}
@@ -692,4 +988,32 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Reentrant lock guarding the creation of a single singleton,
+	 * exposing its owner thread for deadlock detection.
+	 */
+	@SuppressWarnings("serial")
+	private static class SingletonCreationLock extends ReentrantLock {
+
+		@Override
+		@Nullable
+		public Thread getOwner() {
+			return super.getOwner();
+		}
+	}
+
+
+	/**
+	 * Exception thrown when a singleton cannot be obtained during concurrent
+	 * creation without risking a deadlock with another creating thread.
+	 */
+	@SuppressWarnings("serial")
+	private static class SingletonCreationConflictException extends BeanCreationException {
+
+		public SingletonCreationConflictException(String beanName, String msg) {
+			super(beanName, msg);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,6 +53,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private List<StereotypesProvider> stereotypesProviders;
 
+	private ConfigurationMetadataProvider configurationMetadataProvider;
+
 
 	@Override
 	public Set<String> getSupportedOptions() {
@@ -73,6 +75,7 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.configurationMetadataProvider = new ConfigurationMetadataProvider(this.typeHelper);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
 	}
@@ -115,11 +118,15 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
 		}
+		this.configurationMetadataProvider.getItems(element).forEach(this.metadataCollector::add);
 	}
 
 	private void writeMetaData() {
 		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
-		if (!metadata.getItems().isEmpty()) {
+		// Configuration metadata alone must not create an index, as the presence of
+		// an index switches component scanning from the classpath to the index
+		if (metadata.getItems().stream().anyMatch(
+				item -> !ConfigurationMetadataProvider.isConfigurationMetadata(item))) {
 			try {
 				this.metadataStore.writeMetadata(metadata);
 			}
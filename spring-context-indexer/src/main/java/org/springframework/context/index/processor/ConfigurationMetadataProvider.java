@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+
+/**
+ * Provide the configuration metadata of a type as an additional index entry,
+ * keyed by the type followed by {@value #BEAN_METHODS_SUFFIX}: the {@code @Bean}
+ * methods declared by the type, in declaration order, as method name followed
+ * by the method descriptor, e.g. {@code dataSource(Ljava/lang/String;)Ljavax/sql/DataSource;}.
+ * This is what configuration class parsing needs in order to order the
+ * {@code @Bean} methods of a class without reading its class file.
+ *
+ * <p>These entries are only written along with stereotype entries: a module
+ * without any candidate component does not get an index.
+ *
+ * @since 5.3.40
+ */
+class ConfigurationMetadataProvider {
+
+	static final String BEAN_METHODS_SUFFIX = "@Bean";
+
+	private static final String BEAN_ANNOTATION = "org.springframework.context.annotation.Bean";
+
+	private final TypeHelper typeHelper;
+
+
+	ConfigurationMetadataProvider(TypeHelper typeHelper) {
+		this.typeHelper = typeHelper;
+	}
+
+
+	/**
+	 * Determine whether the given entry holds configuration metadata, rather than
+	 * the stereotypes of a candidate component.
+	 */
+	static boolean isConfigurationMetadata(ItemMetadata item) {
+		return (item.getType().indexOf('@') != -1);
+	}
+
+	/**
+	 * Return the configuration metadata entries of the specified {@link Element},
+	 * or an empty list if it does not hold any configuration metadata.
+	 */
+	public List<ItemMetadata> getItems(Element element) {
+		ElementKind kind = element.getKind();
+		if (!kind.isClass() && kind != ElementKind.INTERFACE) {
+			return Collections.emptyList();
+		}
+		Set<String> beanMethods = new LinkedHashSet<>();
+		for (Element enclosed : element.getEnclosedElements()) {
+			if (enclosed.getKind() == ElementKind.METHOD && isAnnotated(enclosed, BEAN_ANNOTATION)) {
+				ExecutableElement method = (ExecutableElement) enclosed;
+				beanMethods.add(method.getSimpleName() + this.typeHelper.getDescriptor(method));
+			}
+		}
+		if (beanMethods.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String type = this.typeHelper.getType(element);
+		return Collections.singletonList(new ItemMetadata(type + BEAN_METHODS_SUFFIX, beanMethods));
+	}
+
+	private boolean isAnnotated(Element element, String annotationType) {
+		return !collectAnnotations(element, annotationType, new HashSet<>(), new ArrayList<>()).isEmpty();
+	}
+
+	private List<AnnotationMirror> collectAnnotations(
+			Element element, String annotationType, Set<Element> seen, List<AnnotationMirror> result) {
+
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			Element annotationElement = annotation.getAnnotationType().asElement();
+			if (annotationType.equals(this.typeHelper.getType(annotation))) {
+				result.add(annotation);
+			}
+			else if (seen.add(annotationElement) && !annotationElement.toString().startsWith("java.lang")) {
+				collectAnnotations(annotationElement, annotationType, seen, result);
+			}
+		}
+		return result;
+	}
+
+}
@@ -16,7 +16,7 @@
 
 package org.springframework.context.index.processor;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -37,7 +37,7 @@ class ItemMetadata {
 
 	public ItemMetadata(String type, Set<String> stereotypes) {
 		this.type = type;
-		this.stereotypes = new HashSet<>(stereotypes);
+		this.stereotypes = new LinkedHashSet<>(stereotypes);
 	}
 
 
@@ -93,6 +93,10 @@ class MetadataCollector {
 
 	private boolean shouldBeMerged(ItemMetadata itemMetadata) {
 		String sourceType = itemMetadata.getType();
+		if (sourceType != null && sourceType.indexOf('@') != -1) {
+			// Configuration metadata entry for the type
+			sourceType = sourceType.substring(0, sourceType.indexOf('@'));
+		}
 		return (sourceType != null && !deletedInCurrentBuild(sourceType)
 				&& !processedInCurrentBuild(sourceType));
 	}
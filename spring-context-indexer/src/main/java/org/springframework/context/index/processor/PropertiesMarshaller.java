@@ -20,7 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Properties;
 import java.util.Set;
 
@@ -44,7 +44,7 @@ abstract class PropertiesMarshaller {
 		Properties props = new Properties();
 		props.load(in);
 		props.forEach((type, value) -> {
-			Set<String> candidates = new HashSet<>(Arrays.asList(((String) value).split(",")));
+			Set<String> candidates = new LinkedHashSet<>(Arrays.asList(((String) value).split(",")));
 			result.add(new ItemMetadata((String) type, candidates));
 		});
 		return result;
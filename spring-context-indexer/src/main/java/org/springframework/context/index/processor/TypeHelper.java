@@ -23,8 +23,11 @@ import java.util.List;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.QualifiedNameable;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
@@ -111,6 +114,64 @@ class TypeHelper {
 		return directInterfaces;
 	}
 
+	/**
+	 * Return the JVM descriptor of the specified method, based on the erasure of
+	 * its parameter and return types, e.g. {@code (Ljava/lang/String;I)V}.
+	 */
+	public String getDescriptor(ExecutableElement method) {
+		StringBuilder descriptor = new StringBuilder("(");
+		for (VariableElement parameter : method.getParameters()) {
+			appendDescriptor(descriptor, parameter.asType());
+		}
+		descriptor.append(')');
+		appendDescriptor(descriptor, method.getReturnType());
+		return descriptor.toString();
+	}
+
+	private void appendDescriptor(StringBuilder descriptor, TypeMirror type) {
+		TypeMirror erasure = this.types.erasure(type);
+		switch (erasure.getKind()) {
+			case BOOLEAN:
+				descriptor.append('Z');
+				break;
+			case BYTE:
+				descriptor.append('B');
+				break;
+			case CHAR:
+				descriptor.append('C');
+				break;
+			case SHORT:
+				descriptor.append('S');
+				break;
+			case INT:
+				descriptor.append('I');
+				break;
+			case LONG:
+				descriptor.append('J');
+				break;
+			case FLOAT:
+				descriptor.append('F');
+				break;
+			case DOUBLE:
+				descriptor.append('D');
+				break;
+			case VOID:
+				descriptor.append('V');
+				break;
+			case ARRAY:
+				descriptor.append('[');
+				appendDescriptor(descriptor, ((ArrayType) erasure).getComponentType());
+				break;
+			case DECLARED:
+				TypeElement element = (TypeElement) ((DeclaredType) erasure).asElement();
+				String binaryName = this.env.getElementUtils().getBinaryName(element).toString();
+				descriptor.append('L').append(binaryName.replace('.', '/')).append(';');
+				break;
+			default:
+				descriptor.append('L').append(erasure.toString().replace('.', '/')).append(';');
+		}
+	}
+
 	public List<? extends AnnotationMirror> getAllAnnotationMirrors(Element e) {
 		try {
 			return this.env.getElementUtils().getAllAnnotationMirrors(e);
@@ -0,0 +1,488 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.env.AbstractEnvironment;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Snapshot of the bean definitions derived from a set of configuration classes,
+ * captured at build time by a {@link BeanDefinitionSnapshotGenerator} and
+ * restored by the {@link ConfigurationClassPostProcessor} at startup instead of
+ * parsing the configuration classes, scanning the classpath and reading any
+ * imported resources.
+ *
+ * <p>A snapshot is looked up as a classpath resource named after the
+ * configuration classes it has been captured for, see {@link #getResourceLocation}.
+ * Conditions are evaluated once, when the snapshot is captured. The outcome of
+ * environment-dependent conditions is tracked through the environment lookups
+ * made during configuration class processing: profile checks, active and default
+ * profiles, property values and resolved placeholders. Those lookups are
+ * re-evaluated against the actual environment before a snapshot is restored,
+ * falling back to regular configuration class processing if any of them yields
+ * a different result. Any other condition, e.g. on the presence of a class, is
+ * expected to have the same outcome at build time and at runtime.
+ *
+ * <p>{@code @PropertySource} declarations are taken into account for that check
+ * on a copy of the environment, and only replayed on the actual environment once
+ * the snapshot turns out to be valid, so that they are available to the
+ * application as usual.
+ *
+ * <p>Snapshots are only used if the {@link #ENABLE_SNAPSHOT} property is set.
+ *
+ * @since 5.3.40
+ * @see BeanDefinitionSnapshotGenerator
+ * @see ConfigurationClassPostProcessor#processConfigBeanDefinitions
+ */
+public final class BeanDefinitionSnapshot {
+
+	/**
+	 * The location prefix for snapshot resources, followed by the sorted and
+	 * comma-separated names of the configuration classes.
+	 */
+	public static final String SNAPSHOT_RESOURCE_LOCATION_PREFIX = "META-INF/spring/snapshots/";
+
+	/**
+	 * System property that instructs Spring to restore bean definition snapshots,
+	 * if available for the configuration classes of an application context.
+	 * <p>The default is "false", always processing configuration classes from scratch.
+	 */
+	public static final String ENABLE_SNAPSHOT = "spring.snapshot.enabled";
+
+	private static final int MAGIC = 0x53424453;
+
+	private static final int VERSION = 2;
+
+	static final boolean shouldUseSnapshot = SpringProperties.getFlag(ENABLE_SNAPSHOT);
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshot.class);
+
+
+	private final List<String> configClassNames;
+
+	private final List<EnvironmentCheck> environmentChecks;
+
+	private final List<String> propertySourceClassNames;
+
+	private final List<BeanDefinitionHolder> beanDefinitions;
+
+	private final Map<String, String> importingClassNames;
+
+
+	BeanDefinitionSnapshot(List<String> configClassNames, List<EnvironmentCheck> environmentChecks,
+			List<String> propertySourceClassNames, List<BeanDefinitionHolder> beanDefinitions,
+			Map<String, String> importingClassNames) {
+
+		this.configClassNames = configClassNames;
+		this.environmentChecks = environmentChecks;
+		this.propertySourceClassNames = propertySourceClassNames;
+		this.beanDefinitions = beanDefinitions;
+		this.importingClassNames = importingClassNames;
+	}
+
+
+	/**
+	 * Return the names of the configuration classes this snapshot has been captured for.
+	 */
+	public List<String> getConfigClassNames() {
+		return Collections.unmodifiableList(this.configClassNames);
+	}
+
+	/**
+	 * Return the captured bean definitions, in registration order.
+	 */
+	public List<BeanDefinitionHolder> getBeanDefinitions() {
+		return Collections.unmodifiableList(this.beanDefinitions);
+	}
+
+	/**
+	 * Determine whether this snapshot still applies to the given environment,
+	 * i.e. whether all environment lookups made while capturing it yield the
+	 * same result.
+	 * @param environment the environment to check
+	 */
+	public boolean isValidFor(Environment environment) {
+		for (EnvironmentCheck check : this.environmentChecks) {
+			if (!check.matches(environment)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Environment does not match bean definition snapshot for " +
+							this.configClassNames + ": " + check);
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write this snapshot to the given stream.
+	 * @param outputStream the stream to write to (left open)
+	 * @throws IOException in case of I/O errors
+	 * @throws IllegalStateException if a bean definition holds state
+	 * that cannot be captured in a snapshot
+	 */
+	public void writeTo(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		writeStrings(out, this.configClassNames);
+		out.writeInt(this.environmentChecks.size());
+		for (EnvironmentCheck check : this.environmentChecks) {
+			out.writeByte(check.type);
+			out.writeUTF(check.key);
+			BeanDefinitionSnapshotCodec.writeString(out, check.value);
+		}
+		writeStrings(out, this.propertySourceClassNames);
+		out.writeInt(this.beanDefinitions.size());
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			out.writeUTF(holder.getBeanName());
+			BeanDefinitionSnapshotCodec.writeStringArray(out, holder.getAliases());
+			BeanDefinitionSnapshotCodec.writeBeanDefinition(out, holder.getBeanName(), holder.getBeanDefinition());
+		}
+		out.writeInt(this.importingClassNames.size());
+		for (Map.Entry<String, String> entry : this.importingClassNames.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Return whether this snapshot replays {@code @PropertySource} declarations.
+	 */
+	boolean hasPropertySources() {
+		return !this.propertySourceClassNames.isEmpty();
+	}
+
+	/**
+	 * Replay the captured {@code @PropertySource} declarations through the given parser.
+	 * @param parser the parser to replay {@code @PropertySource} declarations with,
+	 * adding the property sources to its environment
+	 * @param classLoader the class loader to introspect configuration classes with
+	 */
+	void replayPropertySources(ConfigurationClassParser parser, @Nullable ClassLoader classLoader) {
+		for (String className : this.propertySourceClassNames) {
+			try {
+				parser.processPropertySources(AnnotationMetadata.introspect(ClassUtils.forName(className, classLoader)));
+			}
+			catch (IOException | ClassNotFoundException ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to process @PropertySource declarations of configuration class [" + className + "]", ex);
+			}
+		}
+	}
+
+	/**
+	 * Register the captured bean definitions with the given registry,
+	 * skipping any that is registered already.
+	 * @param registry the registry to populate
+	 */
+	void registerBeanDefinitions(BeanDefinitionRegistry registry) {
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			String beanName = holder.getBeanName();
+			if (!registry.containsBeanDefinition(beanName)) {
+				registry.registerBeanDefinition(beanName, holder.getBeanDefinition());
+				for (String alias : holder.getAliases()) {
+					registry.registerAlias(beanName, alias);
+				}
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Restored " + this.beanDefinitions.size() + " bean definitions from snapshot for " +
+					this.configClassNames);
+		}
+	}
+
+	/**
+	 * Return an {@link ImportRegistry} for the import relationships between
+	 * the configuration classes of this snapshot.
+	 */
+	ImportRegistry getImportRegistry(@Nullable ClassLoader classLoader) {
+		return new SnapshotImportRegistry(this.importingClassNames, classLoader);
+	}
+
+
+	/**
+	 * Return the classpath location of the snapshot for the given configuration classes.
+	 * @param configClassNames the names of the configuration classes
+	 */
+	public static String getResourceLocation(Collection<String> configClassNames) {
+		String[] names = StringUtils.toStringArray(configClassNames);
+		Arrays.sort(names);
+		return SNAPSHOT_RESOURCE_LOCATION_PREFIX + StringUtils.arrayToCommaDelimitedString(names);
+	}
+
+	/**
+	 * Create a copy of the given environment for checking a snapshot against,
+	 * with the same profiles and property sources, so that property sources can
+	 * be added to the copy without affecting the given environment.
+	 * @param environment the environment to copy
+	 */
+	static ConfigurableEnvironment copyEnvironment(ConfigurableEnvironment environment) {
+		ConfigurableEnvironment copy =
+				new AbstractEnvironment(new MutablePropertySources(environment.getPropertySources())) {};
+		copy.setActiveProfiles(environment.getActiveProfiles());
+		copy.setDefaultProfiles(environment.getDefaultProfiles());
+		copy.setConversionService(environment.getConversionService());
+		return copy;
+	}
+
+	/**
+	 * Load the snapshot for the given configuration classes, if any.
+	 * @param configClassNames the names of the configuration classes
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the snapshot, or {@code null} if none is available
+	 * @throws IllegalStateException if the snapshot cannot be read
+	 * @see #ENABLE_SNAPSHOT
+	 */
+	@Nullable
+	public static BeanDefinitionSnapshot load(Collection<String> configClassNames, @Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = BeanDefinitionSnapshot.class.getClassLoader();
+		}
+		String location = getResourceLocation(configClassNames);
+		URL url = classLoaderToUse.getResource(location);
+		if (url == null) {
+			return null;
+		}
+		try (InputStream inputStream = url.openStream()) {
+			BeanDefinitionSnapshot snapshot = read(inputStream, classLoaderToUse);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded bean definition snapshot from " + url);
+			}
+			return snapshot;
+		}
+		catch (IOException | ClassNotFoundException ex) {
+			throw new IllegalStateException("Unable to load bean definition snapshot from location [" +
+					location + "]", ex);
+		}
+	}
+
+	/**
+	 * Read a snapshot from the given stream.
+	 * @param inputStream the stream to read from (left open)
+	 * @param classLoader the class loader to resolve class and enum values against
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors or a corrupt snapshot
+	 * @throws ClassNotFoundException if a class referenced by a captured
+	 * bean definition cannot be found
+	 */
+	public static BeanDefinitionSnapshot read(InputStream inputStream, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a bean definition snapshot");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported bean definition snapshot version " + version);
+		}
+		List<String> configClassNames = readStrings(in);
+		int checkCount = in.readInt();
+		List<EnvironmentCheck> environmentChecks = new ArrayList<>(checkCount);
+		for (int i = 0; i < checkCount; i++) {
+			byte type = in.readByte();
+			String key = in.readUTF();
+			environmentChecks.add(new EnvironmentCheck(type, key, BeanDefinitionSnapshotCodec.readString(in)));
+		}
+		List<String> propertySourceClassNames = readStrings(in);
+		int definitionCount = in.readInt();
+		List<BeanDefinitionHolder> beanDefinitions = new ArrayList<>(definitionCount);
+		for (int i = 0; i < definitionCount; i++) {
+			String beanName = in.readUTF();
+			String[] aliases = BeanDefinitionSnapshotCodec.readStringArray(in);
+			beanDefinitions.add(new BeanDefinitionHolder(
+					BeanDefinitionSnapshotCodec.readBeanDefinition(in, classLoader), beanName, aliases));
+		}
+		int importCount = in.readInt();
+		Map<String, String> importingClassNames = new ConcurrentHashMap<>(Math.max(importCount, 1));
+		for (int i = 0; i < importCount; i++) {
+			String importedClass = in.readUTF();
+			importingClassNames.put(importedClass, in.readUTF());
+		}
+		return new BeanDefinitionSnapshot(configClassNames, environmentChecks, propertySourceClassNames,
+				beanDefinitions, importingClassNames);
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<String> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(in.readUTF());
+		}
+		return values;
+	}
+
+
+	/**
+	 * An environment lookup made while capturing a snapshot, along with its result.
+	 */
+	static final class EnvironmentCheck {
+
+		static final byte PROPERTY = 'P';
+
+		static final byte PLACEHOLDERS = 'H';
+
+		static final byte PROFILE = 'F';
+
+		static final byte ACTIVE_PROFILES = 'A';
+
+		static final byte DEFAULT_PROFILES = 'D';
+
+		private final byte type;
+
+		private final String key;
+
+		@Nullable
+		private final String value;
+
+		EnvironmentCheck(byte type, String key, @Nullable String value) {
+			this.type = type;
+			this.key = key;
+			this.value = value;
+		}
+
+		boolean matches(Environment environment) {
+			return Objects.equals(this.value, evaluate(environment));
+		}
+
+		@Nullable
+		private String evaluate(Environment environment) {
+			try {
+				switch (this.type) {
+					case PROPERTY:
+						return environment.getProperty(this.key);
+					case PLACEHOLDERS:
+						return environment.resolvePlaceholders(this.key);
+					case PROFILE:
+						return String.valueOf(environment.acceptsProfiles(Profiles.of(this.key)));
+					case ACTIVE_PROFILES:
+						return StringUtils.arrayToCommaDelimitedString(environment.getActiveProfiles());
+					case DEFAULT_PROFILES:
+						return StringUtils.arrayToCommaDelimitedString(environment.getDefaultProfiles());
+					default:
+						throw new IllegalStateException("Unknown environment check type " + this.type);
+				}
+			}
+			catch (IllegalArgumentException ex) {
+				// Unresolvable placeholder in a property value
+				return null;
+			}
+		}
+
+		@Override
+		public String toString() {
+			String description;
+			switch (this.type) {
+				case PROPERTY:
+					description = "property '" + this.key + "'";
+					break;
+				case PROFILE:
+					description = "profile '" + this.key + "'";
+					break;
+				case ACTIVE_PROFILES:
+					description = "active profiles";
+					break;
+				case DEFAULT_PROFILES:
+					description = "default profiles";
+					break;
+				default:
+					description = "placeholders '" + this.key + "'";
+			}
+			return description + " expected to be [" + this.value + "]";
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} backed by the captured class names, introspecting
+	 * an importing class on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClassNames;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		SnapshotImportRegistry(Map<String, String> importingClassNames, @Nullable ClassLoader classLoader) {
+			this.importingClassNames = importingClassNames;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClassName = this.importingClassNames.get(importedClass);
+			if (importingClassName == null) {
+				return null;
+			}
+			try {
+				return AnnotationMetadata.introspect(ClassUtils.forName(importingClassName, this.classLoader));
+			}
+			catch (ClassNotFoundException ex) {
+				throw new IllegalStateException("Failed to introspect importing class [" + importingClassName + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClassNames.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
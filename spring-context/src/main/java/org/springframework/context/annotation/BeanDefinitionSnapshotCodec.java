@@ -0,0 +1,849 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Binary encoding of the bean definitions held by a {@link BeanDefinitionSnapshot}.
+ *
+ * <p>Covers the state produced by configuration class processing, component
+ * scanning and XML bean definition reading: definition settings, constructor
+ * arguments, property values and simple attributes. Values are limited to
+ * primitive wrappers, strings, class and enum references, bean references,
+ * typed string values, inner bean definitions and (managed) collections.
+ * Anything else, such as an instance supplier, method overrides or a
+ * pre-instantiated value object, is rejected when writing.
+ *
+ * <p>Annotated bean definitions, e.g. from component scanning or {@code @Bean}
+ * methods, are restored as {@link AnnotatedBeanDefinition AnnotatedBeanDefinitions}
+ * that introspect the annotated class on demand.
+ *
+ * @since 5.3.40
+ * @see BeanDefinitionSnapshot
+ */
+final class BeanDefinitionSnapshotCodec {
+
+	private static final byte GENERIC_DEFINITION = 'G';
+
+	private static final byte ROOT_DEFINITION = 'R';
+
+	private static final byte BEAN_METHOD_DEFINITION = 'M';
+
+	private static final byte ANNOTATED_DEFINITION = 'A';
+
+	private static final byte NULL = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte BOOLEAN = 2;
+
+	private static final byte INTEGER = 3;
+
+	private static final byte LONG = 4;
+
+	private static final byte DOUBLE = 5;
+
+	private static final byte FLOAT = 6;
+
+	private static final byte CLASS = 7;
+
+	private static final byte ENUM = 8;
+
+	private static final byte STRING_ARRAY = 9;
+
+	private static final byte BEAN_REFERENCE = 10;
+
+	private static final byte BEAN_NAME_REFERENCE = 11;
+
+	private static final byte TYPED_STRING_VALUE = 12;
+
+	private static final byte BEAN_DEFINITION_HOLDER = 13;
+
+	private static final byte BEAN_DEFINITION = 14;
+
+	private static final byte LIST = 15;
+
+	private static final byte SET = 16;
+
+	private static final byte MAP = 17;
+
+	private static final byte MANAGED_LIST = 18;
+
+	private static final byte MANAGED_SET = 19;
+
+	private static final byte MANAGED_MAP = 20;
+
+	private static final byte MANAGED_ARRAY = 21;
+
+	private static final byte MANAGED_PROPERTIES = 22;
+
+
+	private BeanDefinitionSnapshotCodec() {
+	}
+
+
+	// Writing
+
+	/**
+	 * Write the given bean definition.
+	 * @param out the output to write to
+	 * @param beanName the name of the bean, for error reporting
+	 * @param beanDefinition the bean definition to write
+	 * @throws IllegalStateException if the bean definition holds state that
+	 * cannot be captured in a snapshot
+	 */
+	static void writeBeanDefinition(DataOutputStream out, String beanName, BeanDefinition beanDefinition)
+			throws IOException {
+
+		if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+			throw unsupported(beanName, "unsupported bean definition type " + beanDefinition.getClass().getName());
+		}
+		AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+		if (bd.getInstanceSupplier() != null) {
+			throw unsupported(beanName, "instance supplier");
+		}
+		if (bd.hasMethodOverrides()) {
+			throw unsupported(beanName, "lookup or replace method overrides");
+		}
+		if (!bd.getQualifiers().isEmpty()) {
+			throw unsupported(beanName, "autowire candidate qualifiers");
+		}
+
+		AnnotationMetadata metadata = (bd instanceof AnnotatedBeanDefinition ?
+				((AnnotatedBeanDefinition) bd).getMetadata() : null);
+		MethodMetadata factoryMethodMetadata = (bd instanceof AnnotatedBeanDefinition ?
+				((AnnotatedBeanDefinition) bd).getFactoryMethodMetadata() : null);
+		if (metadata != null && factoryMethodMetadata != null && bd instanceof RootBeanDefinition) {
+			out.writeByte(BEAN_METHOD_DEFINITION);
+			out.writeUTF(determineBeanMethodName(factoryMethodMetadata));
+			out.writeUTF(metadata.getClassName());
+		}
+		else if (bd instanceof RootBeanDefinition) {
+			out.writeByte(ROOT_DEFINITION);
+		}
+		else if (metadata != null && factoryMethodMetadata == null) {
+			out.writeByte(ANNOTATED_DEFINITION);
+			writeString(out, bd.getParentName());
+			out.writeUTF(metadata.getClassName());
+		}
+		else {
+			out.writeByte(GENERIC_DEFINITION);
+			writeString(out, bd.getParentName());
+		}
+
+		writeString(out, bd.getBeanClassName());
+		writeString(out, bd.getScope());
+		out.writeBoolean(bd.isAbstract());
+		Boolean lazyInit = bd.getLazyInit();
+		out.writeByte(lazyInit != null ? (lazyInit ? 1 : 0) : -1);
+		out.writeInt(bd.getAutowireMode());
+		out.writeInt(bd.getDependencyCheck());
+		writeStringArray(out, bd.getDependsOn());
+		out.writeBoolean(bd.isAutowireCandidate());
+		out.writeBoolean(bd.isPrimary());
+		out.writeBoolean(bd.isNonPublicAccessAllowed());
+		out.writeBoolean(bd.isLenientConstructorResolution());
+		writeString(out, bd.getFactoryBeanName());
+		writeString(out, bd.getFactoryMethodName());
+		writeString(out, bd.getInitMethodName());
+		out.writeBoolean(bd.isEnforceInitMethod());
+		writeString(out, bd.getDestroyMethodName());
+		out.writeBoolean(bd.isEnforceDestroyMethod());
+		out.writeBoolean(bd.isSynthetic());
+		out.writeInt(bd.getRole());
+		writeString(out, bd.getDescription());
+		writeString(out, bd.getResourceDescription());
+
+		if (bd instanceof RootBeanDefinition) {
+			RootBeanDefinition rbd = (RootBeanDefinition) bd;
+			Class<?> targetType = rbd.getTargetType();
+			writeString(out, (targetType != null ? targetType.getName() : null));
+			BeanDefinitionHolder decoratedDefinition = rbd.getDecoratedDefinition();
+			out.writeBoolean(decoratedDefinition != null);
+			if (decoratedDefinition != null) {
+				writeBeanDefinitionHolder(out, beanName, decoratedDefinition);
+			}
+		}
+
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		Map<Integer, ConstructorArgumentValues.ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+		out.writeInt(indexedArgs.size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexedArgs.entrySet()) {
+			out.writeInt(entry.getKey());
+			writeValueHolder(out, beanName, entry.getValue());
+		}
+		List<ConstructorArgumentValues.ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+		out.writeInt(genericArgs.size());
+		for (ConstructorArgumentValues.ValueHolder valueHolder : genericArgs) {
+			writeValueHolder(out, beanName, valueHolder);
+		}
+
+		List<PropertyValue> propertyValues = bd.getPropertyValues().getPropertyValueList();
+		out.writeInt(propertyValues.size());
+		for (PropertyValue pv : propertyValues) {
+			out.writeUTF(pv.getName());
+			out.writeBoolean(pv.isOptional());
+			writeValue(out, beanName, pv.getValue());
+		}
+
+		// Attributes are metadata only: skip any that cannot be represented
+		List<String> attributeNames = new ArrayList<>();
+		for (String attributeName : bd.attributeNames()) {
+			if (isSimpleValue(bd.getAttribute(attributeName))) {
+				attributeNames.add(attributeName);
+			}
+		}
+		out.writeInt(attributeNames.size());
+		for (String attributeName : attributeNames) {
+			out.writeUTF(attributeName);
+			writeValue(out, beanName, bd.getAttribute(attributeName));
+		}
+	}
+
+	private static String determineBeanMethodName(MethodMetadata metadata) {
+		// Same derivation as ConfigurationClassBeanDefinitionReader
+		AnnotationAttributes bean = AnnotationConfigUtils.attributesFor(metadata, Bean.class);
+		String[] names = (bean != null ? bean.getStringArray("name") : new String[0]);
+		return (names.length > 0 ? names[0] : metadata.getMethodName());
+	}
+
+	private static void writeBeanDefinitionHolder(DataOutputStream out, String beanName, BeanDefinitionHolder holder)
+			throws IOException {
+
+		out.writeUTF(holder.getBeanName());
+		writeStringArray(out, holder.getAliases());
+		writeBeanDefinition(out, beanName, holder.getBeanDefinition());
+	}
+
+	private static void writeValueHolder(
+			DataOutputStream out, String beanName, ConstructorArgumentValues.ValueHolder valueHolder)
+			throws IOException {
+
+		writeValue(out, beanName, valueHolder.getValue());
+		writeString(out, valueHolder.getType());
+		writeString(out, valueHolder.getName());
+	}
+
+	private static void writeValue(DataOutputStream out, String beanName, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		}
+		else if (value instanceof String) {
+			out.writeByte(STRING);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Class) {
+			out.writeByte(CLASS);
+			out.writeUTF(((Class<?>) value).getName());
+		}
+		else if (value instanceof Enum) {
+			out.writeByte(ENUM);
+			out.writeUTF(((Enum<?>) value).getDeclaringClass().getName());
+			out.writeUTF(((Enum<?>) value).name());
+		}
+		else if (value instanceof String[]) {
+			out.writeByte(STRING_ARRAY);
+			writeStringArray(out, (String[]) value);
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			Class<?> beanType = reference.getBeanType();
+			out.writeByte(BEAN_REFERENCE);
+			writeString(out, (beanType != null ? beanType.getName() : null));
+			out.writeUTF(reference.getBeanName());
+			out.writeBoolean(reference.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			out.writeByte(BEAN_NAME_REFERENCE);
+			out.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedStringValue = (TypedStringValue) value;
+			out.writeByte(TYPED_STRING_VALUE);
+			writeString(out, typedStringValue.getValue());
+			writeString(out, typedStringValue.getTargetTypeName());
+			writeString(out, typedStringValue.getSpecifiedTypeName());
+			out.writeBoolean(typedStringValue.isDynamic());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			out.writeByte(BEAN_DEFINITION_HOLDER);
+			writeBeanDefinitionHolder(out, beanName, (BeanDefinitionHolder) value);
+		}
+		else if (value instanceof BeanDefinition) {
+			out.writeByte(BEAN_DEFINITION);
+			writeBeanDefinition(out, beanName, (BeanDefinition) value);
+		}
+		else if (value instanceof ManagedArray) {
+			ManagedArray array = (ManagedArray) value;
+			out.writeByte(MANAGED_ARRAY);
+			out.writeUTF(array.getElementTypeName());
+			out.writeBoolean(array.isMergeEnabled());
+			writeElements(out, beanName, array);
+		}
+		else if (value instanceof ManagedList) {
+			ManagedList<?> list = (ManagedList<?>) value;
+			out.writeByte(MANAGED_LIST);
+			writeString(out, list.getElementTypeName());
+			out.writeBoolean(list.isMergeEnabled());
+			writeElements(out, beanName, list);
+		}
+		else if (value instanceof ManagedSet) {
+			ManagedSet<?> set = (ManagedSet<?>) value;
+			out.writeByte(MANAGED_SET);
+			writeString(out, set.getElementTypeName());
+			out.writeBoolean(set.isMergeEnabled());
+			writeElements(out, beanName, set);
+		}
+		else if (value instanceof ManagedMap) {
+			ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+			out.writeByte(MANAGED_MAP);
+			writeString(out, map.getKeyTypeName());
+			writeString(out, map.getValueTypeName());
+			out.writeBoolean(map.isMergeEnabled());
+			writeEntries(out, beanName, map);
+		}
+		else if (value instanceof ManagedProperties) {
+			ManagedProperties properties = (ManagedProperties) value;
+			out.writeByte(MANAGED_PROPERTIES);
+			out.writeBoolean(properties.isMergeEnabled());
+			writeEntries(out, beanName, properties);
+		}
+		else if (value instanceof List) {
+			out.writeByte(LIST);
+			writeElements(out, beanName, (List<?>) value);
+		}
+		else if (value instanceof Set) {
+			out.writeByte(SET);
+			writeElements(out, beanName, (Set<?>) value);
+		}
+		else if (value instanceof Map && !(value instanceof Properties)) {
+			out.writeByte(MAP);
+			writeEntries(out, beanName, (Map<?, ?>) value);
+		}
+		else {
+			throw unsupported(beanName, "value of type " + value.getClass().getName());
+		}
+	}
+
+	private static void writeElements(DataOutputStream out, String beanName, Collection<?> elements)
+			throws IOException {
+
+		out.writeInt(elements.size());
+		for (Object element : elements) {
+			writeValue(out, beanName, element);
+		}
+	}
+
+	private static void writeEntries(DataOutputStream out, String beanName, Map<?, ?> map) throws IOException {
+		out.writeInt(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			writeValue(out, beanName, entry.getKey());
+			writeValue(out, beanName, entry.getValue());
+		}
+	}
+
+	static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	static void writeStringArray(DataOutputStream out, @Nullable String[] values) throws IOException {
+		out.writeInt(values != null ? values.length : -1);
+		if (values != null) {
+			for (String value : values) {
+				out.writeUTF(value);
+			}
+		}
+	}
+
+	private static boolean isSimpleValue(@Nullable Object value) {
+		return (value instanceof String || value instanceof Boolean || value instanceof Integer ||
+				value instanceof Long || value instanceof Double || value instanceof Float ||
+				value instanceof Class || value instanceof Enum);
+	}
+
+	private static IllegalStateException unsupported(String beanName, String reason) {
+		return new IllegalStateException(
+				"Bean definition '" + beanName + "' cannot be captured in a snapshot: " + reason);
+	}
+
+
+	// Reading
+
+	/**
+	 * Read a bean definition previously written by {@link #writeBeanDefinition}.
+	 * @param in the input to read from
+	 * @param classLoader the class loader to resolve class and enum values against
+	 * @return the bean definition
+	 */
+	static AbstractBeanDefinition readBeanDefinition(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		AbstractBeanDefinition bd;
+		byte kind = in.readByte();
+		if (kind == BEAN_METHOD_DEFINITION) {
+			String derivedBeanName = in.readUTF();
+			bd = new BeanMethodDefinition(derivedBeanName, in.readUTF(), classLoader);
+		}
+		else if (kind == ROOT_DEFINITION) {
+			bd = new RootBeanDefinition();
+		}
+		else if (kind == ANNOTATED_DEFINITION) {
+			String parentName = readString(in);
+			AnnotatedDefinition abd = new AnnotatedDefinition(in.readUTF(), classLoader);
+			abd.setParentName(parentName);
+			bd = abd;
+		}
+		else if (kind == GENERIC_DEFINITION) {
+			GenericBeanDefinition gbd = new GenericBeanDefinition();
+			gbd.setParentName(readString(in));
+			bd = gbd;
+		}
+		else {
+			throw new IOException("Corrupt snapshot: unknown bean definition kind " + kind);
+		}
+
+		bd.setBeanClassName(readString(in));
+		bd.setScope(readString(in));
+		bd.setAbstract(in.readBoolean());
+		byte lazyInit = in.readByte();
+		if (lazyInit != -1) {
+			bd.setLazyInit(lazyInit == 1);
+		}
+		bd.setAutowireMode(in.readInt());
+		bd.setDependencyCheck(in.readInt());
+		bd.setDependsOn(readStringArray(in));
+		bd.setAutowireCandidate(in.readBoolean());
+		bd.setPrimary(in.readBoolean());
+		bd.setNonPublicAccessAllowed(in.readBoolean());
+		bd.setLenientConstructorResolution(in.readBoolean());
+		bd.setFactoryBeanName(readString(in));
+		String factoryMethodName = readString(in);
+		if (bd instanceof BeanMethodDefinition && factoryMethodName != null) {
+			// Consider overloaded @Bean methods, selected through BeanMethodDefinition#isFactoryMethod
+			((BeanMethodDefinition) bd).setNonUniqueFactoryMethodName(factoryMethodName);
+		}
+		else {
+			bd.setFactoryMethodName(factoryMethodName);
+		}
+		bd.setInitMethodName(readString(in));
+		bd.setEnforceInitMethod(in.readBoolean());
+		bd.setDestroyMethodName(readString(in));
+		bd.setEnforceDestroyMethod(in.readBoolean());
+		bd.setSynthetic(in.readBoolean());
+		bd.setRole(in.readInt());
+		bd.setDescription(readString(in));
+		bd.setResourceDescription(readString(in));
+
+		if (bd instanceof RootBeanDefinition) {
+			RootBeanDefinition rbd = (RootBeanDefinition) bd;
+			String targetTypeName = readString(in);
+			if (targetTypeName != null) {
+				rbd.setTargetType(ClassUtils.forName(targetTypeName, classLoader));
+			}
+			if (in.readBoolean()) {
+				rbd.setDecoratedDefinition(readBeanDefinitionHolder(in, classLoader));
+			}
+		}
+
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		int indexedCount = in.readInt();
+		for (int i = 0; i < indexedCount; i++) {
+			int index = in.readInt();
+			cargs.addIndexedArgumentValue(index, readValueHolder(in, classLoader));
+		}
+		int genericCount = in.readInt();
+		for (int i = 0; i < genericCount; i++) {
+			cargs.addGenericArgumentValue(readValueHolder(in, classLoader));
+		}
+
+		MutablePropertyValues pvs = bd.getPropertyValues();
+		int propertyCount = in.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			String name = in.readUTF();
+			boolean optional = in.readBoolean();
+			PropertyValue pv = new PropertyValue(name, readValue(in, classLoader));
+			pv.setOptional(optional);
+			pvs.addPropertyValue(pv);
+		}
+
+		int attributeCount = in.readInt();
+		for (int i = 0; i < attributeCount; i++) {
+			String name = in.readUTF();
+			bd.setAttribute(name, readValue(in, classLoader));
+		}
+		return bd;
+	}
+
+	private static BeanDefinitionHolder readBeanDefinitionHolder(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		String beanName = in.readUTF();
+		String[] aliases = readStringArray(in);
+		return new BeanDefinitionHolder(readBeanDefinition(in, classLoader), beanName, aliases);
+	}
+
+	private static ConstructorArgumentValues.ValueHolder readValueHolder(
+			DataInputStream in, @Nullable ClassLoader classLoader) throws IOException, ClassNotFoundException {
+
+		Object value = readValue(in, classLoader);
+		String type = readString(in);
+		String name = readString(in);
+		return new ConstructorArgumentValues.ValueHolder(value, type, name);
+	}
+
+	@Nullable
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object readValue(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		byte type = in.readByte();
+		switch (type) {
+			case NULL:
+				return null;
+			case STRING:
+				return in.readUTF();
+			case BOOLEAN:
+				return in.readBoolean();
+			case INTEGER:
+				return in.readInt();
+			case LONG:
+				return in.readLong();
+			case DOUBLE:
+				return in.readDouble();
+			case FLOAT:
+				return in.readFloat();
+			case CLASS:
+				return ClassUtils.forName(in.readUTF(), classLoader);
+			case ENUM: {
+				Class<?> enumType = ClassUtils.forName(in.readUTF(), classLoader);
+				return Enum.valueOf((Class<Enum>) enumType, in.readUTF());
+			}
+			case STRING_ARRAY:
+				return readStringArray(in);
+			case BEAN_REFERENCE: {
+				String beanTypeName = readString(in);
+				String beanName = in.readUTF();
+				boolean toParent = in.readBoolean();
+				return (beanTypeName != null ?
+						new RuntimeBeanReference(ClassUtils.forName(beanTypeName, classLoader), toParent) :
+						new RuntimeBeanReference(beanName, toParent));
+			}
+			case BEAN_NAME_REFERENCE:
+				return new RuntimeBeanNameReference(in.readUTF());
+			case TYPED_STRING_VALUE: {
+				TypedStringValue typedStringValue = new TypedStringValue(readString(in));
+				typedStringValue.setTargetTypeName(readString(in));
+				typedStringValue.setSpecifiedTypeName(readString(in));
+				if (in.readBoolean()) {
+					typedStringValue.setDynamic();
+				}
+				return typedStringValue;
+			}
+			case BEAN_DEFINITION_HOLDER:
+				return readBeanDefinitionHolder(in, classLoader);
+			case BEAN_DEFINITION:
+				return readBeanDefinition(in, classLoader);
+			case MANAGED_ARRAY: {
+				String elementTypeName = in.readUTF();
+				boolean mergeEnabled = in.readBoolean();
+				int size = in.readInt();
+				ManagedArray array = new ManagedArray(elementTypeName, size);
+				array.setMergeEnabled(mergeEnabled);
+				readElements(in, classLoader, array, size);
+				return array;
+			}
+			case MANAGED_LIST: {
+				ManagedList<Object> list = new ManagedList<>();
+				list.setElementTypeName(readString(in));
+				list.setMergeEnabled(in.readBoolean());
+				readElements(in, classLoader, list, in.readInt());
+				return list;
+			}
+			case MANAGED_SET: {
+				ManagedSet<Object> set = new ManagedSet<>();
+				set.setElementTypeName(readString(in));
+				set.setMergeEnabled(in.readBoolean());
+				readElements(in, classLoader, set, in.readInt());
+				return set;
+			}
+			case MANAGED_MAP: {
+				ManagedMap<Object, Object> map = new ManagedMap<>();
+				map.setKeyTypeName(readString(in));
+				map.setValueTypeName(readString(in));
+				map.setMergeEnabled(in.readBoolean());
+				readEntries(in, classLoader, map);
+				return map;
+			}
+			case MANAGED_PROPERTIES: {
+				ManagedProperties properties = new ManagedProperties();
+				properties.setMergeEnabled(in.readBoolean());
+				readEntries(in, classLoader, properties);
+				return properties;
+			}
+			case LIST: {
+				int size = in.readInt();
+				List<Object> list = new ArrayList<>(size);
+				readElements(in, classLoader, list, size);
+				return list;
+			}
+			case SET: {
+				int size = in.readInt();
+				Set<Object> set = new LinkedHashSet<>(size);
+				readElements(in, classLoader, set, size);
+				return set;
+			}
+			case MAP: {
+				Map<Object, Object> map = new LinkedHashMap<>();
+				readEntries(in, classLoader, map);
+				return map;
+			}
+			default:
+				throw new IOException("Corrupt snapshot: unknown value type " + type);
+		}
+	}
+
+	private static void readElements(DataInputStream in, @Nullable ClassLoader classLoader,
+			Collection<Object> elements, int size) throws IOException, ClassNotFoundException {
+
+		for (int i = 0; i < size; i++) {
+			elements.add(readValue(in, classLoader));
+		}
+	}
+
+	private static void readEntries(DataInputStream in, @Nullable ClassLoader classLoader, Map<Object, Object> map)
+			throws IOException, ClassNotFoundException {
+
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			Object key = readValue(in, classLoader);
+			map.put(key, readValue(in, classLoader));
+		}
+	}
+
+	@Nullable
+	static String readString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	@Nullable
+	static String[] readStringArray(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == -1) {
+			return null;
+		}
+		String[] values = new String[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+
+	private static AnnotationMetadata introspect(String className, @Nullable ClassLoader classLoader) {
+		try {
+			return AnnotationMetadata.introspect(ClassUtils.forName(className, classLoader));
+		}
+		catch (ClassNotFoundException ex) {
+			throw new IllegalStateException("Failed to introspect annotated class [" + className + "]", ex);
+		}
+	}
+
+
+	/**
+	 * Restored variant of a bean definition derived from a {@link Bean @Bean}
+	 * method, selecting the factory method among overloaded candidates the same
+	 * way as the definitions registered by {@link ConfigurationClassBeanDefinitionReader}.
+	 */
+	@SuppressWarnings("serial")
+	private static class BeanMethodDefinition extends RootBeanDefinition implements AnnotatedBeanDefinition {
+
+		private final String derivedBeanName;
+
+		private final String configClassName;
+
+		@Nullable
+		private final transient ClassLoader classLoader;
+
+		@Nullable
+		private transient volatile AnnotationMetadata metadata;
+
+		@Nullable
+		private transient volatile MethodMetadata factoryMethodMetadata;
+
+		BeanMethodDefinition(String derivedBeanName, String configClassName, @Nullable ClassLoader classLoader) {
+			this.derivedBeanName = derivedBeanName;
+			this.configClassName = configClassName;
+			this.classLoader = classLoader;
+		}
+
+		private BeanMethodDefinition(BeanMethodDefinition original) {
+			super(original);
+			this.derivedBeanName = original.derivedBeanName;
+			this.configClassName = original.configClassName;
+			this.classLoader = original.classLoader;
+			this.metadata = original.metadata;
+			this.factoryMethodMetadata = original.factoryMethodMetadata;
+		}
+
+		@Override
+		public AnnotationMetadata getMetadata() {
+			AnnotationMetadata metadata = this.metadata;
+			if (metadata == null) {
+				metadata = introspect(this.configClassName, this.classLoader);
+				this.metadata = metadata;
+			}
+			return metadata;
+		}
+
+		@Override
+		@Nullable
+		public MethodMetadata getFactoryMethodMetadata() {
+			MethodMetadata factoryMethodMetadata = this.factoryMethodMetadata;
+			if (factoryMethodMetadata == null) {
+				for (MethodMetadata candidate : getMetadata().getAnnotatedMethods(Bean.class.getName())) {
+					if (candidate.getMethodName().equals(getFactoryMethodName()) &&
+							determineBeanMethodName(candidate).equals(this.derivedBeanName)) {
+						factoryMethodMetadata = candidate;
+						this.factoryMethodMetadata = candidate;
+						break;
+					}
+				}
+			}
+			return factoryMethodMetadata;
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate) &&
+					BeanAnnotationHelper.determineBeanNameFor(candidate).equals(this.derivedBeanName));
+		}
+
+		@Override
+		public BeanMethodDefinition cloneBeanDefinition() {
+			return new BeanMethodDefinition(this);
+		}
+	}
+
+
+	/**
+	 * Restored variant of an annotated bean definition, e.g. from component
+	 * scanning, introspecting the annotated class on demand.
+	 */
+	@SuppressWarnings("serial")
+	private static class AnnotatedDefinition extends GenericBeanDefinition implements AnnotatedBeanDefinition {
+
+		private final String annotatedClassName;
+
+		@Nullable
+		private final transient ClassLoader classLoader;
+
+		@Nullable
+		private transient volatile AnnotationMetadata metadata;
+
+		AnnotatedDefinition(String annotatedClassName, @Nullable ClassLoader classLoader) {
+			this.annotatedClassName = annotatedClassName;
+			this.classLoader = classLoader;
+		}
+
+		private AnnotatedDefinition(AnnotatedDefinition original) {
+			super(original);
+			this.annotatedClassName = original.annotatedClassName;
+			this.classLoader = original.classLoader;
+			this.metadata = original.metadata;
+		}
+
+		@Override
+		public AnnotationMetadata getMetadata() {
+			AnnotationMetadata metadata = this.metadata;
+			if (metadata == null) {
+				metadata = introspect(this.annotatedClassName, this.classLoader);
+				this.metadata = metadata;
+			}
+			return metadata;
+		}
+
+		@Override
+		@Nullable
+		public MethodMetadata getFactoryMethodMetadata() {
+			return null;
+		}
+
+		@Override
+		public AnnotatedDefinition cloneBeanDefinition() {
+			return new AnnotatedDefinition(this);
+		}
+	}
+
+}
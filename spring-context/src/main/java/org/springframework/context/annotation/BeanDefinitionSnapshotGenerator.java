@@ -0,0 +1,320 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Build-time generator for {@link BeanDefinitionSnapshot bean definition snapshots}.
+ *
+ * <p>Processes the given configuration classes the same way as an annotation-based
+ * application context does on startup, without instantiating any bean, and captures
+ * the resulting bean definitions along with the environment lookups they depend on.
+ * Typically invoked through {@link #main} after compilation, with the application
+ * classes and their dependencies on the classpath, writing the snapshot next to
+ * the compiled classes:
+ *
+ * <pre class="code">
+ * java -cp ... org.springframework.context.annotation.BeanDefinitionSnapshotGenerator \
+ *     build/classes/java/main com.example.AppConfig</pre>
+ *
+ * <p>The environment used for processing is a {@link StandardEnvironment}, so
+ * active profiles and properties can be specified as system properties. Only
+ * {@link ConfigurationClassPostProcessor} is applied: bean definitions registered
+ * by other post-processors are registered at runtime as usual.
+ *
+ * @since 5.3.40
+ * @see BeanDefinitionSnapshot
+ */
+public class BeanDefinitionSnapshotGenerator {
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+
+	/**
+	 * Create a new generator for the default class loader.
+	 */
+	public BeanDefinitionSnapshotGenerator() {
+		this(ClassUtils.getDefaultClassLoader());
+	}
+
+	/**
+	 * Create a new generator for the given class loader.
+	 * @param classLoader the class loader to load configuration classes with
+	 */
+	public BeanDefinitionSnapshotGenerator(@Nullable ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Capture a snapshot of the bean definitions derived from the given
+	 * configuration classes.
+	 * @param configClassNames the names of the configuration classes, as
+	 * registered with the application context
+	 * @return the snapshot
+	 * @throws ClassNotFoundException if a configuration class cannot be found
+	 */
+	public BeanDefinitionSnapshot generate(String... configClassNames) throws ClassNotFoundException {
+		Assert.notEmpty(configClassNames, "At least one configuration class is required");
+		CaptureEnvironment environment = new CaptureEnvironment();
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setBeanClassLoader(this.classLoader);
+		AnnotatedBeanDefinitionReader reader = new AnnotatedBeanDefinitionReader(beanFactory, environment);
+		for (String configClassName : configClassNames) {
+			reader.register(ClassUtils.forName(configClassName, this.classLoader));
+		}
+		Set<String> existingNames = new HashSet<>(Arrays.asList(beanFactory.getBeanDefinitionNames()));
+
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setUseSnapshot(false);
+		postProcessor.setEnvironment(environment);
+		postProcessor.setResourceLoader(new DefaultResourceLoader(this.classLoader));
+		if (this.classLoader != null) {
+			postProcessor.setBeanClassLoader(this.classLoader);
+		}
+		postProcessor.postProcessBeanDefinitionRegistry(beanFactory);
+
+		// The configuration classes actually picked up by the post-processor identify the snapshot
+		Set<String> candidateClassNames = new LinkedHashSet<>();
+		for (String beanName : existingNames) {
+			BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+			if (bd.getAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE) != null &&
+					bd.getBeanClassName() != null) {
+				candidateClassNames.add(bd.getBeanClassName());
+			}
+		}
+
+		ImportRegistry importRegistry = (ImportRegistry) beanFactory.getSingleton(
+				ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		List<BeanDefinitionHolder> beanDefinitions = new ArrayList<>();
+		Map<String, String> importingClassNames = new LinkedHashMap<>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			if (existingNames.contains(beanName)) {
+				continue;
+			}
+			BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+			beanDefinitions.add(new BeanDefinitionHolder(bd, beanName, beanFactory.getAliases(beanName)));
+			String className = bd.getBeanClassName();
+			if (importRegistry != null && className != null) {
+				AnnotationMetadata importingClass = importRegistry.getImportingClassFor(className);
+				if (importingClass != null) {
+					importingClassNames.put(className, importingClass.getClassName());
+				}
+			}
+		}
+
+		return new BeanDefinitionSnapshot(new ArrayList<>(candidateClassNames),
+				new ArrayList<>(environment.checks.values()), new ArrayList<>(environment.propertySourceClassNames),
+				beanDefinitions, importingClassNames);
+	}
+
+	/**
+	 * Capture a snapshot of the bean definitions derived from the given
+	 * configuration classes and write it below the given output directory,
+	 * at the location the snapshot is looked up from at runtime.
+	 * @param outputDirectory the root of the classpath entry to write to
+	 * @param configClassNames the names of the configuration classes, as
+	 * registered with the application context
+	 * @return the written file
+	 * @throws ClassNotFoundException if a configuration class cannot be found
+	 * @throws IOException in case of I/O errors
+	 */
+	public File generate(File outputDirectory, String... configClassNames)
+			throws ClassNotFoundException, IOException {
+
+		BeanDefinitionSnapshot snapshot = generate(configClassNames);
+		File file = new File(outputDirectory, BeanDefinitionSnapshot.getResourceLocation(snapshot.getConfigClassNames()));
+		File parent = file.getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Failed to create directory " + parent);
+		}
+		try (OutputStream out = new FileOutputStream(file)) {
+			snapshot.writeTo(out);
+		}
+		return file;
+	}
+
+
+	/**
+	 * Command-line entry point for build tools.
+	 * @param args the output directory, followed by the names of the configuration classes
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: BeanDefinitionSnapshotGenerator <outputDirectory> <configClassName>...");
+			System.exit(1);
+		}
+		File file = new BeanDefinitionSnapshotGenerator().generate(
+				new File(args[0]), Arrays.copyOfRange(args, 1, args.length));
+		System.out.println("Bean definition snapshot written to " + file);
+	}
+
+
+	/**
+	 * {@link StandardEnvironment} recording the lookups made during configuration
+	 * class processing, as well as the configuration classes declaring property sources.
+	 * <p>Direct access to the property sources, e.g. for iterating over them, cannot
+	 * be captured as a lookup and is therefore rejected, except for registering
+	 * {@code @PropertySource} declarations.
+	 */
+	static class CaptureEnvironment extends StandardEnvironment {
+
+		final Map<String, BeanDefinitionSnapshot.EnvironmentCheck> checks = new LinkedHashMap<>();
+
+		final Set<String> propertySourceClassNames = new LinkedHashSet<>();
+
+		private boolean registeringPropertySources;
+
+		void recordPropertySources(String className) {
+			this.propertySourceClassNames.add(className);
+		}
+
+		void setRegisteringPropertySources(boolean registeringPropertySources) {
+			this.registeringPropertySources = registeringPropertySources;
+		}
+
+		private void recordProperty(String key) {
+			String value;
+			try {
+				value = super.getProperty(key);
+			}
+			catch (IllegalArgumentException ex) {
+				value = null;
+			}
+			record(BeanDefinitionSnapshot.EnvironmentCheck.PROPERTY, key, value);
+		}
+
+		private void record(byte type, String key, @Nullable String value) {
+			this.checks.putIfAbsent((char) type + key, new BeanDefinitionSnapshot.EnvironmentCheck(type, key, value));
+		}
+
+		@Override
+		public String[] getActiveProfiles() {
+			String[] profiles = super.getActiveProfiles();
+			record(BeanDefinitionSnapshot.EnvironmentCheck.ACTIVE_PROFILES, "",
+					StringUtils.arrayToCommaDelimitedString(profiles));
+			return profiles;
+		}
+
+		@Override
+		public String[] getDefaultProfiles() {
+			String[] profiles = super.getDefaultProfiles();
+			record(BeanDefinitionSnapshot.EnvironmentCheck.DEFAULT_PROFILES, "",
+					StringUtils.arrayToCommaDelimitedString(profiles));
+			return profiles;
+		}
+
+		@Override
+		public MutablePropertySources getPropertySources() {
+			if (!this.registeringPropertySources) {
+				throw new IllegalStateException("Direct access to the property sources of the Environment " +
+						"during configuration class processing cannot be captured in a bean definition snapshot");
+			}
+			return super.getPropertySources();
+		}
+
+		@Override
+		protected boolean isProfileActive(String profile) {
+			boolean active = super.isProfileActive(profile);
+			record(BeanDefinitionSnapshot.EnvironmentCheck.PROFILE, profile, String.valueOf(active));
+			return active;
+		}
+
+		@Override
+		public boolean containsProperty(String key) {
+			recordProperty(key);
+			return super.containsProperty(key);
+		}
+
+		@Override
+		@Nullable
+		public String getProperty(String key) {
+			recordProperty(key);
+			return super.getProperty(key);
+		}
+
+		@Override
+		public String getProperty(String key, String defaultValue) {
+			recordProperty(key);
+			return super.getProperty(key, defaultValue);
+		}
+
+		@Override
+		@Nullable
+		public <T> T getProperty(String key, Class<T> targetType) {
+			recordProperty(key);
+			return super.getProperty(key, targetType);
+		}
+
+		@Override
+		public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
+			recordProperty(key);
+			return super.getProperty(key, targetType, defaultValue);
+		}
+
+		@Override
+		public String getRequiredProperty(String key) throws IllegalStateException {
+			recordProperty(key);
+			return super.getRequiredProperty(key);
+		}
+
+		@Override
+		public <T> T getRequiredProperty(String key, Class<T> targetType) throws IllegalStateException {
+			recordProperty(key);
+			return super.getRequiredProperty(key, targetType);
+		}
+
+		@Override
+		public String resolvePlaceholders(String text) {
+			String resolved = super.resolvePlaceholders(text);
+			record(BeanDefinitionSnapshot.EnvironmentCheck.PLACEHOLDERS, text, resolved);
+			return resolved;
+		}
+
+		@Override
+		public String resolveRequiredPlaceholders(String text) throws IllegalArgumentException {
+			record(BeanDefinitionSnapshot.EnvironmentCheck.PLACEHOLDERS, text, super.resolvePlaceholders(text));
+			return super.resolveRequiredPlaceholders(text);
+		}
+	}
+
+}
@@ -24,6 +24,10 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,6 +40,7 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -94,6 +99,21 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 */
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/**
+	 * System property that specifies the default number of threads to scan
+	 * the classpath with, e.g. for {@link ComponentScan @ComponentScan}.
+	 * <p>The default is 1, i.e. serial scanning.
+	 *
+	 * @see #setScanParallelism
+	 * @since 5.3.40
+	 */
+	public static final String SCAN_PARALLELISM_PROPERTY_NAME = "spring.context.scan.parallelism";
+
+	/**
+	 * 并行扫描时，每个任务至少处理的资源数量，少于该数量时串行扫描
+	 */
+	private static final int MIN_RESOURCES_PER_SCAN_TASK = 64;
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private String resourcePattern = DEFAULT_RESOURCE_PATTERN;
@@ -132,6 +152,11 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	/**
+	 * 扫描类路径时使用的线程数量
+	 */
+	private int scanParallelism = getDefaultScanParallelism();
+
 	/**
 	 * Protected constructor for flexible subclass initialization.
 	 *
@@ -183,6 +208,36 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.resourcePattern = resourcePattern;
 	}
 
+	/**
+	 * Set the number of threads to scan the classpath with in
+	 * {@link #findCandidateComponents(String)}. Default is 1, i.e. serial
+	 * scanning, unless specified otherwise through the
+	 * {@value #SCAN_PARALLELISM_PROPERTY_NAME} property.
+	 * <p>With a higher value, the class files found for a base package are split
+	 * into consecutive batches that are read and matched against the type filters
+	 * in parallel on a {@link ForkJoinPool}. Candidate components are returned in
+	 * the same order as with serial scanning.
+	 * <p>Only switch this on if the {@link MetadataReaderFactory}, the type filters
+	 * and the {@link Conditional @Conditional} conditions of scanned classes are
+	 * thread-safe.
+	 *
+	 * @since 5.3.40
+	 * @see #SCAN_PARALLELISM_PROPERTY_NAME
+	 */
+	public void setScanParallelism(int scanParallelism) {
+		Assert.isTrue(scanParallelism > 0, "Scan parallelism must be greater than 0");
+		this.scanParallelism = scanParallelism;
+	}
+
+	/**
+	 * Return the number of threads to scan the classpath with.
+	 *
+	 * @since 5.3.40
+	 */
+	public int getScanParallelism() {
+		return this.scanParallelism;
+	}
+
 	/**
 	 * Add an include type filter to the <i>end</i> of the inclusion list.
 	 */
@@ -451,47 +506,15 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			// 使用支持 pattern 的资源加载器加载资源
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
 
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
-
-			// 遍历每个资源 => 鉴别每个资源是否需要构造 bean definition
-			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
-				}
-				try {
-					// 读取 Resource 类文件，使用 ASM 解析
-					MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-
-					// 根据 exclude filter、include filter + condition 过滤
-					if (isCandidateComponent(metadataReader)) {
-
-						// 创建 BeanDefinition
-						ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-						sbd.setSource(resource); // 设置 source
-
-						// 根据 独立类 + 具体类 过滤
-						if (isCandidateComponent(sbd)) {
-							if (debugEnabled) {
-								logger.debug("Identified candidate component class: " + resource);
-							}
-							candidates.add(sbd);
-						} else {
-							if (debugEnabled) {
-								logger.debug("Ignored because not a concrete top-level class: " + resource);
-							}
-						}
-					} else {
-						if (traceEnabled) {
-							logger.trace("Ignored because not matching any filter: " + resource);
-						}
-					}
-				} catch (FileNotFoundException ex) {
-					if (traceEnabled) {
-						logger.trace("Ignored non-readable " + resource + ": " + ex.getMessage());
+			if (this.scanParallelism > 1 && resources.length >= MIN_RESOURCES_PER_SCAN_TASK * 2) {
+				scanCandidateComponentsInParallel(resources, candidates);
+			} else {
+				// 遍历每个资源 => 鉴别每个资源是否需要构造 bean definition
+				for (Resource resource : resources) {
+					ScannedGenericBeanDefinition sbd = scanCandidateComponent(resource);
+					if (sbd != null) {
+						candidates.add(sbd);
 					}
-				} catch (Throwable ex) {
-					throw new BeanDefinitionStoreException("Failed to read candidate component class: " + resource, ex);
 				}
 			}
 		} catch (IOException ex) {
@@ -500,6 +523,126 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Read the given class file resource and build a bean definition for it
+	 * if it qualifies as a candidate component.
+	 *
+	 * @param resource the class file resource
+	 * @return the bean definition, or {@code null} if not a candidate component
+	 */
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource) {
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		try {
+			// 读取 Resource 类文件，使用 ASM 解析
+			MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+
+			// 根据 exclude filter、include filter + condition 过滤
+			if (isCandidateComponent(metadataReader)) {
+
+				// 创建 BeanDefinition
+				ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+				sbd.setSource(resource); // 设置 source
+
+				// 根据 独立类 + 具体类 过滤
+				if (isCandidateComponent(sbd)) {
+					if (debugEnabled) {
+						logger.debug("Identified candidate component class: " + resource);
+					}
+					return sbd;
+				} else {
+					if (debugEnabled) {
+						logger.debug("Ignored because not a concrete top-level class: " + resource);
+					}
+				}
+			} else {
+				if (traceEnabled) {
+					logger.trace("Ignored because not matching any filter: " + resource);
+				}
+			}
+		} catch (FileNotFoundException ex) {
+			if (traceEnabled) {
+				logger.trace("Ignored non-readable " + resource + ": " + ex.getMessage());
+			}
+		} catch (Throwable ex) {
+			throw new BeanDefinitionStoreException("Failed to read candidate component class: " + resource, ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Scan the given class file resources in parallel, one task per batch of
+	 * consecutive resources, adding candidate components in resource order.
+	 *
+	 * @see #setScanParallelism
+	 */
+	private void scanCandidateComponentsInParallel(Resource[] resources, Set<BeanDefinition> candidates) {
+		int batchSize = Math.max(MIN_RESOURCES_PER_SCAN_TASK, resources.length / (this.scanParallelism * 4) + 1);
+		int batchCount = (resources.length + batchSize - 1) / batchSize;
+		if (logger.isDebugEnabled()) {
+			logger.debug("Scanning " + resources.length + " resources in " + batchCount +
+					" batches with parallelism " + this.scanParallelism);
+		}
+
+		// 提前初始化，避免在扫描线程中并发地延迟初始化
+		getMetadataReaderFactory();
+		if (this.conditionEvaluator == null) {
+			this.conditionEvaluator =
+					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+		}
+
+		ClassLoader classLoader = getResourcePatternResolver().getClassLoader();
+		ForkJoinPool pool = new ForkJoinPool(this.scanParallelism, forkJoinPool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+			thread.setName("classpath-scan-" + thread.getPoolIndex());
+			thread.setContextClassLoader(classLoader);
+			return thread;
+		}, null, false);
+		ScannedGenericBeanDefinition[] results = new ScannedGenericBeanDefinition[resources.length];
+		BeanDefinitionStoreException[] failures = new BeanDefinitionStoreException[batchCount];
+		AtomicBoolean failed = new AtomicBoolean();
+
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(batchCount);
+			for (int i = 0; i < batchCount; i++) {
+				int batchIndex = i;
+				int start = i * batchSize;
+				int end = Math.min(start + batchSize, resources.length);
+				tasks.add(pool.submit(() -> {
+					for (int j = start; j < end && !failed.get(); j++) {
+						try {
+							results[j] = scanCandidateComponent(resources[j]);
+						} catch (BeanDefinitionStoreException ex) {
+							failures[batchIndex] = ex;
+							failed.set(true);
+							return;
+						}
+					}
+				}));
+			}
+			for (ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		for (BeanDefinitionStoreException failure : failures) {
+			if (failure != null) {
+				throw failure;
+			}
+		}
+		for (ScannedGenericBeanDefinition result : results) {
+			if (result != null) {
+				candidates.add(result);
+			}
+		}
+	}
+
 	/**
 	 * Resolve the specified base package into a pattern specification for
 	 * the package search path.
@@ -581,6 +724,23 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 				(metadata.isAbstract() && metadata.hasAnnotatedMethods(Lookup.class.getName()))));
 	}
 
+	/**
+	 * Return the default number of threads to scan the classpath with.
+	 *
+	 * @see #SCAN_PARALLELISM_PROPERTY_NAME
+	 */
+	private static int getDefaultScanParallelism() {
+		String parallelism = SpringProperties.getProperty(SCAN_PARALLELISM_PROPERTY_NAME);
+		if (parallelism != null) {
+			try {
+				return Math.max(1, Integer.parseInt(parallelism.trim()));
+			} catch (NumberFormatException ex) {
+				// fall back to serial scanning
+			}
+		}
+		return 1;
+	}
+
 	/**
 	 * Clear the local metadata cache, if any, removing all cached class metadata.
 	 */
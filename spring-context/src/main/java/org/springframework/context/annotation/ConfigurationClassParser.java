@@ -54,6 +54,8 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.context.annotation.ConfigurationCondition.ConfigurationPhase;
 import org.springframework.context.annotation.DeferredImportSelector.Group;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotationAttributes;
@@ -292,16 +294,7 @@ class ConfigurationClassParser {
 
 		// Process any @PropertySource annotations
 		// 2) 处理 @PropertySources 注解
-		for (AnnotationAttributes propertySource : AnnotationConfigUtils.attributesForRepeatable(
-				sourceClass.getMetadata(), PropertySources.class,
-				org.springframework.context.annotation.PropertySource.class)) {
-			if (this.environment instanceof ConfigurableEnvironment) {
-				processPropertySource(propertySource);
-			} else {
-				logger.info("Ignoring @PropertySource annotation on [" + sourceClass.getMetadata().getClassName() +
-						"]. Reason: Environment must implement ConfigurableEnvironment");
-			}
-		}
+		processPropertySources(sourceClass.getMetadata());
 
 		// Process any @ComponentScan annotations
 		// 3) 处理 @ComponentScan 注解
@@ -451,39 +444,106 @@ class ConfigurationClassParser {
 		// 但是，JDK 反射存在确认，返回的 Method 是无序的，所以下面尝试用 ASM 重新排序
 
 		if (beanMethods.size() > 1 && original instanceof StandardAnnotationMetadata) {
-			// Try reading the class file via ASM for deterministic declaration order...
-			// Unfortunately, the JVM's standard reflection returns methods in arbitrary
-			// order, even between different runs of the same application on the same JVM.
-			try {
-				AnnotationMetadata asm =
-						this.metadataReaderFactory.getMetadataReader(original.getClassName()).getAnnotationMetadata();
-				Set<MethodMetadata> asmMethods = asm.getAnnotatedMethods(Bean.class.getName());
-				if (asmMethods.size() >= beanMethods.size()) {
-					Set<MethodMetadata> candidateMethods = new LinkedHashSet<>(beanMethods);
-					Set<MethodMetadata> selectedMethods = new LinkedHashSet<>(asmMethods.size());
+			// Try the @Bean methods recorded in the components index for deterministic declaration order,
+			// without reading the class file...
+			List<String> declaredMethodNames = getIndexedBeanMethodNames(original.getClassName());
+			if (declaredMethodNames == null) {
+				// Try reading the class file via ASM for deterministic declaration order...
+				// Unfortunately, the JVM's standard reflection returns methods in arbitrary
+				// order, even between different runs of the same application on the same JVM.
+				try {
+					AnnotationMetadata asm =
+							this.metadataReaderFactory.getMetadataReader(original.getClassName()).getAnnotationMetadata();
+					Set<MethodMetadata> asmMethods = asm.getAnnotatedMethods(Bean.class.getName());
+					declaredMethodNames = new ArrayList<>(asmMethods.size());
 					for (MethodMetadata asmMethod : asmMethods) {
-						for (Iterator<MethodMetadata> it = candidateMethods.iterator(); it.hasNext(); ) {
-							MethodMetadata beanMethod = it.next();
-							if (beanMethod.getMethodName().equals(asmMethod.getMethodName())) {
-								selectedMethods.add(beanMethod);
-								it.remove();
-								break;
-							}
-						}
+						declaredMethodNames.add(asmMethod.getMethodName());
 					}
-					if (selectedMethods.size() == beanMethods.size()) {
-						// All reflection-detected methods found in ASM method set -> proceed
-						beanMethods = selectedMethods;
+				} catch (IOException ex) {
+					logger.debug("Failed to read class file via ASM for determining @Bean method order", ex);
+					// No worries, let's continue with the reflection metadata we started with...
+				}
+			}
+			if (declaredMethodNames != null && declaredMethodNames.size() >= beanMethods.size()) {
+				Set<MethodMetadata> candidateMethods = new LinkedHashSet<>(beanMethods);
+				Set<MethodMetadata> selectedMethods = new LinkedHashSet<>(declaredMethodNames.size());
+				for (String declaredMethodName : declaredMethodNames) {
+					for (Iterator<MethodMetadata> it = candidateMethods.iterator(); it.hasNext(); ) {
+						MethodMetadata beanMethod = it.next();
+						if (beanMethod.getMethodName().equals(declaredMethodName)) {
+							selectedMethods.add(beanMethod);
+							it.remove();
+							break;
+						}
 					}
 				}
-			} catch (IOException ex) {
-				logger.debug("Failed to read class file via ASM for determining @Bean method order", ex);
-				// No worries, let's continue with the reflection metadata we started with...
+				if (selectedMethods.size() == beanMethods.size()) {
+					// All reflection-detected methods found in declared method set -> proceed
+					beanMethods = selectedMethods;
+				}
 			}
 		}
 		return beanMethods;
 	}
 
+	/**
+	 * Return the names of the {@code @Bean} methods of the given class in declaration
+	 * order, as recorded in the components index.
+	 *
+	 * @return the method names, or {@code null} if the index does not cover the class
+	 */
+	@Nullable
+	private List<String> getIndexedBeanMethodNames(String className) {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(this.resourceLoader.getClassLoader());
+		List<String> beanMethods = (index != null ? index.getBeanMethods(className) : null);
+		if (beanMethods == null) {
+			return null;
+		}
+		List<String> methodNames = new ArrayList<>(beanMethods.size());
+		for (String beanMethod : beanMethods) {
+			methodNames.add(beanMethod.substring(0, beanMethod.indexOf('(')));
+		}
+		return methodNames;
+	}
+
+	/**
+	 * Process any <code>@PropertySource</code> annotations on the given class.
+	 * <p>Also used for replaying the property sources of a
+	 * {@link BeanDefinitionSnapshot} without parsing the configuration classes.
+	 *
+	 * @param metadata the metadata of the annotated class
+	 * @throws IOException if loading a property source failed
+	 * @since 5.3.40
+	 */
+	void processPropertySources(AnnotationMetadata metadata) throws IOException {
+		Set<AnnotationAttributes> propertySources = AnnotationConfigUtils.attributesForRepeatable(
+				metadata, PropertySources.class, org.springframework.context.annotation.PropertySource.class);
+		if (propertySources.isEmpty()) {
+			return;
+		}
+		if (!(this.environment instanceof ConfigurableEnvironment)) {
+			logger.info("Ignoring @PropertySource annotation on [" + metadata.getClassName() +
+					"]. Reason: Environment must implement ConfigurableEnvironment");
+			return;
+		}
+		BeanDefinitionSnapshotGenerator.CaptureEnvironment captureEnvironment =
+				(this.environment instanceof BeanDefinitionSnapshotGenerator.CaptureEnvironment ?
+						(BeanDefinitionSnapshotGenerator.CaptureEnvironment) this.environment : null);
+		if (captureEnvironment != null) {
+			captureEnvironment.recordPropertySources(metadata.getClassName());
+			captureEnvironment.setRegisteringPropertySources(true);
+		}
+		try {
+			for (AnnotationAttributes propertySource : propertySources) {
+				processPropertySource(propertySource);
+			}
+		} finally {
+			if (captureEnvironment != null) {
+				captureEnvironment.setRegisteringPropertySources(false);
+			}
+		}
+	}
+
 	/**
 	 * Process the given <code>@PropertySource</code> annotation metadata.
 	 *
@@ -55,6 +55,7 @@ import org.springframework.context.annotation.ConfigurationClassEnhancer.Enhance
 import org.springframework.core.NativeDetector;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
@@ -104,7 +105,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	public static final AnnotationBeanNameGenerator IMPORT_BEAN_NAME_GENERATOR =
 			FullyQualifiedAnnotationBeanNameGenerator.INSTANCE;
 
-	private static final String IMPORT_REGISTRY_BEAN_NAME =
+	static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 
 	private final Log logger = LogFactory.getLog(getClass());
@@ -144,6 +145,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
 
+	private boolean useSnapshot = BeanDefinitionSnapshot.shouldUseSnapshot;
+
 	@Override
 	public int getOrder() {
 		return Ordered.LOWEST_PRECEDENCE;  // within PriorityOrdered
@@ -202,6 +205,19 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.importBeanNameGenerator = beanNameGenerator;
 	}
 
+	/**
+	 * Set whether to restore the bean definitions from a {@link BeanDefinitionSnapshot}
+	 * if one is available for the configuration classes, instead of processing them.
+	 * <p>Default is "false", unless the {@link BeanDefinitionSnapshot#ENABLE_SNAPSHOT}
+	 * property is set. Always switched off while capturing a snapshot.
+	 *
+	 * @see BeanDefinitionSnapshot#ENABLE_SNAPSHOT
+	 * @since 5.3.40
+	 */
+	void setUseSnapshot(boolean useSnapshot) {
+		this.useSnapshot = useSnapshot;
+	}
+
 	@Override
 	public void setEnvironment(Environment environment) {
 		Assert.notNull(environment, "Environment must not be null");
@@ -332,6 +348,11 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 				this.metadataReaderFactory, this.problemReporter, this.environment,
 				this.resourceLoader, this.componentScanBeanNameGenerator, registry);
 
+		// Restore the bean definitions captured at build time instead of parsing, if possible
+		if (this.useSnapshot && restoreSnapshot(configCandidates, parser, registry, sbr)) {
+			return;
+		}
+
 		// 将 [初始配置类] 先放入集合中，接下来会解析，解析完会 clear 这个集合
 		Set<BeanDefinitionHolder> candidates = new LinkedHashSet<>(configCandidates);
 		Set<ConfigurationClass> alreadyParsed = new HashSet<>(configCandidates.size());
@@ -411,6 +432,54 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+	/**
+	 * Restore the bean definitions for the given configuration classes from a
+	 * {@link BeanDefinitionSnapshot}, if one is available and still matches the
+	 * environment.
+	 *
+	 * @return {@code true} if the bean definitions have been restored,
+	 * {@code false} if the configuration classes need to be processed
+	 */
+	private boolean restoreSnapshot(List<BeanDefinitionHolder> configCandidates, ConfigurationClassParser parser,
+			BeanDefinitionRegistry registry, @Nullable SingletonBeanRegistry sbr) {
+
+		List<String> configClassNames = new ArrayList<>(configCandidates.size());
+		for (BeanDefinitionHolder holder : configCandidates) {
+			String className = holder.getBeanDefinition().getBeanClassName();
+			if (className == null) {
+				return false;
+			}
+			configClassNames.add(className);
+		}
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.load(configClassNames, this.beanClassLoader);
+		if (snapshot == null) {
+			return false;
+		}
+		Assert.state(this.environment != null, "No Environment set");
+
+		// Check the environment, including the property sources to be replayed,
+		// without changing it: a mismatch leads to regular processing below.
+		Environment environmentToCheck = this.environment;
+		if (snapshot.hasPropertySources() && this.environment instanceof ConfigurableEnvironment) {
+			ConfigurableEnvironment environmentCopy =
+					BeanDefinitionSnapshot.copyEnvironment((ConfigurableEnvironment) this.environment);
+			snapshot.replayPropertySources(new ConfigurationClassParser(
+					this.metadataReaderFactory, this.problemReporter, environmentCopy,
+					this.resourceLoader, this.componentScanBeanNameGenerator, registry), this.beanClassLoader);
+			environmentToCheck = environmentCopy;
+		}
+		if (!snapshot.isValidFor(environmentToCheck)) {
+			return false;
+		}
+		snapshot.replayPropertySources(parser, this.beanClassLoader);
+		snapshot.registerBeanDefinitions(registry);
+		// Register the ImportRegistry as a bean in order to support ImportAware @Configuration classes
+		if (sbr != null && !sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+			sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, snapshot.getImportRegistry(this.beanClassLoader));
+		}
+		return true;
+	}
+
 	/**
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
 	 * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.Map;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -40,6 +41,8 @@ public abstract class CachedExpressionEvaluator {
 
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private final SpelExpressionCache expressionCache = new SpelExpressionCache();
+
 
 	/**
 	 * Create a new instance with the specified {@link SpelExpressionParser}.
@@ -92,6 +95,38 @@ public abstract class CachedExpressionEvaluator {
 		return expr;
 	}
 
+	/**
+	 * Return the {@link Expression} for the specified SpEL value from the
+	 * {@linkplain #getExpressionCache() expression cache} of this evaluator.
+	 * <p>{@link #parseExpression(String) Parse the expression} if it hasn't been already.
+	 * @param elementKey the element on which the expression is defined
+	 * @param expression the expression to parse
+	 * @since 5.3.40
+	 * @see #clearExpressions()
+	 */
+	protected Expression getExpression(AnnotatedElementKey elementKey, String expression) {
+		return this.expressionCache.getExpression(expression, elementKey, this::parseExpression);
+	}
+
+	/**
+	 * Return the weight-bounded expression cache of this evaluator, e.g. for
+	 * its statistics.
+	 * @since 5.3.40
+	 * @see #getExpression(AnnotatedElementKey, String)
+	 */
+	protected SpelExpressionCache getExpressionCache() {
+		return this.expressionCache;
+	}
+
+	/**
+	 * Remove all expressions from the expression cache of this evaluator.
+	 * @since 5.3.40
+	 * @see #getExpression(AnnotatedElementKey, String)
+	 */
+	protected void clearExpressions() {
+		this.expressionCache.clear();
+	}
+
 	/**
 	 * Parse the specified {@code expression}.
 	 * @param expression the expression to parse
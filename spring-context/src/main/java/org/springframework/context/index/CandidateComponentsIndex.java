@@ -16,12 +16,16 @@
 
 package org.springframework.context.index;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,6 +47,10 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>As of 5.3.40, the index may also hold the {@code @Bean} method signatures
+ * of a type in declaration order, under the type name followed by {@code @Bean}.
+ * Such entries are not exposed as candidates.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -50,18 +58,29 @@ public class CandidateComponentsIndex {
 
 	private static final AntPathMatcher pathMatcher = new AntPathMatcher(".");
 
+	private static final String BEAN_METHODS_SUFFIX = "@Bean";
+
+
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, List<String>> configurationMetadata = new HashMap<>();
+
 
 	CandidateComponentsIndex(List<Properties> content) {
-		this.index = parseIndex(content);
+		this.index = parseIndex(content, this.configurationMetadata);
 	}
 
-	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
+	private static MultiValueMap<String, Entry> parseIndex(
+			List<Properties> content, Map<String, List<String>> configurationMetadata) {
+
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
 			entry.forEach((type, values) -> {
 				String[] stereotypes = ((String) values).split(",");
+				if (((String) type).indexOf('@') != -1) {
+					configurationMetadata.put((String) type, Collections.unmodifiableList(Arrays.asList(stereotypes)));
+					return;
+				}
 				for (String stereotype : stereotypes) {
 					index.add(stereotype, new Entry((String) type));
 				}
@@ -89,6 +108,19 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return the signatures of the {@code @Bean} methods declared by the specified
+	 * type, in declaration order: the method name followed by the method descriptor.
+	 * @param type the fully qualified name of the type
+	 * @return the method signatures, or {@code null} if the index holds no
+	 * {@code @Bean} methods for the specified {@code type}
+	 * @since 5.3.40
+	 */
+	@Nullable
+	public List<String> getBeanMethods(String type) {
+		return this.configurationMetadata.get(type + BEAN_METHODS_SUFFIX);
+	}
+
 
 	private static class Entry {
 
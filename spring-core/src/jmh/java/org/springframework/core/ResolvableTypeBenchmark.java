@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for common {@link ResolvableType} lookups.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@Benchmark
+	public void forClass(BenchmarkState state, Blackhole bh) {
+		bh.consume(ResolvableType.forClass(state.listClass));
+	}
+
+	@Benchmark
+	public void forClassAsCollection(BenchmarkState state, Blackhole bh) {
+		bh.consume(ResolvableType.forClass(state.listClass).as(Collection.class).getGeneric(0).resolve());
+	}
+
+	@Benchmark
+	public void forField(BenchmarkState state, Blackhole bh) {
+		bh.consume(ResolvableType.forField(state.field).resolveGeneric(1, 0));
+	}
+
+	@Benchmark
+	public void forMethodParameter(BenchmarkState state, Blackhole bh) {
+		bh.consume(ResolvableType.forMethodParameter(new MethodParameter(state.method, 0)).asMap().resolveGenerics());
+	}
+
+	@Benchmark
+	public void forMethodParameterUncached(BenchmarkState state, Blackhole bh) {
+		MethodParameter methodParameter = new MethodParameter(state.method, 0);
+		methodParameter.typeIndexesPerLevel = new HashMap<>(4);
+		bh.consume(ResolvableType.forMethodParameter(methodParameter).asMap().resolveGenerics());
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		Class<?> listClass;
+
+		Field field;
+
+		Method method;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.listClass = StringList.class;
+			this.field = Sample.class.getDeclaredField("values");
+			this.method = Sample.class.getDeclaredMethod("handle", Map.class);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class StringList extends ArrayList<String> {
+	}
+
+
+	static class Sample {
+
+		Map<String, List<Integer>> values;
+
+		void handle(Map<String, List<Integer>> values) {
+		}
+	}
+
+}
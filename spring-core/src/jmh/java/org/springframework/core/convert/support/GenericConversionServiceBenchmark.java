@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,6 +59,16 @@ public class GenericConversionServiceBenchmark {
 		bh.consume(target);
 	}
 
+	@Benchmark
+	public void convertStringToIntegerWithConversionService(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert("42", Integer.class));
+	}
+
+	@Benchmark
+	public void convertStringToIntegerBaseline(Blackhole bh) {
+		bh.consume(Integer.valueOf("42"));
+	}
+
 	@State(Scope.Benchmark)
 	public static class ListBenchmarkState extends BenchmarkState {
 
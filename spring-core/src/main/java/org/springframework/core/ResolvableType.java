@@ -31,6 +31,7 @@ import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.SerializableTypeWrapper.FieldTypeProvider;
 import org.springframework.core.SerializableTypeWrapper.MethodParameterTypeProvider;
@@ -96,6 +97,24 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	/**
+	 * Shared instances for plain classes, see {@link #forClass(Class)}.
+	 */
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	/**
+	 * Shared instances for fields, see {@link #forField(Field)}.
+	 */
+	private static final ConcurrentReferenceHashMap<Field, ResolvableType> fieldCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	/**
+	 * Shared instances for method parameters, see {@link #forMethodParameter(MethodParameter)}.
+	 */
+	private static final ConcurrentReferenceHashMap<MethodParameter, ResolvableType> methodParameterCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 	/**
 	 * The underlying Java type being managed.
 	 * <p>
@@ -144,6 +163,12 @@ public class ResolvableType implements Serializable {
 	@Nullable
 	private volatile Boolean unresolvableGenerics;
 
+	/**
+	 * {@link #as(Class)} 的查找结果，仅用于共享的纯 Class 类型，由 {@link #forClass(Class)} 创建
+	 */
+	@Nullable
+	private transient volatile Map<Class<?>, ResolvableType> asTypes;
+
 	/**
 	 * Private constructor used to create a new {@code ResolvableType} for cache key purposes,
 	 * with no upfront resolution.
@@ -505,6 +530,20 @@ public class ResolvableType implements Serializable {
 			return this;
 		}
 
+		// 共享的纯 Class 类型的层次结构是固定的，记住查找结果；临时实例不做记录
+		Map<Class<?>, ResolvableType> asTypes = this.asTypes;
+		if (asTypes == null) {
+			return searchAs(type);
+		}
+		ResolvableType result = asTypes.get(type);
+		if (result == null) {
+			result = searchAs(type);
+			asTypes.put(type, result);
+		}
+		return result;
+	}
+
+	private ResolvableType searchAs(Class<?> type) {
 		// 接口递归，检查是否有一个接口是 type 类型
 		for (ResolvableType interfaceType : getInterfaces()) {
 			ResolvableType interfaceAsType = interfaceType.as(type);
@@ -1118,6 +1157,9 @@ public class ResolvableType implements Serializable {
 	 * using the full generic type information for assignability checks.
 	 * <p>For example: {@code ResolvableType.forClass(MyArrayList.class)}.
 	 *
+	 * <p>As of 5.3.40, a shared instance is returned for each class, with its
+	 * supertype, interface and {@link #as(Class)} lookups resolved only once.
+	 *
 	 * @param clazz the class to introspect ({@code null} is semantically
 	 *              equivalent to {@code Object.class} for typical use cases here)
 	 * @return a {@code ResolvableType} for the specified class
@@ -1125,7 +1167,17 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(@Nullable Class<?> clazz) {
-		return new ResolvableType(clazz);
+		Class<?> classToUse = (clazz != null ? clazz : Object.class);
+		ResolvableType resolvableType = classCache.get(classToUse);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(classToUse);
+			resolvableType.asTypes = new ConcurrentHashMap<>(4);
+			ResolvableType existing = classCache.putIfAbsent(classToUse, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1249,13 +1301,23 @@ public class ResolvableType implements Serializable {
 	/**
 	 * Return a {@code ResolvableType} for the specified {@link Field}.
 	 *
+	 * <p>As of 5.3.40, a shared instance is returned for each field.
+	 *
 	 * @param field the source field
 	 * @return a {@code ResolvableType} for the specified field
 	 * @see #forField(Field, Class)
 	 */
 	public static ResolvableType forField(Field field) {
 		Assert.notNull(field, "Field must not be null");
-		return forType(null, new FieldTypeProvider(field), null);
+		ResolvableType resolvableType = fieldCache.get(field);
+		if (resolvableType == null) {
+			resolvableType = forType(null, new FieldTypeProvider(field), null);
+			ResolvableType existing = fieldCache.putIfAbsent(field, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1424,12 +1486,31 @@ public class ResolvableType implements Serializable {
 	/**
 	 * Return a {@code ResolvableType} for the specified {@link MethodParameter}.
 	 *
+	 * <p>As of 5.3.40, a shared instance is returned for plain {@code MethodParameter}
+	 * instances without type indexes, keyed by the {@linkplain MethodParameter#equals
+	 * equality} of the method parameter. Its {@linkplain #getSource() source} is a
+	 * copy of the first method parameter resolved.
+	 *
 	 * @param methodParameter the source method parameter (must not be {@code null})
 	 * @return a {@code ResolvableType} for the specified method parameter
 	 * @see #forMethodParameter(Method, int)
 	 */
 	public static ResolvableType forMethodParameter(MethodParameter methodParameter) {
-		return forMethodParameter(methodParameter, (Type) null);
+		Assert.notNull(methodParameter, "MethodParameter must not be null");
+		// Subclasses may override type introspection, and type indexes may change later on
+		if (methodParameter.getClass() != MethodParameter.class || methodParameter.typeIndexesPerLevel != null) {
+			return forMethodParameter(methodParameter, (Type) null);
+		}
+		ResolvableType resolvableType = methodParameterCache.get(methodParameter);
+		if (resolvableType == null) {
+			MethodParameter key = methodParameter.clone();
+			resolvableType = forMethodParameter(key, (Type) null);
+			ResolvableType existing = methodParameterCache.putIfAbsent(key, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1585,8 +1666,12 @@ public class ResolvableType implements Serializable {
 		// For simple Class references, build the wrapper right away -
 		// no expensive resolution necessary, so not worth caching...
 		// 为什么只要是 Class 就如此确信？因为大部分都是使用包含 generic 的 API，所以如果是泛型 Type 就不会是 Class
-		// 普通的 Class 并不包含任何泛型信息，无需复杂解析，也不值得放入缓存，直接 new
+		// 普通的 Class 并不包含任何泛型信息，无需复杂解析：没有 typeProvider 和 variableResolver 时
+		// 直接使用 forClass 的共享实例，否则直接 new
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
@@ -1619,6 +1704,9 @@ public class ResolvableType implements Serializable {
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
+		fieldCache.clear();
+		methodParameterCache.clear();
 		SerializableTypeWrapper.cache.clear();
 	}
 
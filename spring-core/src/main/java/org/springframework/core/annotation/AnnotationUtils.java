@@ -1383,6 +1383,7 @@ public abstract class AnnotationUtils {
 	public static void clearCache() {
 		AnnotationTypeMappings.clearCache();
 		AnnotationsScanner.clearCache();
+		MergedAnnotationsCache.clear();
 		AttributeMethods.cache.clear();
 		RepeatableContainers.cache.clear();
 		OrderUtils.orderCache.clear();
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Cache of fully resolved {@link MergedAnnotations} for classes and methods,
+ * keyed by element, {@link SearchStrategy} and {@link RepeatableContainers}.
+ *
+ * <p>A cached instance walks the annotation hierarchy of its element only once,
+ * on the first search that needs more than a presence check, and replays that
+ * walk for subsequent searches; the merged annotations found
+ * for a given annotation type are kept as well. Repeated lookups such as
+ * {@link AnnotatedElementUtils#findMergedAnnotation} for the same method, e.g.
+ * for {@code @Transactional} or {@code @Cacheable} resolution, therefore do
+ * not scan superclasses and interfaces again.
+ *
+ * <p>The cache holds up to {@value #DEFAULT_CACHE_LIMIT} entries by default,
+ * evicting the oldest entries beyond that. The limit can be changed through the
+ * {@value #CACHE_LIMIT_PROPERTY_NAME} property, with 0 turning the cache off.
+ * Entries are softly referenced and are discarded on
+ * {@link AnnotationUtils#clearCache()}.
+ *
+ * @since 5.3.40
+ * @see MergedAnnotations#from(AnnotatedElement, SearchStrategy, RepeatableContainers)
+ */
+public final class MergedAnnotationsCache {
+
+	/**
+	 * System property that specifies the maximum number of cached
+	 * {@link MergedAnnotations} instances, with 0 turning the cache off.
+	 * <p>The default is {@value #DEFAULT_CACHE_LIMIT}.
+	 */
+	public static final String CACHE_LIMIT_PROPERTY_NAME = "spring.annotations.cache.limit";
+
+	/** Default maximum number of cached {@link MergedAnnotations} instances: 8192. */
+	public static final int DEFAULT_CACHE_LIMIT = 8192;
+
+	private static final int cacheLimit = determineCacheLimit();
+
+	private static final ConcurrentReferenceHashMap<CacheKey, TypeMappedAnnotations> cache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final Queue<CacheKey> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private static final AtomicInteger insertionCount = new AtomicInteger();
+
+	private static final LongAdder hitCount = new LongAdder();
+
+	private static final LongAdder missCount = new LongAdder();
+
+	private static final LongAdder evictionCount = new LongAdder();
+
+
+	private MergedAnnotationsCache() {
+	}
+
+
+	/**
+	 * Determine whether {@link MergedAnnotations} for the given element and
+	 * filter may be cached.
+	 */
+	static boolean isCacheable(AnnotatedElement element, AnnotationFilter annotationFilter) {
+		return (cacheLimit > 0 && annotationFilter == AnnotationFilter.PLAIN &&
+				(element instanceof Class || element instanceof Method));
+	}
+
+	/**
+	 * Return the cached {@link MergedAnnotations} for the given element,
+	 * creating and caching a resolved instance if necessary.
+	 */
+	static MergedAnnotations get(AnnotatedElement element, SearchStrategy searchStrategy,
+			RepeatableContainers repeatableContainers) {
+
+		CacheKey key = new CacheKey(element, searchStrategy, repeatableContainers);
+		TypeMappedAnnotations annotations = cache.get(key);
+		if (annotations != null) {
+			hitCount.increment();
+			return annotations;
+		}
+		missCount.increment();
+		annotations = TypeMappedAnnotations.resolved(element, searchStrategy, repeatableContainers);
+		TypeMappedAnnotations existing = cache.putIfAbsent(key, annotations);
+		if (existing != null) {
+			return existing;
+		}
+		insertionOrder.add(key);
+		if (insertionCount.incrementAndGet() > cacheLimit) {
+			CacheKey eldest = insertionOrder.poll();
+			if (eldest != null) {
+				insertionCount.decrementAndGet();
+				if (cache.remove(eldest) != null) {
+					evictionCount.increment();
+				}
+			}
+		}
+		return annotations;
+	}
+
+	/**
+	 * Return the current statistics of the cache.
+	 */
+	public static Statistics getStatistics() {
+		int size = 0;
+		long scanSteps = 0;
+		long resolvedAnnotations = 0;
+		for (TypeMappedAnnotations annotations : cache.values()) {
+			size++;
+			scanSteps += annotations.getResolvedScanStepCount();
+			resolvedAnnotations += annotations.getResolvedAnnotationCount();
+		}
+		return new Statistics(hitCount.sum(), missCount.sum(), evictionCount.sum(),
+				size, cacheLimit, scanSteps, resolvedAnnotations);
+	}
+
+	/**
+	 * Clear the cache, e.g. on shutdown of an application context.
+	 * The hit, miss and eviction counts are not reset.
+	 * @see AnnotationUtils#clearCache()
+	 */
+	public static void clear() {
+		cache.clear();
+		insertionOrder.clear();
+		insertionCount.set(0);
+	}
+
+	private static int determineCacheLimit() {
+		String limit = SpringProperties.getProperty(CACHE_LIMIT_PROPERTY_NAME);
+		if (limit != null) {
+			try {
+				return Math.max(0, Integer.parseInt(limit.trim()));
+			}
+			catch (NumberFormatException ex) {
+				// fall back to default
+			}
+		}
+		return DEFAULT_CACHE_LIMIT;
+	}
+
+
+	/**
+	 * Point-in-time statistics of the {@link MergedAnnotationsCache}, including
+	 * the amount of resolved state held as an indication of its memory footprint.
+	 */
+	public static final class Statistics {
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		private final int size;
+
+		private final int cacheLimit;
+
+		private final long scanStepCount;
+
+		private final long resolvedAnnotationCount;
+
+		Statistics(long hitCount, long missCount, long evictionCount, int size, int cacheLimit,
+				long scanStepCount, long resolvedAnnotationCount) {
+
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+			this.cacheLimit = cacheLimit;
+			this.scanStepCount = scanStepCount;
+			this.resolvedAnnotationCount = resolvedAnnotationCount;
+		}
+
+		/**
+		 * Return the number of lookups served by a cached instance.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * Return the number of lookups that created a new instance.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Return the number of instances evicted because of the cache limit.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		/**
+		 * Return the number of cached instances.
+		 */
+		public int getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Return the maximum number of cached instances.
+		 */
+		public int getCacheLimit() {
+			return this.cacheLimit;
+		}
+
+		/**
+		 * Return the number of recorded hierarchy scan steps held by all
+		 * cached instances, each referencing the annotations declared on
+		 * one element of a hierarchy.
+		 */
+		public long getScanStepCount() {
+			return this.scanStepCount;
+		}
+
+		/**
+		 * Return the number of resolved merged annotation lookups held by
+		 * all cached instances, including lookups without a match.
+		 */
+		public long getResolvedAnnotationCount() {
+			return this.resolvedAnnotationCount;
+		}
+
+		@Override
+		public String toString() {
+			return "MergedAnnotationsCache statistics: hits=" + this.hitCount + ", misses=" + this.missCount +
+					", evictions=" + this.evictionCount + ", size=" + this.size + ", limit=" + this.cacheLimit +
+					", scanSteps=" + this.scanStepCount + ", resolvedAnnotations=" + this.resolvedAnnotationCount;
+		}
+	}
+
+
+	private static final class CacheKey {
+
+		private final AnnotatedElement element;
+
+		private final SearchStrategy searchStrategy;
+
+		private final RepeatableContainers repeatableContainers;
+
+		CacheKey(AnnotatedElement element, SearchStrategy searchStrategy, RepeatableContainers repeatableContainers) {
+			this.element = element;
+			this.searchStrategy = searchStrategy;
+			this.repeatableContainers = repeatableContainers;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.element.equals(otherKey.element) && this.searchStrategy == otherKey.searchStrategy &&
+					this.repeatableContainers.equals(otherKey.repeatableContainers));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.element.hashCode() * 31 + this.searchStrategy.hashCode()) * 31 +
+					this.repeatableContainers.hashCode();
+		}
+	}
+
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Generates concrete implementation classes for frequently synthesized
+ * annotation types, as an alternative to JDK proxies backed by a
+ * {@link SynthesizedMergedAnnotationInvocationHandler}.
+ *
+ * <p>A generated class stores each attribute value in a field of the
+ * attribute's type and implements the attribute methods, {@code equals},
+ * {@code annotationType} and {@code hashCode} directly, the latter returning
+ * a hash code computed once on synthesis. Attribute access therefore neither
+ * goes through reflective dispatch nor a value cache lookup; non-empty arrays
+ * are still cloned, as for proxies.
+ *
+ * <p>Classes are generated once an annotation type has been synthesized
+ * {@value #DEFAULT_GENERATION_THRESHOLD} times, so that rarely synthesized
+ * types keep using proxies. The threshold can be changed through the
+ * {@value #GENERATION_THRESHOLD_PROPERTY_NAME} property, with a negative
+ * value turning generation off. Annotation types that cannot be handled,
+ * e.g. types defined by the bootstrap class loader, fall back to proxies.
+ *
+ * @since 5.3.40
+ * @see TypeMappedAnnotation#createSynthesizedAnnotation()
+ */
+final class SynthesizedAnnotationGenerator implements Opcodes {
+
+	/**
+	 * System property that specifies how many times an annotation type is
+	 * synthesized through a proxy before an implementation class is generated,
+	 * with a negative value turning generation off.
+	 * <p>The default is {@value #DEFAULT_GENERATION_THRESHOLD}.
+	 */
+	static final String GENERATION_THRESHOLD_PROPERTY_NAME = "spring.annotations.generation.threshold";
+
+	/** Default number of proxy syntheses before generating a class: 16. */
+	static final int DEFAULT_GENERATION_THRESHOLD = 16;
+
+	private static final String CLASS_NAME_SUFFIX = "$$SpringSynthesized";
+
+	private static final String CONSTRUCTOR_DESCRIPTOR =
+			"([Ljava/lang/Object;ILjava/util/function/Supplier;)V";
+
+	private static final String HASH_CODE_FIELD = "$hashCode";
+
+	private static final String TO_STRING_FIELD = "$toString";
+
+	private static final Log logger = LogFactory.getLog(SynthesizedAnnotationGenerator.class);
+
+	private static final int generationThreshold = determineGenerationThreshold();
+
+	private static final ConcurrentReferenceHashMap<Class<?>, GeneratedType> generatedTypes =
+			new ConcurrentReferenceHashMap<>();
+
+
+	private SynthesizedAnnotationGenerator() {
+	}
+
+
+	/**
+	 * Synthesize the given merged annotation as an instance of a generated
+	 * class, if generation is applicable for the annotation type.
+	 * @param annotation the merged annotation to synthesize
+	 * @param type the annotation type
+	 * @return the synthesized annotation, or {@code null} if a proxy should
+	 * be created instead
+	 */
+	@Nullable
+	static <A extends Annotation> A synthesize(MergedAnnotation<A> annotation, Class<A> type) {
+		if (generationThreshold < 0) {
+			return null;
+		}
+		GeneratedType generatedType = generatedTypes.computeIfAbsent(type, GeneratedType::new);
+		Constructor<?> constructor = generatedType.getConstructor();
+		if (constructor == null) {
+			return null;
+		}
+		AttributeMethods attributes = generatedType.attributes;
+		Object[] values = new Object[attributes.size()];
+		int hashCode = 0;
+		for (int i = 0; i < attributes.size(); i++) {
+			Method attribute = attributes.get(i);
+			Class<?> valueType = ClassUtils.resolvePrimitiveIfNecessary(attribute.getReturnType());
+			Object value = annotation.getValue(attribute.getName(), valueType).orElse(null);
+			if (value == null) {
+				// Let the proxy report the missing value on access
+				return null;
+			}
+			values[i] = value;
+			hashCode += (127 * attribute.getName().hashCode()) ^
+					SynthesizedMergedAnnotationInvocationHandler.getValueHashCode(value);
+		}
+		try {
+			return type.cast(constructor.newInstance(values, hashCode, new ToStringSupplier(type, attributes, values)));
+		}
+		catch (Throwable ex) {
+			throw new IllegalStateException("Failed to instantiate generated class for annotation type [" +
+					type.getName() + "]", ex);
+		}
+	}
+
+	private static int determineGenerationThreshold() {
+		String threshold = SpringProperties.getProperty(GENERATION_THRESHOLD_PROPERTY_NAME);
+		if (threshold != null) {
+			try {
+				return Integer.parseInt(threshold.trim());
+			}
+			catch (NumberFormatException ex) {
+				// fall back to default
+			}
+		}
+		return DEFAULT_GENERATION_THRESHOLD;
+	}
+
+
+	/**
+	 * Generate the implementation class for the given annotation type.
+	 */
+	static Class<?> generateClass(Class<? extends Annotation> type, AttributeMethods attributes) throws Exception {
+		String typeName = Type.getInternalName(type);
+		String className = typeName + CLASS_NAME_SUFFIX;
+		ClassLoader classLoader = type.getClassLoader();
+		boolean synthesizedMarker = SynthesizedMergedAnnotationInvocationHandler.isVisible(
+				classLoader, SynthesizedAnnotation.class);
+		String[] interfaces = (synthesizedMarker ?
+				new String[] {typeName, Type.getInternalName(SynthesizedAnnotation.class)} : new String[] {typeName});
+
+		ClassWriter cw = new AnnotationClassWriter(classLoader);
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC, className, null, "java/lang/Object", interfaces);
+		for (int i = 0; i < attributes.size(); i++) {
+			Method attribute = attributes.get(i);
+			cw.visitField(ACC_PRIVATE | ACC_FINAL, attribute.getName(),
+					Type.getDescriptor(attribute.getReturnType()), null, null).visitEnd();
+		}
+		cw.visitField(ACC_PRIVATE | ACC_FINAL, HASH_CODE_FIELD, "I", null, null).visitEnd();
+		cw.visitField(ACC_PRIVATE | ACC_FINAL, TO_STRING_FIELD, "Ljava/util/function/Supplier;", null, null).visitEnd();
+
+		generateConstructor(cw, className, attributes);
+		for (int i = 0; i < attributes.size(); i++) {
+			generateAttributeMethod(cw, className, attributes.get(i));
+		}
+		generateEquals(cw, className, typeName, attributes);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "hashCode", "()I", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, className, HASH_CODE_FIELD, "I");
+		mv.visitInsn(IRETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(ACC_PUBLIC, "toString", "()Ljava/lang/String;", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, className, TO_STRING_FIELD, "Ljava/util/function/Supplier;");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/function/Supplier", "get", "()Ljava/lang/Object;", true);
+		mv.visitTypeInsn(CHECKCAST, "java/lang/String");
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(ACC_PUBLIC, "annotationType", "()Ljava/lang/Class;", null, null);
+		mv.visitCode();
+		mv.visitLdcInsn(Type.getType(type));
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return ReflectUtils.defineClass(className.replace('/', '.'), cw.toByteArray(), classLoader,
+				type.getProtectionDomain(), type);
+	}
+
+	/**
+	 * Generate a constructor that takes the attribute values, in attribute
+	 * order and boxed where necessary, the hash code and a toString supplier.
+	 */
+	private static void generateConstructor(ClassWriter cw, String className, AttributeMethods attributes) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		for (int i = 0; i < attributes.size(); i++) {
+			Method attribute = attributes.get(i);
+			Class<?> returnType = attribute.getReturnType();
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(AALOAD);
+			if (returnType.isPrimitive()) {
+				Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(returnType);
+				String wrapperName = Type.getInternalName(wrapperType);
+				mv.visitTypeInsn(CHECKCAST, wrapperName);
+				mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, returnType.getName() + "Value",
+						"()" + Type.getDescriptor(returnType), false);
+			}
+			else {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(returnType));
+			}
+			mv.visitFieldInsn(PUTFIELD, className, attribute.getName(), Type.getDescriptor(returnType));
+		}
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitFieldInsn(PUTFIELD, className, HASH_CODE_FIELD, "I");
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitFieldInsn(PUTFIELD, className, TO_STRING_FIELD, "Ljava/util/function/Supplier;");
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Generate an attribute method, returning the field value and cloning
+	 * non-empty arrays so that callers cannot alter the stored value.
+	 */
+	private static void generateAttributeMethod(ClassWriter cw, String className, Method attribute) {
+		Class<?> returnType = attribute.getReturnType();
+		String descriptor = Type.getDescriptor(returnType);
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, attribute.getName(), "()" + descriptor, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, className, attribute.getName(), descriptor);
+		if (returnType.isArray()) {
+			Label returnValue = new Label();
+			mv.visitInsn(DUP);
+			mv.visitInsn(ARRAYLENGTH);
+			mv.visitJumpInsn(IFEQ, returnValue);
+			mv.visitMethodInsn(INVOKEVIRTUAL, descriptor, "clone", "()Ljava/lang/Object;", false);
+			mv.visitTypeInsn(CHECKCAST, descriptor);
+			mv.visitLabel(returnValue);
+		}
+		mv.visitInsn(Type.getType(returnType).getOpcode(IRETURN));
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Generate {@code equals} as specified by {@link Annotation#equals(Object)},
+	 * comparing each field with the attribute value of the other annotation.
+	 */
+	private static void generateEquals(ClassWriter cw, String className, String typeName,
+			AttributeMethods attributes) {
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "equals", "(Ljava/lang/Object;)Z", null, null);
+		mv.visitCode();
+		Label notEqual = new Label();
+		Label checkType = new Label();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitJumpInsn(IF_ACMPNE, checkType);
+		mv.visitInsn(ICONST_1);
+		mv.visitInsn(IRETURN);
+		mv.visitLabel(checkType);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(INSTANCEOF, typeName);
+		mv.visitJumpInsn(IFEQ, notEqual);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, typeName);
+		mv.visitVarInsn(ASTORE, 2);
+		for (int i = 0; i < attributes.size(); i++) {
+			Method attribute = attributes.get(i);
+			Class<?> returnType = attribute.getReturnType();
+			String descriptor = Type.getDescriptor(returnType);
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETFIELD, className, attribute.getName(), descriptor);
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitMethodInsn(INVOKEINTERFACE, typeName, attribute.getName(), "()" + descriptor, true);
+			if (returnType == long.class) {
+				mv.visitInsn(LCMP);
+				mv.visitJumpInsn(IFNE, notEqual);
+			}
+			else if (returnType == float.class) {
+				// Same as Float.equals, i.e. matching NaN values and distinguishing -0.0f from 0.0f
+				mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float", "compare", "(FF)I", false);
+				mv.visitJumpInsn(IFNE, notEqual);
+			}
+			else if (returnType == double.class) {
+				mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", false);
+				mv.visitJumpInsn(IFNE, notEqual);
+			}
+			else if (returnType.isPrimitive()) {
+				mv.visitJumpInsn(IF_ICMPNE, notEqual);
+			}
+			else if (returnType.isArray()) {
+				String arrayDescriptor = (returnType.getComponentType().isPrimitive() ? descriptor : "[Ljava/lang/Object;");
+				mv.visitMethodInsn(INVOKESTATIC, "java/util/Arrays", "equals",
+						"(" + arrayDescriptor + arrayDescriptor + ")Z", false);
+				mv.visitJumpInsn(IFEQ, notEqual);
+			}
+			else {
+				mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "equals", "(Ljava/lang/Object;)Z", false);
+				mv.visitJumpInsn(IFEQ, notEqual);
+			}
+		}
+		mv.visitInsn(ICONST_1);
+		mv.visitInsn(IRETURN);
+		mv.visitLabel(notEqual);
+		mv.visitInsn(ICONST_0);
+		mv.visitInsn(IRETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+
+	/**
+	 * Generation state of an annotation type: the number of syntheses so far
+	 * and the constructor of the generated class, once available.
+	 */
+	private static final class GeneratedType {
+
+		private final Class<? extends Annotation> type;
+
+		private final AttributeMethods attributes;
+
+		private final AtomicInteger synthesisCount = new AtomicInteger();
+
+		@Nullable
+		private volatile Constructor<?> constructor;
+
+		private volatile boolean failed;
+
+		GeneratedType(Class<?> type) {
+			this.type = type.asSubclass(Annotation.class);
+			this.attributes = AttributeMethods.forAnnotationType(this.type);
+			this.failed = !isSupported(this.type);
+		}
+
+		private static boolean isSupported(Class<? extends Annotation> type) {
+			ClassLoader classLoader = type.getClassLoader();
+			return (classLoader != null && !type.getName().startsWith("java.") &&
+					!type.getName().startsWith("javax."));
+		}
+
+		@Nullable
+		Constructor<?> getConstructor() {
+			Constructor<?> constructor = this.constructor;
+			if (constructor != null || this.failed ||
+					this.synthesisCount.incrementAndGet() <= generationThreshold) {
+				return constructor;
+			}
+			synchronized (this) {
+				constructor = this.constructor;
+				if (constructor == null && !this.failed) {
+					try {
+						Class<?> generatedClass = generateClass(this.type, this.attributes);
+						constructor = ReflectionUtils.accessibleConstructor(
+								generatedClass, Object[].class, int.class, Supplier.class);
+						this.constructor = constructor;
+					}
+					catch (Throwable ex) {
+						this.failed = true;
+						if (logger.isDebugEnabled()) {
+							logger.debug("Falling back to proxies for synthesized annotation type [" +
+									this.type.getName() + "]", ex);
+						}
+					}
+				}
+			}
+			return constructor;
+		}
+	}
+
+
+	/**
+	 * Lazily computes the {@code toString} value of a generated annotation,
+	 * in the same format as synthesized annotation proxies.
+	 */
+	private static final class ToStringSupplier implements Supplier<String> {
+
+		private final Class<?> type;
+
+		private final AttributeMethods attributes;
+
+		private final Object[] values;
+
+		@Nullable
+		private volatile String string;
+
+		ToStringSupplier(Class<?> type, AttributeMethods attributes, Object[] values) {
+			this.type = type;
+			this.attributes = attributes;
+			this.values = values;
+		}
+
+		@Override
+		public String get() {
+			String string = this.string;
+			if (string == null) {
+				string = SynthesizedMergedAnnotationInvocationHandler.toString(this.type, this.attributes, this.values);
+				this.string = string;
+			}
+			return string;
+		}
+	}
+
+
+	/**
+	 * An ASM ClassWriter extension bound to the ClassLoader of the annotation type.
+	 */
+	private static class AnnotationClassWriter extends ClassWriter {
+
+		private final ClassLoader classLoader;
+
+		AnnotationClassWriter(ClassLoader classLoader) {
+			super(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected ClassLoader getClassLoader() {
+			return this.classLoader;
+		}
+	}
+
+}
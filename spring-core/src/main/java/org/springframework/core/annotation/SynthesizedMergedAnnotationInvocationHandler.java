@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -140,7 +140,7 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 		return hashCode;
 	}
 
-	private int getValueHashCode(Object value) {
+	static int getValueHashCode(Object value) {
 		// Use Arrays.hashCode(...) since Spring's ObjectUtils doesn't comply
 		// with the requirements specified in Annotation#hashCode().
 		if (value instanceof boolean[]) {
@@ -176,23 +176,37 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 	private String annotationToString() {
 		String string = this.string;
 		if (string == null) {
-			StringBuilder builder = new StringBuilder("@").append(getName(this.type)).append('(');
+			Object[] values = new Object[this.attributes.size()];
 			for (int i = 0; i < this.attributes.size(); i++) {
-				Method attribute = this.attributes.get(i);
-				if (i > 0) {
-					builder.append(", ");
-				}
-				builder.append(attribute.getName());
-				builder.append('=');
-				builder.append(toString(getAttributeValue(attribute)));
+				values[i] = getAttributeValue(this.attributes.get(i));
 			}
-			builder.append(')');
-			string = builder.toString();
+			string = toString(this.type, this.attributes, values);
 			this.string = string;
 		}
 		return string;
 	}
 
+	/**
+	 * Build the {@code toString} value of a synthesized annotation.
+	 * @param type the annotation type
+	 * @param attributes the attribute methods of the annotation type
+	 * @param values the attribute values, in attribute order
+	 * @since 5.3.40
+	 */
+	static String toString(Class<?> type, AttributeMethods attributes, Object[] values) {
+		StringBuilder builder = new StringBuilder("@").append(getName(type)).append('(');
+		for (int i = 0; i < attributes.size(); i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(attributes.get(i).getName());
+			builder.append('=');
+			builder.append(toString(values[i]));
+		}
+		builder.append(')');
+		return builder.toString();
+	}
+
 	/**
 	 * This method currently does not address the following issues which we may
 	 * choose to address at a later point in time.
@@ -207,7 +221,7 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 	 * @param value the attribute value to format
 	 * @return the formatted string representation
 	 */
-	private String toString(Object value) {
+	private static String toString(Object value) {
 		if (value instanceof String) {
 			return '"' + value.toString() + '"';
 		}
@@ -322,7 +336,7 @@ final class SynthesizedMergedAnnotationInvocationHandler<A extends Annotation> i
 		return (canonicalName != null ? canonicalName : clazz.getName());
 	}
 
-	private static boolean isVisible(ClassLoader classLoader, Class<?> interfaceClass) {
+	static boolean isVisible(ClassLoader classLoader, Class<?> interfaceClass) {
 		if (classLoader == interfaceClass.getClassLoader()) {
 			return true;
 		}
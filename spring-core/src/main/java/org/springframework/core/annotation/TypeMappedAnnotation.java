@@ -352,7 +352,8 @@ final class TypeMappedAnnotation<A extends Annotation> extends AbstractMergedAnn
 		else if (isTargetAnnotation(this.mapping.getAnnotation()) && !isSynthesizable(this.mapping.getAnnotation())) {
 			return (A) this.mapping.getAnnotation();
 		}
-		return SynthesizedMergedAnnotationInvocationHandler.createProxy(this, getType());
+		A generated = SynthesizedAnnotationGenerator.synthesize(this, getType());
+		return (generated != null ? generated : SynthesizedMergedAnnotationInvocationHandler.createProxy(this, getType()));
 	}
 
 	/**
@@ -22,8 +22,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -68,12 +70,27 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	@Nullable
 	private volatile List<Aggregate> aggregates;
 
+	private final boolean resolvable;
+
+	@Nullable
+	private volatile ResolvedScan resolvedScan;
+
 
 	/**
 	 * 模式1: 基于被注解的元素构造注解属性，具备调用 Java 反射的能力
 	 */
 	private TypeMappedAnnotations(AnnotatedElement element, SearchStrategy searchStrategy,
 								  RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+
+		this(element, searchStrategy, repeatableContainers, annotationFilter, false);
+	}
+
+	/**
+	 * 模式1 的变体: 首次完整搜索时记录扫描步骤，之后重放，而不是每次都扫描层次结构
+	 */
+	private TypeMappedAnnotations(AnnotatedElement element, SearchStrategy searchStrategy,
+								  RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter,
+								  boolean resolvable) {
 		// 来源
 		this.source = element;
 		// 被注解的元素，可能是 Method Class
@@ -85,6 +102,8 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.repeatableContainers = repeatableContainers;
 		// 注解过滤器 org.springframework.core.annotation.AnnotationFilter.PLAIN
 		this.annotationFilter = annotationFilter;
+		// 是否记录扫描步骤
+		this.resolvable = resolvable;
 	}
 
 	/**
@@ -104,6 +123,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.repeatableContainers = repeatableContainers;
 		// 注解过滤器
 		this.annotationFilter = annotationFilter;
+		this.resolvable = false;
 	}
 
 
@@ -180,9 +200,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		}
 
 		//
-		MergedAnnotation<A> result = scan(annotationType,
-				new MergedAnnotationFinder<>(annotationType, predicate, selector));
-		return (result != null ? result : MergedAnnotation.missing());
+		return find(annotationType, predicate, selector);
 	}
 
 	@Override
@@ -205,11 +223,36 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return MergedAnnotation.missing();
 		}
+		return find(annotationType, predicate, selector);
+	}
 
-
+	/**
+	 * 查找合并注解；对于已解析的实例，缓存常用选择器的查找结果
+	 */
+	@SuppressWarnings("unchecked")
+	private <A extends Annotation> MergedAnnotation<A> find(Object annotationType,
+			@Nullable Predicate<? super MergedAnnotation<A>> predicate, @Nullable MergedAnnotationSelector<A> selector) {
+
+		ResolvedScan resolvedScan = getResolvedScan();
+		Map<Object, MergedAnnotation<?>> results = null;
+		if (resolvedScan != null && predicate == null) {
+			results = resolvedScan.getResults(selector);
+			if (results != null) {
+				MergedAnnotation<?> cached = results.get(annotationType);
+				if (cached != null) {
+					return (MergedAnnotation<A>) cached;
+				}
+			}
+		}
 		MergedAnnotation<A> result = scan(annotationType,
 				new MergedAnnotationFinder<>(annotationType, predicate, selector));
-		return (result != null ? result : MergedAnnotation.missing());
+		if (result == null) {
+			result = MergedAnnotation.missing();
+		}
+		if (results != null) {
+			results.put(annotationType, result);
+		}
+		return result;
 	}
 
 	@Override
@@ -281,6 +324,13 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Nullable
 	private <C, R> R scan(C criteria, AnnotationsProcessor<C, R> processor) {
+		// 如果已经解析过层次结构，重放记录的扫描步骤；
+		// 尚未解析时，IsPresent 这种可以提前结束的扫描不值得触发完整的解析
+		ResolvedScan resolvedScan = (processor instanceof IsPresent ? this.resolvedScan : getResolvedScan());
+		if (resolvedScan != null) {
+			return resolvedScan.replay(criteria, processor);
+		}
+
 		// 如果有预先设置的注解数组，直接处理
 		if (this.annotations != null) {
 			R result = processor.doWithAnnotations(criteria, 0, this.source, this.annotations);
@@ -294,6 +344,21 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return null;
 	}
 
+	/**
+	 * 返回已记录的扫描步骤；对于可解析的实例，首次调用时完整扫描一次层次结构
+	 */
+	@Nullable
+	private ResolvedScan getResolvedScan() {
+		ResolvedScan resolvedScan = this.resolvedScan;
+		if (resolvedScan == null && this.resolvable && this.element != null && this.searchStrategy != null) {
+			ScanRecorder recorder = new ScanRecorder();
+			AnnotationsScanner.scan(this.element, this.element, this.searchStrategy, recorder);
+			resolvedScan = recorder.toResolvedScan();
+			this.resolvedScan = resolvedScan;
+		}
+		return resolvedScan;
+	}
+
 
 	static MergedAnnotations from(AnnotatedElement element, SearchStrategy searchStrategy,
 								  RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
@@ -304,10 +369,29 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			return NONE;
 		}
 
+		// 类和方法的常用搜索结果可以被缓存，避免重复扫描
+		if (MergedAnnotationsCache.isCacheable(element, annotationFilter)) {
+			return MergedAnnotationsCache.get(element, searchStrategy, repeatableContainers);
+		}
+
 		// 构造 MergedAnnotations -> 该对象的构造是很轻量的，只有调用它的方法可能执行一些扫描
 		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter);
 	}
 
+	/**
+	 * Create a {@link MergedAnnotations} instance that scans the hierarchy of
+	 * the given element once, on its first search other than a presence check, and
+	 * replays the recorded scan for all subsequent searches. Presence checks
+	 * before that point scan the hierarchy as usual.
+	 * @see MergedAnnotationsCache
+	 */
+	static TypeMappedAnnotations resolved(AnnotatedElement element, SearchStrategy searchStrategy,
+			RepeatableContainers repeatableContainers) {
+
+		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers,
+				AnnotationFilter.PLAIN, true);
+	}
+
 	static MergedAnnotations from(@Nullable Object source, Annotation[] annotations,
 								  RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
 
@@ -317,6 +401,22 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return new TypeMappedAnnotations(source, annotations, repeatableContainers, annotationFilter);
 	}
 
+	/**
+	 * Return the number of recorded scan steps, if resolved already.
+	 */
+	int getResolvedScanStepCount() {
+		ResolvedScan resolvedScan = this.resolvedScan;
+		return (resolvedScan != null ? resolvedScan.aggregateIndexes.length : 0);
+	}
+
+	/**
+	 * Return the number of memoized merged annotation lookups, if resolved.
+	 */
+	int getResolvedAnnotationCount() {
+		ResolvedScan resolvedScan = this.resolvedScan;
+		return (resolvedScan != null ? resolvedScan.getResultCount() : 0);
+	}
+
 	private static boolean isMappingForType(AnnotationTypeMapping mapping,
 											AnnotationFilter annotationFilter, @Nullable Object requiredType) {
 
@@ -563,6 +663,128 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	}
 
 
+	/**
+	 * {@link AnnotationsProcessor} that records every step of a complete scan,
+	 * for later replay through a {@link ResolvedScan}.
+	 */
+	private static class ScanRecorder implements AnnotationsProcessor<Object, Object> {
+
+		private final List<Integer> aggregateIndexes = new ArrayList<>();
+
+		private final List<Object> sources = new ArrayList<>();
+
+		private final List<Annotation[]> annotations = new ArrayList<>();
+
+		@Override
+		@Nullable
+		public Object doWithAggregate(Object context, int aggregateIndex) {
+			addStep(aggregateIndex, null, null);
+			return null;
+		}
+
+		@Override
+		@Nullable
+		public Object doWithAnnotations(Object context, int aggregateIndex,
+				@Nullable Object source, Annotation[] annotations) {
+
+			addStep(aggregateIndex, source, annotations);
+			return null;
+		}
+
+		private void addStep(int aggregateIndex, @Nullable Object source, @Nullable Annotation[] annotations) {
+			this.aggregateIndexes.add(aggregateIndex);
+			this.sources.add(source);
+			this.annotations.add(annotations);
+		}
+
+		ResolvedScan toResolvedScan() {
+			int[] aggregateIndexes = new int[this.aggregateIndexes.size()];
+			for (int i = 0; i < aggregateIndexes.length; i++) {
+				aggregateIndexes[i] = this.aggregateIndexes.get(i);
+			}
+			return new ResolvedScan(aggregateIndexes, this.sources.toArray(),
+					this.annotations.toArray(new Annotation[0][]));
+		}
+	}
+
+
+	/**
+	 * The recorded steps of a complete scan, replayed in place of a new scan
+	 * with the same short-circuit semantics as {@link AnnotationsScanner}.
+	 * Also holds the results of merged annotation lookups by required type.
+	 */
+	private static class ResolvedScan {
+
+		private final int[] aggregateIndexes;
+
+		private final Object[] sources;
+
+		/**
+		 * 每一步的注解数组，{@code null} 代表 doWithAggregate 步骤
+		 */
+		private final Annotation[][] annotations;
+
+		@Nullable
+		private volatile Map<Object, MergedAnnotation<?>> nearestResults;
+
+		@Nullable
+		private volatile Map<Object, MergedAnnotation<?>> firstDirectlyDeclaredResults;
+
+		ResolvedScan(int[] aggregateIndexes, Object[] sources, Annotation[][] annotations) {
+			this.aggregateIndexes = aggregateIndexes;
+			this.sources = sources;
+			this.annotations = annotations;
+		}
+
+		@Nullable
+		<C, R> R replay(C criteria, AnnotationsProcessor<C, R> processor) {
+			R result = null;
+			for (int i = 0; i < this.aggregateIndexes.length; i++) {
+				Annotation[] stepAnnotations = this.annotations[i];
+				result = (stepAnnotations != null ?
+						processor.doWithAnnotations(criteria, this.aggregateIndexes[i], this.sources[i], stepAnnotations) :
+						processor.doWithAggregate(criteria, this.aggregateIndexes[i]));
+				if (result != null) {
+					break;
+				}
+			}
+			return processor.finish(result);
+		}
+
+		/**
+		 * Return the lookup results for the given selector, or {@code null}
+		 * if results for that selector are not kept.
+		 */
+		@Nullable
+		Map<Object, MergedAnnotation<?>> getResults(@Nullable MergedAnnotationSelector<?> selector) {
+			if (selector == null || selector == MergedAnnotationSelectors.nearest()) {
+				Map<Object, MergedAnnotation<?>> results = this.nearestResults;
+				if (results == null) {
+					results = new ConcurrentHashMap<>(4);
+					this.nearestResults = results;
+				}
+				return results;
+			}
+			if (selector == MergedAnnotationSelectors.firstDirectlyDeclared()) {
+				Map<Object, MergedAnnotation<?>> results = this.firstDirectlyDeclaredResults;
+				if (results == null) {
+					results = new ConcurrentHashMap<>(4);
+					this.firstDirectlyDeclaredResults = results;
+				}
+				return results;
+			}
+			return null;
+		}
+
+		int getResultCount() {
+			Map<Object, MergedAnnotation<?>> nearestResults = this.nearestResults;
+			Map<Object, MergedAnnotation<?>> firstDirectlyDeclaredResults = this.firstDirectlyDeclaredResults;
+			return (nearestResults != null ? nearestResults.size() : 0) +
+					(firstDirectlyDeclaredResults != null ? firstDirectlyDeclaredResults.size() : 0);
+		}
+	}
+
+
 	/**
 	 * 聚合。每个聚合代表一个注解来源层次（如类本身、父类、接口等）
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,8 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 
 	private final int bufferSize;
 
+	private boolean memoryMapped;
+
 
 	public ResourceEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -57,6 +59,31 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Whether to read file-based resources through memory-mapped file regions,
+	 * emitting buffers that wrap the mapped regions rather than buffers copied
+	 * from the file. This avoids allocating and copying a buffer per chunk for
+	 * large, frequently served files.
+	 * <p>Note that mapped regions are only unmapped once garbage collected, that a
+	 * mapped file may not be deleted or replaced on some platforms until then, and
+	 * that a mapped file must not be truncated while it is being written.
+	 * <p>By default this is set to {@code false}.
+	 * @since 5.3.40
+	 * @see DataBufferUtils#readMapped(Resource, long, DataBufferFactory, int)
+	 */
+	public void setMemoryMapped(boolean memoryMapped) {
+		this.memoryMapped = memoryMapped;
+	}
+
+	/**
+	 * Return whether file-based resources are read through memory-mapped
+	 * file regions.
+	 * @since 5.3.40
+	 */
+	public boolean isMemoryMapped() {
+		return this.memoryMapped;
+	}
+
 
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
@@ -72,6 +99,9 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 			String logPrefix = Hints.getLogPrefix(hints);
 			logger.debug(logPrefix + "Writing [" + resource + "]");
 		}
+		if (this.memoryMapped) {
+			return DataBufferUtils.readMapped(resource, 0, bufferFactory, this.bufferSize);
+		}
 		return DataBufferUtils.read(resource, bufferFactory, this.bufferSize);
 	}
 
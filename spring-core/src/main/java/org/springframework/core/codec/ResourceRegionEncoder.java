@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -58,6 +58,8 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 
 	private final int bufferSize;
 
+	private boolean memoryMapped;
+
 
 	public ResourceRegionEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -69,6 +71,25 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Whether to read the regions of file-based resources through memory-mapped
+	 * file regions instead of copying them into buffers.
+	 * <p>By default this is set to {@code false}.
+	 * @since 5.3.40
+	 * @see ResourceEncoder#setMemoryMapped(boolean)
+	 */
+	public void setMemoryMapped(boolean memoryMapped) {
+		this.memoryMapped = memoryMapped;
+	}
+
+	/**
+	 * Return whether resource regions are read through memory-mapped file regions.
+	 * @since 5.3.40
+	 */
+	public boolean isMemoryMapped() {
+		return this.memoryMapped;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return super.canEncode(elementType, mimeType)
@@ -129,7 +150,9 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 					"Writing region " + position + "-" + (position + count) + " of [" + resource + "]");
 		}
 
-		Flux<DataBuffer> in = DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize);
+		Flux<DataBuffer> in = (this.memoryMapped ?
+				DataBufferUtils.readMapped(resource, position, bufferFactory, this.bufferSize) :
+				DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize));
 		if (logger.isDebugEnabled()) {
 			in = in.doOnNext(buffer -> Hints.touchDataBuffer(buffer, hints, logger));
 		}
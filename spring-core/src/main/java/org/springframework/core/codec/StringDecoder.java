@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.core.codec;
 
+import java.io.IOException;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -33,6 +34,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.CompositeDataBuffer;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.LimitedDataBufferList;
@@ -42,6 +44,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
 
 /**
  * Decode from a data buffer stream to a {@code String} stream, either splitting
@@ -183,14 +186,37 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 		}
 	}
 
+	@Override
+	public Mono<String> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		return DataBufferUtils.joinComposite(input, getMaxInMemorySize())
+				.map(buffer -> decode(buffer, elementType, mimeType, hints));
+	}
+
 	@Override
 	public String decode(DataBuffer dataBuffer, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
-		DataBufferUtils.release(dataBuffer);
-		String value = charBuffer.toString();
+		String value;
+		if (dataBuffer instanceof CompositeDataBuffer) {
+			// Decode across the components rather than copying them into one buffer
+			try {
+				value = StreamUtils.copyToString(dataBuffer.asInputStream(), charset);
+			}
+			catch (IOException ex) {
+				throw new DecodingException("Failed to decode composite buffer", ex);
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+		else {
+			CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+			DataBufferUtils.release(dataBuffer);
+			value = charBuffer.toString();
+		}
 		LogFormatUtils.traceDebug(logger, traceOn -> {
 			String formatted = LogFormatUtils.formatValue(value, !traceOn);
 			return Hints.getLogPrefix(hints) + "Decoded " + formatted;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -84,6 +84,12 @@ final class CollectionToCollectionConverter implements ConditionalGenericConvert
 		if (elementDesc == null) {
 			target.addAll(sourceCollection);
 		}
+		else if (this.conversionService instanceof GenericConversionService) {
+			if (((GenericConversionService) this.conversionService).convertElements(
+					sourceCollection, sourceType, elementDesc, target)) {
+				copyRequired = true;
+			}
+		}
 		else {
 			for (Object sourceElement : sourceCollection) {
 				Object targetElement = this.conversionService.convert(sourceElement,
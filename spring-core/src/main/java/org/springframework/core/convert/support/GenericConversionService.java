@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2023 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,6 +63,15 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/**
+	 * Converters for plain source and target classes, by source class and then
+	 * target class, looked up without allocating a cache key.
+	 */
+	private final ConcurrentReferenceHashMap<Class<?>, Map<Class<?>, GenericConverter>> plainConverterCache =
+			new ConcurrentReferenceHashMap<>(64);
+
+	private final boolean convertOverridden = isConvertOverridden();
+
 
 	// ConverterRegistry implementation
 
@@ -250,6 +259,11 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	@Nullable
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		// 纯 Class 类型: 按源类型、目标类型两级查找，不分配缓存 key
+		if (isPlainType(sourceType) && isPlainType(targetType)) {
+			return getPlainConverter(sourceType, targetType);
+		}
+
 		// 这个缓存之前已经存过了，有个地方，具体需要再看
 		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
 
@@ -273,6 +287,100 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return null;
 	}
 
+	/**
+	 * Look up the converter for plain source and target types, which are fully
+	 * described by their classes, in the two-level converter table.
+	 */
+	@Nullable
+	private GenericConverter getPlainConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		Map<Class<?>, GenericConverter> targetConverters = this.plainConverterCache.get(sourceType.getType());
+		if (targetConverters != null) {
+			GenericConverter converter = targetConverters.get(targetType.getType());
+			if (converter != null) {
+				return (converter != NO_MATCH ? converter : null);
+			}
+		}
+		else {
+			targetConverters = new ConcurrentReferenceHashMap<>(16);
+			Map<Class<?>, GenericConverter> existing =
+					this.plainConverterCache.putIfAbsent(sourceType.getType(), targetConverters);
+			if (existing != null) {
+				targetConverters = existing;
+			}
+		}
+
+		GenericConverter converter = this.converters.find(sourceType, targetType);
+		if (converter == null) {
+			converter = getDefaultConverter(sourceType, targetType);
+		}
+		targetConverters.put(targetType.getType(), (converter != null ? converter : NO_MATCH));
+		return converter;
+	}
+
+	/**
+	 * Determine whether the given type descriptor is fully described by its class,
+	 * i.e. equivalent to {@link TypeDescriptor#valueOf(Class)} for its type: no
+	 * annotations, and no generic type information beyond the class itself (also
+	 * for the component types of an array).
+	 */
+	private static boolean isPlainType(TypeDescriptor typeDescriptor) {
+		if (typeDescriptor.getAnnotations().length != 0) {
+			return false;
+		}
+		ResolvableType resolvableType = typeDescriptor.getResolvableType();
+		Class<?> type = typeDescriptor.getType();
+		while (resolvableType.getType() == type && type.isArray()) {
+			resolvableType = resolvableType.getComponentType();
+			type = type.getComponentType();
+		}
+		return (resolvableType.getType() == type);
+	}
+
+	/**
+	 * Convert the elements of the given source collection into the given target
+	 * collection, resolving the element converter once per element class rather
+	 * than once per element.
+	 * @param source the source collection
+	 * @param sourceType the type descriptor of the source collection
+	 * @param targetElementType the type descriptor of the target elements
+	 * @param target the target collection to add converted elements to
+	 * @return {@code true} if any element has been converted to a different instance
+	 * @since 5.3.40
+	 */
+	boolean convertElements(Collection<?> source, TypeDescriptor sourceType,
+							TypeDescriptor targetElementType, Collection<Object> target) {
+
+		boolean converted = false;
+		Class<?> elementClass = null;
+		TypeDescriptor elementType = null;
+		GenericConverter converter = null;
+		for (Object sourceElement : source) {
+			Object targetElement;
+			if (sourceElement == null || this.convertOverridden) {
+				targetElement = convert(sourceElement, sourceType.elementTypeDescriptor(sourceElement), targetElementType);
+			}
+			else {
+				if (sourceElement.getClass() != elementClass) {
+					elementClass = sourceElement.getClass();
+					elementType = sourceType.elementTypeDescriptor(sourceElement);
+					converter = getConverter(elementType, targetElementType);
+				}
+				if (converter != null) {
+					Object result = ConversionUtils.invokeConverter(converter, sourceElement, elementType, targetElementType);
+					targetElement = handleResult(elementType, targetElementType, result);
+				}
+				else {
+					targetElement = handleConverterNotFound(sourceElement, elementType, targetElementType);
+				}
+			}
+			target.add(targetElement);
+			if (sourceElement != targetElement) {
+				converted = true;
+			}
+		}
+		return converted;
+	}
+
 	/**
 	 * Return the default converter if no converter is found for the given sourceType/targetType pair.
 	 * <p>Returns a NO_OP Converter if the source type is assignable to the target type.
@@ -310,6 +418,16 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.plainConverterCache.clear();
+	}
+
+	private boolean isConvertOverridden() {
+		try {
+			return (getClass().getMethod("convert", Object.class, TypeDescriptor.class, TypeDescriptor.class)
+					.getDeclaringClass() != GenericConversionService.class);
+		} catch (NoSuchMethodException ex) {
+			return true;
+		}
 	}
 
 	@Nullable
@@ -0,0 +1,546 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import org.springframework.util.Assert;
+
+/**
+ * Read-only {@link DataBuffer} that presents the readable bytes of several
+ * buffers as one logical buffer, without copying them.
+ *
+ * <p>Reading, searching, {@linkplain #asInputStream() streaming} and
+ * {@linkplain #slice(int, int) slicing} operate on the components directly.
+ * A contiguous copy is only made when a single {@link ByteBuffer} or a
+ * {@code String} spanning several components is requested; use
+ * {@link #asByteBuffers()} to access the content without copying instead.
+ * All write operations, and changes to the capacity, are rejected with an
+ * {@link UnsupportedOperationException}.
+ *
+ * <p>A composite buffer owns its components: {@linkplain #retain() retaining}
+ * and {@linkplain #release() releasing} it retains and releases each of them.
+ *
+ * @since 5.3.40
+ * @see DataBufferUtils#joinComposite(org.reactivestreams.Publisher, int)
+ */
+public final class CompositeDataBuffer implements PooledDataBuffer {
+
+	private final DataBuffer[] components;
+
+	private final ByteBuffer[] views;
+
+	// The index of the first byte of each component within this buffer
+	private final int[] offsets;
+
+	private final int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+
+	/**
+	 * Create a new {@code CompositeDataBuffer} for the readable bytes of the
+	 * given buffers, taking over the responsibility to release them.
+	 * @param dataBuffers the buffers to compose, at least one
+	 */
+	public CompositeDataBuffer(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		int count = dataBuffers.size();
+		this.components = new DataBuffer[count];
+		this.views = new ByteBuffer[count];
+		this.offsets = new int[count];
+		int capacity = 0;
+		for (int i = 0; i < count; i++) {
+			DataBuffer dataBuffer = dataBuffers.get(i);
+			this.components[i] = dataBuffer;
+			this.views[i] = dataBuffer.asByteBuffer();
+			this.offsets[i] = capacity;
+			capacity += this.views[i].remaining();
+		}
+		this.capacity = capacity;
+		this.writePosition = capacity;
+	}
+
+
+	/**
+	 * Return the buffers this composite buffer consists of.
+	 */
+	public List<DataBuffer> getComponents() {
+		return Arrays.asList(this.components);
+	}
+
+	/**
+	 * Expose the readable bytes of this buffer as one {@link ByteBuffer} view
+	 * per component, without copying.
+	 * @return the byte buffers, sharing their data with this buffer
+	 */
+	public ByteBuffer[] asByteBuffers() {
+		List<ByteBuffer> result = new ArrayList<>(this.views.length);
+		int index = this.readPosition;
+		while (index < this.writePosition) {
+			int component = componentIndex(index);
+			int end = Math.min(this.writePosition, componentEnd(component));
+			result.add(view(component, index, end - index));
+			index = end;
+		}
+		return result.toArray(new ByteBuffer[0]);
+	}
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.components[0].factory();
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		int component = componentIndex(fromIndex);
+		int i = fromIndex;
+		while (i < this.writePosition) {
+			ByteBuffer view = this.views[component];
+			int offset = this.offsets[component];
+			int end = Math.min(this.writePosition, componentEnd(component));
+			for (; i < end; i++) {
+				if (predicate.test(view.get(i - offset))) {
+					return i;
+				}
+			}
+			component++;
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		int i = Math.min(fromIndex, this.writePosition - 1);
+		if (i < 0) {
+			return -1;
+		}
+		int component = componentIndex(i);
+		while (i >= 0) {
+			ByteBuffer view = this.views[component];
+			int offset = this.offsets[component];
+			for (; i >= offset; i--) {
+				if (predicate.test(view.get(i - offset))) {
+					return i;
+				}
+			}
+			component--;
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return 0;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public DataBuffer capacity(int capacity) {
+		throw readOnly();
+	}
+
+	@Override
+	public DataBuffer ensureCapacity(int capacity) {
+		if (capacity > writableByteCount()) {
+			throw readOnly();
+		}
+		return this;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>As this buffer is read-only, the write position can only be moved
+	 * within the composed bytes, e.g. to exclude trailing bytes.
+	 */
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		int component = componentIndex(index);
+		return this.views[component].get(index - this.offsets[component]);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "Byte array must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "Byte array must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+		copy(this.readPosition, destination, offset, length);
+		this.readPosition += length;
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte b) {
+		throw readOnly();
+	}
+
+	@Override
+	public DataBuffer write(byte[] source) {
+		throw readOnly();
+	}
+
+	@Override
+	public DataBuffer write(byte[] source, int offset, int length) {
+		throw readOnly();
+	}
+
+	@Override
+	public DataBuffer write(DataBuffer... buffers) {
+		throw readOnly();
+	}
+
+	@Override
+	public DataBuffer write(ByteBuffer... buffers) {
+		throw readOnly();
+	}
+
+	@Override
+	public DataBuffer write(CharSequence charSequence, Charset charset) {
+		throw readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a slice of the respective component if
+	 * the range lies within a single component, and a composite of component
+	 * slices otherwise.
+	 */
+	@Override
+	public DataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		if (length == 0) {
+			return this.components[0].slice(this.components[0].readPosition(), 0);
+		}
+		int first = componentIndex(index);
+		int last = componentIndex(index + length - 1);
+		if (first == last) {
+			return componentSlice(first, index, length);
+		}
+		List<DataBuffer> slices = new ArrayList<>(last - first + 1);
+		int position = index;
+		int end = index + length;
+		for (int component = first; component <= last; component++) {
+			int sliceEnd = Math.min(end, componentEnd(component));
+			slices.add(componentSlice(component, position, sliceEnd - position));
+			position = sliceEnd;
+		}
+		return new CompositeDataBuffer(slices);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a view of the respective component if
+	 * the range lies within a single component, and a read-only copy otherwise.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		if (length == 0) {
+			return ByteBuffer.allocate(0);
+		}
+		int first = componentIndex(index);
+		if (first == componentIndex(index + length - 1)) {
+			return view(first, index, length);
+		}
+		byte[] bytes = new byte[length];
+		copy(index, bytes, 0, length);
+		return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		throw readOnly();
+	}
+
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		checkIndex(index, length);
+		Assert.notNull(charset, "Charset must not be null");
+		if (length > 0) {
+			int first = componentIndex(index);
+			if (first == componentIndex(index + length - 1)) {
+				return this.components[first].toString(componentPosition(first, index), length, charset);
+			}
+		}
+		byte[] bytes = new byte[length];
+		copy(index, bytes, 0, length);
+		return new String(bytes, charset);
+	}
+
+	@Override
+	public boolean isAllocated() {
+		for (DataBuffer component : this.components) {
+			if (component instanceof PooledDataBuffer && !((PooledDataBuffer) component).isAllocated()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		for (DataBuffer component : this.components) {
+			DataBufferUtils.retain(component);
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer touch(Object hint) {
+		for (DataBuffer component : this.components) {
+			DataBufferUtils.touch(component, hint);
+		}
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation releases every component, returning {@code true}
+	 * only if all of them have been deallocated.
+	 */
+	@Override
+	public boolean release() {
+		boolean result = true;
+		for (DataBuffer component : this.components) {
+			if (component instanceof PooledDataBuffer) {
+				result &= ((PooledDataBuffer) component).release();
+			}
+			else {
+				result = false;
+			}
+		}
+		return result;
+	}
+
+
+	private int componentIndex(int index) {
+		int i = Arrays.binarySearch(this.offsets, index);
+		if (i < 0) {
+			return -i - 2;
+		}
+		// Skip empty components starting at the same offset
+		while (i < this.offsets.length - 1 && this.offsets[i + 1] == index) {
+			i++;
+		}
+		return i;
+	}
+
+	private int componentEnd(int component) {
+		return this.offsets[component] + this.views[component].remaining();
+	}
+
+	private int componentPosition(int component, int index) {
+		return this.components[component].readPosition() + (index - this.offsets[component]);
+	}
+
+	private DataBuffer componentSlice(int component, int index, int length) {
+		return this.components[component].slice(componentPosition(component, index), length);
+	}
+
+	private ByteBuffer view(int component, int index, int length) {
+		ByteBuffer view = this.views[component].duplicate();
+		int position = index - this.offsets[component];
+		// Explicit access via Buffer base type for compatibility
+		// with covariant return type on JDK 9's ByteBuffer...
+		Buffer buffer = view;
+		buffer.position(position);
+		buffer.limit(position + length);
+		return view.slice();
+	}
+
+	private void copy(int index, byte[] destination, int offset, int length) {
+		int position = index;
+		int end = index + length;
+		while (position < end) {
+			int component = componentIndex(position);
+			int chunk = Math.min(end, componentEnd(component)) - position;
+			ByteBuffer view = this.views[component].duplicate();
+			((Buffer) view).position(position - this.offsets[component]);
+			view.get(destination, offset, chunk);
+			offset += chunk;
+			position += chunk;
+		}
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("CompositeDataBuffer is read-only");
+	}
+
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, components: %d)",
+				this.readPosition, this.writePosition, this.components.length);
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		private boolean closed;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return (available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.min(Math.max(n, 0), available());
+			readPosition(readPosition() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose && !this.closed) {
+				this.closed = true;
+				release();
+			}
+		}
+	}
+
+}
@@ -17,23 +17,29 @@
 package org.springframework.core.io.buffer;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -233,6 +239,56 @@ public abstract class DataBufferUtils {
 		return position == 0 ? result : skipUntilByteCount(result, position);
 	}
 
+	/**
+	 * Read the given {@code Resource} into a {@code Flux} of {@code DataBuffer}s
+	 * starting at the given position, memory-mapping the file contents if the
+	 * resource is a file.
+	 * <p>File regions are mapped read-only via {@link FileChannel#map}, and each
+	 * emitted buffer wraps a slice of the mapped region, without allocating or
+	 * copying into a buffer of the given factory. The emitted buffers are
+	 * {@link PooledDataBuffer PooledDataBuffers} that are to be
+	 * {@linkplain #release released} like any other pooled buffer. A mapped region
+	 * is unmapped once it has been garbage collected, i.e. once none of the buffers
+	 * sliced from it, nor any {@link ByteBuffer} obtained from them, is reachable
+	 * anymore; it is never unmapped while its memory may still be accessed.
+	 * <p>Note that the file is expected not to be truncated while it is being
+	 * read. For resources that are not files, this method falls back on
+	 * {@link #read(Resource, long, DataBufferFactory, int)}.
+	 * @param resource the resource to read from
+	 * @param position the position to start reading from
+	 * @param bufferFactory the factory to wrap the mapped file regions with
+	 * @param chunkSize the maximum size of the data buffers
+	 * @return a Flux of data buffers read from the given resource
+	 * @since 5.3.40
+	 */
+	public static Flux<DataBuffer> readMapped(
+			Resource resource, long position, DataBufferFactory bufferFactory, int chunkSize) {
+
+		Assert.notNull(resource, "Resource must not be null");
+		Assert.notNull(bufferFactory, "'bufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(chunkSize > 0, "'chunkSize' must be > 0");
+
+		try {
+			if (resource.isFile()) {
+				Path path = resource.getFile().toPath();
+				Flux<DataBuffer> flux = Flux.generate(
+						() -> new MappedFileGenerator(
+								FileChannel.open(path, StandardOpenOption.READ), position, bufferFactory, chunkSize),
+						(generator, sink) -> {
+							generator.accept(sink);
+							return generator;
+						},
+						MappedFileGenerator::dispose);
+				return flux.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+			}
+		}
+		catch (IOException ignore) {
+			// fallback to read(Resource...), below
+		}
+		return read(resource, position, bufferFactory, chunkSize);
+	}
+
 
 	//---------------------------------------------------------------------
 	// Writing
@@ -585,6 +641,46 @@ public abstract class DataBufferUtils {
 				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 	}
 
+	/**
+	 * Variant of {@link #join(Publisher, int)} that avoids copying the data
+	 * buffers into a single buffer where possible. For buffers from a
+	 * {@link DefaultDataBufferFactory}, the result is a read-only
+	 * {@link CompositeDataBuffer} that presents the buffers as one; other
+	 * factories are asked to {@linkplain DataBufferFactory#join join} them,
+	 * which for Netty results in a {@code CompositeByteBuf}.
+	 * <p>This is intended for consumers that read the aggregated content once,
+	 * e.g. through {@link DataBuffer#asInputStream()}.
+	 * @param buffers the data buffers that are to be composed
+	 * @param maxByteCount the max number of bytes to buffer, or -1 for unlimited
+	 * @return a buffer with the aggregated content, possibly an empty Mono if
+	 * the max number of bytes to buffer is exceeded.
+	 * @throws DataBufferLimitException if maxByteCount is exceeded
+	 * @since 5.3.40
+	 */
+	@SuppressWarnings("unchecked")
+	public static Mono<DataBuffer> joinComposite(Publisher<? extends DataBuffer> buffers, int maxByteCount) {
+		Assert.notNull(buffers, "'dataBuffers' must not be null");
+
+		if (buffers instanceof Mono) {
+			return (Mono<DataBuffer>) buffers;
+		}
+
+		return Flux.from(buffers)
+				.collect(() -> new LimitedDataBufferList(maxByteCount), LimitedDataBufferList::add)
+				.filter(list -> !list.isEmpty())
+				.map(DataBufferUtils::compose)
+				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
+	private static DataBuffer compose(List<DataBuffer> dataBuffers) {
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		DataBufferFactory factory = dataBuffers.get(0).factory();
+		return (factory instanceof DefaultDataBufferFactory ?
+				new CompositeDataBuffer(dataBuffers) : factory.join(dataBuffers));
+	}
+
 	/**
 	 * Return a {@link Matcher} for the given delimiter.
 	 * The matcher can be used to find the delimiters in a stream of data buffers.
@@ -915,6 +1011,194 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class MappedFileGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		/** Minimum size of the file regions to map: 8 MB. */
+		private static final int MIN_REGION_SIZE = 8 * 1024 * 1024;
+
+		private final FileChannel channel;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int chunkSize;
+
+		private final int regionSize;
+
+		private long position;
+
+		private long end = -1;
+
+		@Nullable
+		private MappedRegion region;
+
+		public MappedFileGenerator(
+				FileChannel channel, long position, DataBufferFactory dataBufferFactory, int chunkSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.dataBufferFactory = dataBufferFactory;
+			this.chunkSize = chunkSize;
+			this.regionSize = Math.max(chunkSize, MIN_REGION_SIZE);
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				if (this.end == -1) {
+					this.end = this.channel.size();
+				}
+				if (this.position >= this.end) {
+					sink.complete();
+					return;
+				}
+				MappedRegion region = this.region;
+				if (region == null || !region.contains(this.position)) {
+					long size = Math.min(this.regionSize, this.end - this.position);
+					MappedByteBuffer byteBuffer = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, size);
+					region = new MappedRegion(byteBuffer, this.position);
+					this.region = region;
+				}
+				int length = (int) Math.min(this.chunkSize, region.end() - this.position);
+				DataBuffer dataBuffer = region.slice(this.position, length, this.dataBufferFactory);
+				this.position += length;
+				sink.next(dataBuffer);
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+
+		public void dispose() {
+			this.region = null;
+			closeChannel(this.channel);
+		}
+	}
+
+
+	/**
+	 * Mapped region of a file. Slices of the region refer to it, so that it is
+	 * only unmapped through garbage collection once all of them are unreachable.
+	 */
+	private static final class MappedRegion {
+
+		private final MappedByteBuffer byteBuffer;
+
+		private final long position;
+
+		MappedRegion(MappedByteBuffer byteBuffer, long position) {
+			this.byteBuffer = byteBuffer;
+			this.position = position;
+		}
+
+		boolean contains(long filePosition) {
+			return (filePosition >= this.position && filePosition < end());
+		}
+
+		long end() {
+			return this.position + this.byteBuffer.capacity();
+		}
+
+		DataBuffer slice(long filePosition, int length, DataBufferFactory bufferFactory) {
+			int index = (int) (filePosition - this.position);
+			ByteBuffer slice = this.byteBuffer.duplicate();
+			// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+			((Buffer) slice).position(index).limit(index + length);
+			return new MappedDataBuffer(bufferFactory.wrap(slice.slice()));
+		}
+	}
+
+
+	/**
+	 * Buffer that wraps a slice of a {@link MappedRegion}, releasing the wrapped
+	 * buffer once it has been released itself. Slices of this buffer share its
+	 * reference count.
+	 */
+	private static final class MappedDataBuffer extends DataBufferWrapper implements PooledDataBuffer {
+
+		private final AtomicInteger refCount;
+
+		MappedDataBuffer(DataBuffer delegate) {
+			this(delegate, new AtomicInteger(1));
+		}
+
+		private MappedDataBuffer(DataBuffer delegate, AtomicInteger refCount) {
+			super(delegate);
+			this.refCount = refCount;
+		}
+
+		@Override
+		public DataBuffer slice(int index, int length) {
+			return new MappedDataBuffer(dataBuffer().slice(index, length), this.refCount);
+		}
+
+		@Override
+		public DataBuffer retainedSlice(int index, int length) {
+			retain();
+			return slice(index, length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			if (!releaseOnClose) {
+				return inputStream;
+			}
+			return new FilterInputStream(inputStream) {
+				private boolean closed;
+				@Override
+				public void close() throws IOException {
+					if (!this.closed) {
+						this.closed = true;
+						super.close();
+						release();
+					}
+				}
+			};
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return (this.refCount.get() > 0);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("Mapped DataBuffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count + 1));
+			return this;
+		}
+
+		@Override
+		public PooledDataBuffer touch(Object hint) {
+			DataBufferUtils.touch(dataBuffer(), hint);
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("Mapped DataBuffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count - 1));
+			if (count == 1) {
+				DataBufferUtils.release(dataBuffer());
+				return true;
+			}
+			return false;
+		}
+	}
+
+
 	private static class ReadCompletionHandler implements CompletionHandler<Integer, DataBuffer> {
 
 		private final AsynchronousFileChannel channel;
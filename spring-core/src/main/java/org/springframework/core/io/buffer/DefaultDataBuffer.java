@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -61,7 +61,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	private int writePosition;
 
 
-	private DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
+	DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
 		Assert.notNull(dataBufferFactory, "DefaultDataBufferFactory must not be null");
 		Assert.notNull(byteBuffer, "ByteBuffer must not be null");
 		this.dataBufferFactory = dataBufferFactory;
@@ -93,7 +93,7 @@ public class DefaultDataBuffer implements DataBuffer {
 		return this.byteBuffer;
 	}
 
-	private void setNativeBuffer(ByteBuffer byteBuffer) {
+	void setNativeBuffer(ByteBuffer byteBuffer) {
 		this.byteBuffer = byteBuffer;
 		this.capacity = byteBuffer.remaining();
 	}
@@ -195,6 +195,7 @@ public class DefaultDataBuffer implements DataBuffer {
 			newBuffer.position(0).limit(oldBuffer.capacity());
 			newBuffer.put(oldBuffer);
 			newBuffer.clear();
+			newBuffer.limit(newCapacity);
 			setNativeBuffer(newBuffer);
 		}
 		else if (newCapacity < oldCapacity) {
@@ -209,6 +210,7 @@ public class DefaultDataBuffer implements DataBuffer {
 				newBuffer.position(readPosition).limit(writePosition);
 				newBuffer.put(oldBuffer);
 				newBuffer.clear();
+				newBuffer.limit(newCapacity);
 			}
 			else {
 				readPosition(newCapacity);
@@ -228,12 +230,20 @@ public class DefaultDataBuffer implements DataBuffer {
 		return this;
 	}
 
-	private static ByteBuffer allocate(int capacity, boolean direct) {
+	ByteBuffer allocate(int capacity, boolean direct) {
 		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
 	}
 
+	/**
+	 * Assert that the memory of this buffer may still be accessed,
+	 * for buffers whose memory is handed back once released.
+	 */
+	void assertAccessible() {
+	}
+
 	@Override
 	public byte getByte(int index) {
+		assertAccessible();
 		assertIndex(index >= 0, "index %d must be >= 0", index);
 		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
 		return this.byteBuffer.get(index);
@@ -241,6 +251,7 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	@Override
 	public byte read() {
+		assertAccessible();
 		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
 				this.readPosition, this.writePosition - 1);
 		int pos = this.readPosition;
@@ -259,6 +270,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public DefaultDataBuffer read(byte[] destination, int offset, int length) {
 		Assert.notNull(destination, "Byte array must not be null");
+		assertAccessible();
 		assertIndex(this.readPosition <= this.writePosition - length,
 				"readPosition %d and length %d should be smaller than writePosition %d",
 				this.readPosition, length, this.writePosition);
@@ -274,6 +286,7 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	@Override
 	public DefaultDataBuffer write(byte b) {
+		assertAccessible();
 		ensureCapacity(1);
 		int pos = this.writePosition;
 		this.byteBuffer.put(pos, b);
@@ -291,6 +304,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public DefaultDataBuffer write(byte[] source, int offset, int length) {
 		Assert.notNull(source, "Byte array must not be null");
+		assertAccessible();
 		ensureCapacity(length);
 
 		ByteBuffer tmp = this.byteBuffer.duplicate();
@@ -313,6 +327,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public DefaultDataBuffer write(ByteBuffer... buffers) {
 		if (!ObjectUtils.isEmpty(buffers)) {
+			assertAccessible();
 			int capacity = Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum();
 			ensureCapacity(capacity);
 			Arrays.stream(buffers).forEach(this::write);
@@ -331,6 +346,7 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	@Override
 	public DefaultDataBuffer slice(int index, int length) {
+		assertAccessible();
 		checkIndex(index, length);
 		int oldPosition = this.byteBuffer.position();
 		// Explicit access via Buffer base type for compatibility
@@ -355,6 +371,7 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	@Override
 	public ByteBuffer asByteBuffer(int index, int length) {
+		assertAccessible();
 		checkIndex(index, length);
 
 		ByteBuffer duplicate = this.byteBuffer.duplicate();
@@ -384,6 +401,7 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	@Override
 	public String toString(int index, int length, Charset charset) {
+		assertAccessible();
 		checkIndex(index, length);
 		Assert.notNull(charset, "Charset must not be null");
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -117,7 +117,10 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 	 * Return the given Netty {@link DataBuffer} as a {@link ByteBuf}.
 	 * <p>Returns the {@linkplain NettyDataBuffer#getNativeBuffer() native buffer}
 	 * if {@code buffer} is a {@link NettyDataBuffer}; returns
-	 * {@link Unpooled#wrappedBuffer(ByteBuffer)} otherwise.
+	 * {@link Unpooled#wrappedBuffer(ByteBuffer)} otherwise. If {@code buffer}
+	 * is any other {@link PooledDataBuffer}, it is released once the returned
+	 * {@code ByteBuf} has been deallocated, just like the native buffer of a
+	 * {@code NettyDataBuffer}.
 	 * @param buffer the {@code DataBuffer} to return a {@code ByteBuf} for
 	 * @return the netty {@code ByteBuf}
 	 */
@@ -125,6 +128,9 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 		if (buffer instanceof NettyDataBuffer) {
 			return ((NettyDataBuffer) buffer).getNativeBuffer();
 		}
+		else if (buffer instanceof PooledDataBuffer) {
+			return new ReleasingByteBuf(Unpooled.wrappedBuffer(buffer.asByteBuffer()), (PooledDataBuffer) buffer);
+		}
 		else {
 			return Unpooled.wrappedBuffer(buffer.asByteBuffer());
 		}
@@ -136,4 +142,30 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 		return "NettyDataBufferFactory (" + this.byteBufAllocator + ")";
 	}
 
+
+	/**
+	 * {@code ByteBuf} that wraps the memory of a {@link PooledDataBuffer} that
+	 * is not a {@link NettyDataBuffer}, such as a memory-mapped file region,
+	 * and releases that buffer once it has been deallocated itself.
+	 */
+	private static final class ReleasingByteBuf extends CompositeByteBuf {
+
+		private final PooledDataBuffer dataBuffer;
+
+		ReleasingByteBuf(ByteBuf byteBuf, PooledDataBuffer dataBuffer) {
+			super(byteBuf.alloc(), byteBuf.isDirect(), 1, byteBuf);
+			this.dataBuffer = dataBuffer;
+		}
+
+		@Override
+		protected void deallocate() {
+			try {
+				super.deallocate();
+			}
+			finally {
+				this.dataBuffer.release();
+			}
+		}
+	}
+
 }
@@ -0,0 +1,812 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that recycles the
+ * {@link ByteBuffer ByteBuffers} of released buffers, for runtimes without
+ * a pooling allocator of their own such as Servlet containers.
+ *
+ * <p>The buffers returned from this factory are {@link PooledDataBuffer}
+ * instances that start with a reference count of 1. Once the count drops to
+ * 0 through {@link DataBufferUtils#release}, the underlying memory is handed
+ * back to the pool and must no longer be accessed through the buffer or any
+ * of its slices. Buffers that are never released are simply reclaimed by the
+ * garbage collector.
+ *
+ * <p>Requested capacities are rounded up to power-of-two size classes from
+ * {@value #MIN_POOLED_CAPACITY} bytes up to the
+ * {@linkplain #PooledDataBufferFactory(boolean, int) maximum pooled capacity};
+ * larger buffers are allocated without pooling. The {@link DataBuffer#capacity()
+ * capacity} of a buffer is the requested one nonetheless. Released memory is
+ * cached per thread first, up to a number of bytes per thread, and in a bounded
+ * pool per size class shared by all threads after that. Memory that a thread
+ * keeps in its cache without reusing it is handed to the shared pool from time
+ * to time.
+ *
+ * <p>{@linkplain #setLeakDetection(boolean) Leak detection} reports buffers
+ * that were garbage collected without having been released, along with the
+ * site of their allocation and their most recent
+ * {@linkplain PooledDataBuffer#touch(Object) touch hints}.
+ *
+ * <p>For WebFlux on Servlet containers or Undertow, an instance can be set
+ * through {@code setDataBufferFactory} on the respective {@code HttpHandler}
+ * adapter.
+ *
+ * @since 5.3.40
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The capacity of the smallest size class.
+	 */
+	public static final int MIN_POOLED_CAPACITY = 256;
+
+	/**
+	 * The default maximum capacity of pooled buffers: 1 MB.
+	 * @see #PooledDataBufferFactory(boolean, int)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 1024 * 1024;
+
+	/**
+	 * The default maximum number of bytes of released buffers cached per thread.
+	 * @see #setThreadLocalCacheCapacity(int)
+	 */
+	public static final int DEFAULT_THREAD_LOCAL_CACHE_CAPACITY = 256 * 1024;
+
+	/**
+	 * The default maximum number of bytes held by the shared pool per size class.
+	 * @see #setSharedPoolCapacity(int)
+	 */
+	public static final int DEFAULT_SHARED_POOL_CAPACITY = 4 * 1024 * 1024;
+
+	private static final int MAX_TOUCH_HINTS = 4;
+
+	/**
+	 * The number of allocations from a thread-local cache after which it hands
+	 * the memory that it did not reuse in the meantime to the shared pool.
+	 */
+	private static final int THREAD_LOCAL_CACHE_TRIM_INTERVAL = 4096;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final Queue<ByteBuffer>[] sharedPools;
+
+	private final AtomicInteger[] sharedPoolSizes;
+
+	private final ThreadLocal<LocalCache> localCache = ThreadLocal.withInitial(LocalCache::new);
+
+	private int threadLocalCacheCapacity = DEFAULT_THREAD_LOCAL_CACHE_CAPACITY;
+
+	private int sharedPoolCapacity = DEFAULT_SHARED_POOL_CAPACITY;
+
+	private volatile boolean leakDetection;
+
+	private Consumer<Leak> leakHandler = this::logLeak;
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final ReferenceQueue<PooledBuffer> leakQueue = new ReferenceQueue<>();
+
+	private final LongAdder allocationCount = new LongAdder();
+
+	private final LongAdder reuseCount = new LongAdder();
+
+	private final LongAdder unpooledAllocationCount = new LongAdder();
+
+	private final LongAdder releaseCount = new LongAdder();
+
+	private final LongAdder pooledByteCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} for heap buffers with
+	 * default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be created.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be created, and up to which capacity buffers are pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the capacity of the largest size class, which is
+	 * rounded up to a power of two
+	 */
+	@SuppressWarnings("unchecked")
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity) {
+		super(preferDirect);
+		Assert.isTrue(maxPooledCapacity >= MIN_POOLED_CAPACITY,
+				() -> "'maxPooledCapacity' should be at least " + MIN_POOLED_CAPACITY);
+		Assert.isTrue(maxPooledCapacity <= (1 << 30), "'maxPooledCapacity' should be at most 1 GB");
+		this.preferDirect = preferDirect;
+		int sizeClassCount = sizeClassIndex(maxPooledCapacity) + 1;
+		this.maxPooledCapacity = MIN_POOLED_CAPACITY << (sizeClassCount - 1);
+		this.sharedPools = new Queue[sizeClassCount];
+		this.sharedPoolSizes = new AtomicInteger[sizeClassCount];
+		for (int i = 0; i < sizeClassCount; i++) {
+			this.sharedPools[i] = new ConcurrentLinkedQueue<>();
+			this.sharedPoolSizes[i] = new AtomicInteger();
+		}
+	}
+
+
+	/**
+	 * Set the maximum number of bytes of released buffers to cache per thread,
+	 * with 0 turning thread-local caching off.
+	 * <p>The default is {@value #DEFAULT_THREAD_LOCAL_CACHE_CAPACITY}.
+	 */
+	public void setThreadLocalCacheCapacity(int threadLocalCacheCapacity) {
+		Assert.isTrue(threadLocalCacheCapacity >= 0, "'threadLocalCacheCapacity' must not be negative");
+		this.threadLocalCacheCapacity = threadLocalCacheCapacity;
+	}
+
+	/**
+	 * Set the maximum number of bytes to keep in the shared pool per size
+	 * class, with 0 turning the shared pool off.
+	 * <p>The default is {@value #DEFAULT_SHARED_POOL_CAPACITY}.
+	 */
+	public void setSharedPoolCapacity(int sharedPoolCapacity) {
+		Assert.isTrue(sharedPoolCapacity >= 0, "'sharedPoolCapacity' must not be negative");
+		this.sharedPoolCapacity = sharedPoolCapacity;
+	}
+
+	/**
+	 * Specify whether to track allocated buffers in order to detect buffers
+	 * that are garbage collected without having been released.
+	 * <p>The default is {@code false}. Leak detection records the stack trace
+	 * of every allocation and is therefore intended for development and tests.
+	 * @see #setLeakHandler(Consumer)
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Set the callback to notify of detected leaks.
+	 * <p>By default, leaks are logged at error level.
+	 * @see #setLeakDetection(boolean)
+	 */
+	public void setLeakHandler(Consumer<Leak> leakHandler) {
+		Assert.notNull(leakHandler, "Leak handler must not be null");
+		this.leakHandler = leakHandler;
+	}
+
+	/**
+	 * Return the capacity of the largest size class.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		ByteBuffer chunk = allocateChunk(initialCapacity, this.preferDirect);
+		chunk.limit(initialCapacity);
+		PooledBuffer buffer = new PooledBuffer(this, chunk);
+		if (this.leakDetection) {
+			buffer.tracker = new LeakTracker(buffer, this.leakQueue);
+			this.leakTrackers.add(buffer.tracker);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Check for buffers that have been garbage collected without having been
+	 * released, notifying the {@linkplain #setLeakHandler leak handler} of
+	 * each. This is also done on every allocation while leak detection is on.
+	 */
+	public void detectLeaks() {
+		Reference<? extends PooledBuffer> reference;
+		while ((reference = this.leakQueue.poll()) != null) {
+			LeakTracker tracker = (LeakTracker) reference;
+			if (this.leakTrackers.remove(tracker)) {
+				this.leakCount.increment();
+				this.leakHandler.accept(new Leak(tracker.capacity, tracker.allocationSite, tracker.getHints()));
+			}
+		}
+	}
+
+	/**
+	 * Return the current statistics of this factory.
+	 */
+	public Statistics getStatistics() {
+		return new Statistics(this.allocationCount.sum(), this.reuseCount.sum(),
+				this.unpooledAllocationCount.sum(), this.releaseCount.sum(),
+				this.pooledByteCount.sum(), this.leakCount.sum());
+	}
+
+	ByteBuffer allocateChunk(int capacity, boolean direct) {
+		if (this.leakDetection) {
+			detectLeaks();
+		}
+		this.allocationCount.increment();
+		if (capacity > this.maxPooledCapacity || direct != this.preferDirect) {
+			this.unpooledAllocationCount.increment();
+			return allocate(capacity, direct);
+		}
+		int sizeClass = sizeClassIndex(capacity);
+		ByteBuffer chunk = null;
+		if (this.threadLocalCacheCapacity > 0) {
+			chunk = this.localCache.get().poll(sizeClass);
+		}
+		if (chunk == null && this.sharedPoolSizes[sizeClass].get() > 0) {
+			chunk = this.sharedPools[sizeClass].poll();
+			if (chunk != null) {
+				this.sharedPoolSizes[sizeClass].decrementAndGet();
+			}
+		}
+		if (chunk == null) {
+			return allocate(MIN_POOLED_CAPACITY << sizeClass, direct);
+		}
+		this.reuseCount.increment();
+		this.pooledByteCount.add(-chunk.capacity());
+		return chunk;
+	}
+
+	void releaseChunk(ByteBuffer chunk) {
+		this.releaseCount.increment();
+		int capacity = chunk.capacity();
+		if (capacity > this.maxPooledCapacity || chunk.isDirect() != this.preferDirect ||
+				Integer.bitCount(capacity) != 1 || capacity < MIN_POOLED_CAPACITY) {
+			return;
+		}
+		chunk.clear();
+		int sizeClass = sizeClassIndex(capacity);
+		if (this.threadLocalCacheCapacity > 0 && this.localCache.get().offer(sizeClass, chunk)) {
+			this.pooledByteCount.add(capacity);
+			return;
+		}
+		if (offerShared(sizeClass, chunk)) {
+			this.pooledByteCount.add(capacity);
+		}
+	}
+
+	private boolean offerShared(int sizeClass, ByteBuffer chunk) {
+		int maxPoolSize = this.sharedPoolCapacity / chunk.capacity();
+		if (this.sharedPoolSizes[sizeClass].incrementAndGet() <= maxPoolSize) {
+			this.sharedPools[sizeClass].offer(chunk);
+			return true;
+		}
+		this.sharedPoolSizes[sizeClass].decrementAndGet();
+		return false;
+	}
+
+	void released(PooledBuffer buffer) {
+		LeakTracker tracker = buffer.tracker;
+		if (tracker != null) {
+			this.leakTrackers.remove(tracker);
+			tracker.clear();
+		}
+		releaseChunk(buffer.chunk);
+	}
+
+	private void logLeak(Leak leak) {
+		logger.error("PooledDataBuffer with capacity " + leak.getCapacity() +
+				" was garbage collected without having been released; hints: " + leak.getHints(),
+				leak.getAllocationSite());
+	}
+
+	private static ByteBuffer allocate(int capacity, boolean direct) {
+		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= MIN_POOLED_CAPACITY) {
+			return 0;
+		}
+		return (32 - Integer.numberOfLeadingZeros(capacity - 1)) - 8;
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * Information about a buffer that was garbage collected without having
+	 * been released.
+	 * @see #setLeakHandler(Consumer)
+	 */
+	public static final class Leak {
+
+		private final int capacity;
+
+		private final Throwable allocationSite;
+
+		private final List<String> hints;
+
+		Leak(int capacity, Throwable allocationSite, List<String> hints) {
+			this.capacity = capacity;
+			this.allocationSite = allocationSite;
+			this.hints = hints;
+		}
+
+		/**
+		 * Return the capacity of the leaked buffer at the time of its allocation.
+		 */
+		public int getCapacity() {
+			return this.capacity;
+		}
+
+		/**
+		 * Return an exception whose stack trace shows where the leaked buffer
+		 * was allocated.
+		 */
+		public Throwable getAllocationSite() {
+			return this.allocationSite;
+		}
+
+		/**
+		 * Return the most recent hints the leaked buffer was
+		 * {@linkplain PooledDataBuffer#touch(Object) touched} with.
+		 */
+		public List<String> getHints() {
+			return this.hints;
+		}
+
+		@Override
+		public String toString() {
+			return "Leaked PooledDataBuffer (capacity=" + this.capacity + ", hints=" + this.hints + ")";
+		}
+	}
+
+
+	/**
+	 * Point-in-time statistics of a {@link PooledDataBufferFactory}.
+	 */
+	public static final class Statistics {
+
+		private final long allocationCount;
+
+		private final long reuseCount;
+
+		private final long unpooledAllocationCount;
+
+		private final long releaseCount;
+
+		private final long pooledByteCount;
+
+		private final long leakCount;
+
+		Statistics(long allocationCount, long reuseCount, long unpooledAllocationCount,
+				long releaseCount, long pooledByteCount, long leakCount) {
+
+			this.allocationCount = allocationCount;
+			this.reuseCount = reuseCount;
+			this.unpooledAllocationCount = unpooledAllocationCount;
+			this.releaseCount = releaseCount;
+			this.pooledByteCount = pooledByteCount;
+			this.leakCount = leakCount;
+		}
+
+		/**
+		 * Return the number of allocated buffers, including the memory
+		 * allocated for buffers growing beyond their capacity.
+		 */
+		public long getAllocationCount() {
+			return this.allocationCount;
+		}
+
+		/**
+		 * Return the number of allocations served from pooled memory.
+		 */
+		public long getReuseCount() {
+			return this.reuseCount;
+		}
+
+		/**
+		 * Return the number of allocations that exceeded the maximum pooled
+		 * capacity and were therefore not pooled.
+		 */
+		public long getUnpooledAllocationCount() {
+			return this.unpooledAllocationCount;
+		}
+
+		/**
+		 * Return the number of times memory was released.
+		 */
+		public long getReleaseCount() {
+			return this.releaseCount;
+		}
+
+		/**
+		 * Return the number of bytes currently held in the thread-local
+		 * caches and the shared pool.
+		 */
+		public long getPooledByteCount() {
+			return this.pooledByteCount;
+		}
+
+		/**
+		 * Return the number of detected leaks.
+		 */
+		public long getLeakCount() {
+			return this.leakCount;
+		}
+
+		@Override
+		public String toString() {
+			return "PooledDataBufferFactory statistics: allocations=" + this.allocationCount +
+					", reused=" + this.reuseCount + ", unpooled=" + this.unpooledAllocationCount +
+					", releases=" + this.releaseCount + ", pooledBytes=" + this.pooledByteCount +
+					", leaks=" + this.leakCount;
+		}
+	}
+
+
+	/**
+	 * Per-thread stacks of released memory, one per size class, bounded by
+	 * the {@linkplain #setThreadLocalCacheCapacity thread-local cache capacity}.
+	 */
+	private final class LocalCache {
+
+		private ByteBuffer[][] chunks = new ByteBuffer[0][];
+
+		private int[] counts = new int[0];
+
+		/** The number of chunks polled per size class since the last trim. */
+		private int[] reuses = new int[0];
+
+		private int byteCount;
+
+		private int allocations;
+
+		@Nullable
+		ByteBuffer poll(int sizeClass) {
+			if (++this.allocations >= THREAD_LOCAL_CACHE_TRIM_INTERVAL) {
+				trim();
+			}
+			if (sizeClass >= this.counts.length || this.counts[sizeClass] == 0) {
+				return null;
+			}
+			int index = --this.counts[sizeClass];
+			ByteBuffer chunk = this.chunks[sizeClass][index];
+			this.chunks[sizeClass][index] = null;
+			this.reuses[sizeClass]++;
+			this.byteCount -= chunk.capacity();
+			return chunk;
+		}
+
+		boolean offer(int sizeClass, ByteBuffer chunk) {
+			int capacity = chunk.capacity();
+			if (this.byteCount + capacity > threadLocalCacheCapacity) {
+				return false;
+			}
+			if (sizeClass >= this.counts.length) {
+				ByteBuffer[][] chunks = new ByteBuffer[sizeClass + 1][];
+				System.arraycopy(this.chunks, 0, chunks, 0, this.chunks.length);
+				this.chunks = chunks;
+				this.counts = Arrays.copyOf(this.counts, sizeClass + 1);
+				this.reuses = Arrays.copyOf(this.reuses, sizeClass + 1);
+			}
+			ByteBuffer[] stack = this.chunks[sizeClass];
+			int count = this.counts[sizeClass];
+			if (stack == null || stack.length == count) {
+				stack = (stack != null ? Arrays.copyOf(stack, count * 2) : new ByteBuffer[4]);
+				this.chunks[sizeClass] = stack;
+			}
+			stack[count] = chunk;
+			this.counts[sizeClass] = count + 1;
+			this.byteCount += capacity;
+			return true;
+		}
+
+		/**
+		 * Hand the chunks of each size class that exceed the number of chunks
+		 * reused since the last trim over to the shared pool.
+		 */
+		private void trim() {
+			this.allocations = 0;
+			for (int sizeClass = 0; sizeClass < this.counts.length; sizeClass++) {
+				int surplus = this.counts[sizeClass] - this.reuses[sizeClass];
+				this.reuses[sizeClass] = 0;
+				while (surplus-- > 0) {
+					int index = --this.counts[sizeClass];
+					ByteBuffer chunk = this.chunks[sizeClass][index];
+					this.chunks[sizeClass][index] = null;
+					this.byteCount -= chunk.capacity();
+					if (!offerShared(sizeClass, chunk)) {
+						pooledByteCount.add(-chunk.capacity());
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Weak reference to an allocated buffer, enqueued once the buffer has
+	 * been garbage collected.
+	 */
+	private static final class LeakTracker extends WeakReference<PooledBuffer> {
+
+		private final int capacity;
+
+		private final Throwable allocationSite;
+
+		private final Deque<String> hints = new ArrayDeque<>(MAX_TOUCH_HINTS);
+
+		LeakTracker(PooledBuffer buffer, ReferenceQueue<PooledBuffer> queue) {
+			super(buffer, queue);
+			this.capacity = buffer.capacity();
+			this.allocationSite = new Throwable("PooledDataBuffer allocation site");
+		}
+
+		void touch(Object hint) {
+			synchronized (this.hints) {
+				if (this.hints.size() == MAX_TOUCH_HINTS) {
+					this.hints.removeFirst();
+				}
+				this.hints.addLast(String.valueOf(hint));
+			}
+		}
+
+		List<String> getHints() {
+			synchronized (this.hints) {
+				return new ArrayList<>(this.hints);
+			}
+		}
+	}
+
+
+	/**
+	 * {@link PooledDataBuffer} whose memory is handed back to the factory
+	 * once its reference count drops to 0.
+	 */
+	private static final class PooledBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory factory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		private ByteBuffer chunk;
+
+		@Nullable
+		LeakTracker tracker;
+
+		PooledBuffer(PooledDataBufferFactory factory, ByteBuffer chunk) {
+			super(factory, chunk);
+			this.factory = factory;
+			this.chunk = chunk;
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			ByteBuffer chunk = this.factory.allocateChunk(capacity, direct);
+			chunk.limit(capacity);
+			return chunk;
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			assertAccessible();
+			if (newCapacity > capacity() && newCapacity <= this.chunk.capacity()) {
+				// Grow within the current chunk, which starts at the same memory
+				ByteBuffer buffer = this.chunk.duplicate();
+				buffer.clear();
+				buffer.limit(newCapacity);
+				super.setNativeBuffer(buffer.slice());
+				return this;
+			}
+			return super.capacity(newCapacity);
+		}
+
+		@Override
+		void setNativeBuffer(ByteBuffer byteBuffer) {
+			ByteBuffer oldChunk = this.chunk;
+			super.setNativeBuffer(byteBuffer);
+			this.chunk = byteBuffer;
+			this.factory.releaseChunk(oldChunk);
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			return new PooledSlice(this, asByteBuffer(index, length), length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? new ReleasingInputStream(inputStream, this) : inputStream);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return (this.refCount.get() > 0);
+		}
+
+		@Override
+		void assertAccessible() {
+			if (this.refCount.get() <= 0) {
+				throw new IllegalStateException("PooledDataBuffer has already been released");
+			}
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("PooledDataBuffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count + 1));
+			return this;
+		}
+
+		@Override
+		public PooledDataBuffer touch(Object hint) {
+			LeakTracker tracker = this.tracker;
+			if (tracker != null) {
+				tracker.touch(hint);
+			}
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("PooledDataBuffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count - 1));
+			if (count == 1) {
+				this.factory.released(this);
+				return true;
+			}
+			return false;
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledBuffer}, sharing the reference count of its parent.
+	 */
+	private static final class PooledSlice extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledBuffer parent;
+
+		PooledSlice(PooledBuffer parent, ByteBuffer byteBuffer, int length) {
+			super(parent.factory, byteBuffer);
+			this.parent = parent;
+			writePosition(length);
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			return new PooledSlice(this.parent, asByteBuffer(index, length), length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? new ReleasingInputStream(inputStream, this) : inputStream);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		void assertAccessible() {
+			this.parent.assertAccessible();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public PooledDataBuffer touch(Object hint) {
+			this.parent.touch(hint);
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+	}
+
+
+	/**
+	 * {@link InputStream} that releases its buffer when closed.
+	 */
+	private static final class ReleasingInputStream extends FilterInputStream {
+
+		private final PooledDataBuffer dataBuffer;
+
+		private boolean closed;
+
+		ReleasingInputStream(InputStream inputStream, PooledDataBuffer dataBuffer) {
+			super(inputStream);
+			this.dataBuffer = dataBuffer;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(this.dataBuffer);
+			}
+		}
+	}
+
+}
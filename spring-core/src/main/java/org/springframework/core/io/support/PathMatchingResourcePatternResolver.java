@@ -27,12 +27,16 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -169,6 +173,14 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Jar entry index:</b>
+ *
+ * <p>The entry names of each jar file searched are read once and kept as a sorted
+ * index for the lifetime of the resolver, so that subsequent patterns against the
+ * same jar file, e.g. the many "{@code classpath*:}" lookups on startup, search a
+ * range of that index instead of iterating over all entries of the jar file again.
+ * Call {@link #clearCache()} if jar files may change in the meantime.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -206,6 +218,11 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	/**
+	 * jar 文件 URL -> 排序后的 entry 名称，避免每个 pattern 都遍历一次 jar 文件
+	 */
+	private final Map<String, String[]> jarEntriesCache = new ConcurrentHashMap<>();
+
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
 	 * <p>ClassLoader access will happen via the thread context class loader.
@@ -271,6 +288,16 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Clear the index of jar file entries, e.g. after jar files on the
+	 * class path have been replaced.
+	 *
+	 * @since 5.3.40
+	 */
+	public void clearCache() {
+		this.jarEntriesCache.clear();
+	}
+
 	@Override
 	public Resource getResource(String location) {
 		return getResourceLoader().getResource(location);
@@ -631,11 +658,18 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		if (con instanceof JarURLConnection) {
 			// Should usually be the case for traditional JAR files.
 			JarURLConnection jarCon = (JarURLConnection) con;
+			jarFileUrl = jarCon.getJarFileURL().toExternalForm();
+			// Taken from the URL rather than from the JarEntry, so that the root entry
+			// path is the same whether or not the jar file has been indexed already.
+			String entryName = jarCon.getEntryName();
+			rootEntryPath = (entryName != null ? entryName : "");
+			String[] entries = this.jarEntriesCache.get(jarFileUrl);
+			if (entries != null) {
+				// Already indexed -> no need to open the jar file again.
+				return findMatchingJarEntries(rootDirResource, jarFileUrl, entries, rootEntryPath, subPattern);
+			}
 			ResourceUtils.useCachesIfNecessary(jarCon);
 			jarFile = jarCon.getJarFile();
-			jarFileUrl = jarCon.getJarFileURL().toExternalForm();
-			JarEntry jarEntry = jarCon.getJarEntry();
-			rootEntryPath = (jarEntry != null ? jarEntry.getName() : "");
 			closeJarFile = !jarCon.getUseCaches();
 		} else {
 			// No JarURLConnection -> need to resort to URL file parsing.
@@ -651,12 +685,15 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				if (separatorIndex != -1) {
 					jarFileUrl = urlFile.substring(0, separatorIndex);
 					rootEntryPath = urlFile.substring(separatorIndex + 2);  // both separators are 2 chars
-					jarFile = getJarFile(jarFileUrl);
 				} else {
-					jarFile = new JarFile(urlFile);
 					jarFileUrl = urlFile;
 					rootEntryPath = "";
 				}
+				String[] entries = this.jarEntriesCache.get(jarFileUrl);
+				if (entries != null) {
+					return findMatchingJarEntries(rootDirResource, jarFileUrl, entries, rootEntryPath, subPattern);
+				}
+				jarFile = (separatorIndex != -1 ? getJarFile(jarFileUrl) : new JarFile(urlFile));
 				closeJarFile = true;
 			} catch (ZipException ex) {
 				if (logger.isDebugEnabled()) {
@@ -666,32 +703,108 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			}
 		}
 
+		String[] entries;
 		try {
 			if (logger.isTraceEnabled()) {
-				logger.trace("Looking for matching resources in jar file [" + jarFileUrl + "]");
-			}
-			if (StringUtils.hasLength(rootEntryPath) && !rootEntryPath.endsWith("/")) {
-				// Root entry path must end with slash to allow for proper matching.
-				// The Sun JRE does not return a slash here, but BEA JRockit does.
-				rootEntryPath = rootEntryPath + "/";
+				logger.trace("Indexing entries of jar file [" + jarFileUrl + "]");
 			}
-			Set<Resource> result = new LinkedHashSet<>(64);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
-				}
+			List<String> entryNames = new ArrayList<>(jarFile.size());
+			for (Enumeration<JarEntry> jarEntries = jarFile.entries(); jarEntries.hasMoreElements(); ) {
+				entryNames.add(jarEntries.nextElement().getName());
 			}
-			return result;
+			entries = entryNames.toArray(new String[0]);
+			Arrays.sort(entries);
+			this.jarEntriesCache.put(jarFileUrl, entries);
 		} finally {
 			if (closeJarFile) {
 				jarFile.close();
 			}
 		}
+		return findMatchingJarEntries(rootDirResource, jarFileUrl, entries, rootEntryPath, subPattern);
+	}
+
+	/**
+	 * Find all entries below the given root entry path that match the given
+	 * sub pattern, within the sorted entry names of a jar file.
+	 * <p>Entries below the root entry path form a contiguous range of the sorted
+	 * entry names. Within that range, all entries of a directory that cannot
+	 * lead to a match, as determined by {@link PathMatcher#matchStart}, are
+	 * skipped at once.
+	 *
+	 * @param rootDirResource the root directory as Resource
+	 * @param jarFileUrl      the URL of the jar file, for logging purposes
+	 * @param entries         the sorted entry names of the jar file
+	 * @param rootEntryPath   the entry path of the root directory
+	 * @param subPattern      the sub pattern to match (below the root directory)
+	 * @return a mutable Set of matching Resource instances
+	 * @throws IOException in case of I/O errors
+	 */
+	private Set<Resource> findMatchingJarEntries(Resource rootDirResource, String jarFileUrl, String[] entries,
+			String rootEntryPath, String subPattern) throws IOException {
+
+		if (logger.isTraceEnabled()) {
+			logger.trace("Looking for matching resources in jar file [" + jarFileUrl + "]");
+		}
+		if (StringUtils.hasLength(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+			// Root entry path must end with slash to allow for proper matching.
+			// The Sun JRE does not return a slash here, but BEA JRockit does.
+			rootEntryPath = rootEntryPath + "/";
+		}
+		PathMatcher pathMatcher = getPathMatcher();
+		Set<Resource> result = new LinkedHashSet<>(64);
+		int index = indexOfFirstEntry(entries, rootEntryPath, 0);
+		int end = indexOfFirstEntryAfter(entries, rootEntryPath, index);
+		String matchingDir = "";
+		while (index < end) {
+			String relativePath = entries[index].substring(rootEntryPath.length());
+			int dirEnd = relativePath.lastIndexOf('/') + 1;
+			if (dirEnd > matchingDir.length() || !relativePath.startsWith(matchingDir)) {
+				// Entering another directory: skip it if it cannot contain any match,
+				// starting from its topmost directory that cannot contain a match.
+				String prunedDir = null;
+				for (int slash = relativePath.indexOf('/'); slash != -1 && slash < dirEnd;
+						slash = relativePath.indexOf('/', slash + 1)) {
+					String dir = relativePath.substring(0, slash + 1);
+					if (!pathMatcher.matchStart(subPattern, dir)) {
+						prunedDir = dir;
+						break;
+					}
+				}
+				if (prunedDir != null) {
+					index = indexOfFirstEntryAfter(entries, rootEntryPath + prunedDir, index);
+					continue;
+				}
+				matchingDir = relativePath.substring(0, dirEnd);
+			}
+			if (pathMatcher.match(subPattern, relativePath)) {
+				result.add(rootDirResource.createRelative(relativePath));
+			}
+			index++;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the index of the first of the sorted entries that is not lower than
+	 * the given prefix, i.e. the first entry starting with the prefix, if any.
+	 */
+	private static int indexOfFirstEntry(String[] entries, String prefix, int fromIndex) {
+		int index = Arrays.binarySearch(entries, fromIndex, entries.length, prefix);
+		return (index >= 0 ? index : -index - 1);
+	}
+
+	/**
+	 * Return the index of the first of the sorted entries, from the given index
+	 * on, that does not start with the given prefix anymore.
+	 */
+	private static int indexOfFirstEntryAfter(String[] entries, String prefix, int fromIndex) {
+		if (prefix.isEmpty()) {
+			return entries.length;
+		}
+		// Lowest string greater than any string starting with the prefix
+		char last = prefix.charAt(prefix.length() - 1);
+		String upperBound = prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+		return indexOfFirstEntry(entries, upperBound, fromIndex);
 	}
 
 	/**
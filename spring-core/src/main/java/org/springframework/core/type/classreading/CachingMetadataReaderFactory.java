@@ -31,6 +31,10 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>If enabled, class files that are not cached locally yet are looked up in
+ * the JVM-wide {@link SharedMetadataReaderCache} before being parsed, so that
+ * contexts using separate factories share the metadata of common classes.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -120,7 +124,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = createMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
@@ -128,11 +132,15 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		else if (this.metadataReaderCache != null) {
 			synchronized (this.metadataReaderCache) {
 				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+				if (metadataReader != null) {
+					return metadataReader;
 				}
-				return metadataReader;
+			}
+			// Parse outside of the lock, allowing for concurrent reads (e.g. parallel scanning)
+			MetadataReader metadataReader = createMetadataReader(resource);
+			synchronized (this.metadataReaderCache) {
+				MetadataReader existing = this.metadataReaderCache.putIfAbsent(resource, metadataReader);
+				return (existing != null ? existing : metadataReader);
 			}
 		}
 		else {
@@ -140,8 +148,21 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		}
 	}
 
+	/**
+	 * Create a new {@link MetadataReader} for the given resource, going through
+	 * the {@link SharedMetadataReaderCache} if enabled.
+	 */
+	private MetadataReader createMetadataReader(Resource resource) throws IOException {
+		SharedMetadataReaderCache sharedCache = SharedMetadataReaderCache.getInstance();
+		if (sharedCache != null) {
+			return sharedCache.getMetadataReader(resource, getResourceLoader().getClassLoader());
+		}
+		return super.getMetadataReader(resource);
+	}
+
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
+	 * <p>The {@link SharedMetadataReaderCache} is not affected.
 	 */
 	public void clearCache() {
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * JVM-wide cache of the {@link AnnotationMetadata} parsed from class files,
+ * used as a second level behind the per-factory cache of
+ * {@link CachingMetadataReaderFactory}. Each class file is therefore parsed
+ * once per {@link ClassLoader}, even across application contexts, e.g. the
+ * many contexts of a large test suite.
+ *
+ * <p>The cache is turned off by default and needs to be enabled through the
+ * {@value #SHARED_PROPERTY_NAME} property, either as a JVM system property or
+ * through {@link SpringProperties}.
+ *
+ * <p>Entries are grouped per {@code ClassLoader}, which is held weakly, and
+ * keyed by the description of the class file resource. Just like the local
+ * cache of a {@code CachingMetadataReaderFactory}, this assumes that class
+ * files do not change for the lifetime of a {@code ClassLoader}: no further
+ * I/O happens on a cache hit. Metadata for a {@code null} class loader is
+ * not cached.
+ *
+ * <p>The cache holds its metadata through soft references, so that it never
+ * prevents the garbage collection of metadata under memory pressure, and
+ * evicts the oldest entries of a {@code ClassLoader} beyond
+ * {@value #DEFAULT_CACHE_LIMIT} entries. That limit can be changed through the
+ * {@value #CACHE_LIMIT_PROPERTY_NAME} property. Note that the metadata refers
+ * to its {@code ClassLoader}, which can therefore only be collected once its
+ * metadata has been reclaimed or {@linkplain #clear() cleared}.
+ *
+ * @since 5.3.40
+ * @see CachingMetadataReaderFactory
+ */
+public final class SharedMetadataReaderCache {
+
+	/**
+	 * System property that instructs Spring to share the metadata parsed from
+	 * class files across {@link CachingMetadataReaderFactory} instances.
+	 * <p>The default is "false".
+	 */
+	public static final String SHARED_PROPERTY_NAME = "spring.metadata.cache.shared";
+
+	/**
+	 * System property that specifies the maximum number of entries of the
+	 * shared metadata cache, per {@code ClassLoader}.
+	 * <p>The default is {@value #DEFAULT_CACHE_LIMIT}.
+	 */
+	public static final String CACHE_LIMIT_PROPERTY_NAME = "spring.metadata.cache.limit";
+
+	/** Default maximum number of entries per ClassLoader for the shared metadata cache: 4096. */
+	public static final int DEFAULT_CACHE_LIMIT = 4096;
+
+	private static final Log logger = LogFactory.getLog(SharedMetadataReaderCache.class);
+
+	@Nullable
+	private static final SharedMetadataReaderCache instance =
+			(SpringProperties.getFlag(SHARED_PROPERTY_NAME) ? new SharedMetadataReaderCache(determineCacheLimit()) : null);
+
+
+	private final Map<ClassLoader, ClassLoaderCache> cachesByClassLoader = new WeakHashMap<>();
+
+	/** The most recently used cache, for lookups without a global lock. */
+	@Nullable
+	private volatile ClassLoaderCache lastCache;
+
+	private final int cacheLimit;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	private SharedMetadataReaderCache(int cacheLimit) {
+		this.cacheLimit = cacheLimit;
+	}
+
+
+	/**
+	 * Return a {@link MetadataReader} for the given resource, reusing metadata
+	 * parsed earlier for the same class file and class loader if possible.
+	 */
+	MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) throws IOException {
+		if (classLoader == null) {
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		ClassLoaderCache cache = this.lastCache;
+		if (cache == null || cache.classLoader.get() != classLoader) {
+			synchronized (this.cachesByClassLoader) {
+				cache = this.cachesByClassLoader.computeIfAbsent(classLoader, ClassLoaderCache::new);
+				this.lastCache = cache;
+			}
+		}
+		String key = resource.getDescription();
+		AnnotationMetadata metadata = cache.metadata.get(key);
+		if (metadata != null) {
+			this.hitCount.increment();
+			return new SimpleMetadataReader(resource, metadata);
+		}
+		this.missCount.increment();
+		SimpleMetadataReader metadataReader = new SimpleMetadataReader(resource, classLoader);
+		cache.put(key, metadataReader.getAnnotationMetadata());
+		return metadataReader;
+	}
+
+	private int size() {
+		int size = 0;
+		synchronized (this.cachesByClassLoader) {
+			for (ClassLoaderCache cache : this.cachesByClassLoader.values()) {
+				size += cache.metadata.size();
+			}
+		}
+		return size;
+	}
+
+
+	/**
+	 * Return the statistics of the shared metadata cache.
+	 * @return the current statistics, or {@code null} if the cache is turned off
+	 * @see #SHARED_PROPERTY_NAME
+	 */
+	@Nullable
+	public static Statistics getStatistics() {
+		SharedMetadataReaderCache cache = instance;
+		if (cache == null) {
+			return null;
+		}
+		return new Statistics(cache.hitCount.sum(), cache.missCount.sum(),
+				cache.evictionCount.sum(), cache.size(), cache.cacheLimit);
+	}
+
+	/**
+	 * Clear the shared metadata cache, removing all cached class metadata.
+	 * The statistics are not reset.
+	 */
+	public static void clear() {
+		SharedMetadataReaderCache cache = instance;
+		if (cache != null) {
+			synchronized (cache.cachesByClassLoader) {
+				cache.cachesByClassLoader.clear();
+				cache.lastCache = null;
+			}
+		}
+	}
+
+	/**
+	 * Return the shared cache, or {@code null} if it is turned off.
+	 */
+	@Nullable
+	static SharedMetadataReaderCache getInstance() {
+		return instance;
+	}
+
+	private static int determineCacheLimit() {
+		String limit = SpringProperties.getProperty(CACHE_LIMIT_PROPERTY_NAME);
+		if (limit != null) {
+			try {
+				int cacheLimit = Integer.parseInt(limit.trim());
+				if (cacheLimit > 0) {
+					return cacheLimit;
+				}
+			}
+			catch (NumberFormatException ex) {
+				// fall back to default
+			}
+			logger.warn("Ignoring invalid value for '" + CACHE_LIMIT_PROPERTY_NAME + "': " + limit);
+		}
+		return DEFAULT_CACHE_LIMIT;
+	}
+
+
+	/**
+	 * Point-in-time statistics of the shared metadata cache.
+	 */
+	public static final class Statistics {
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		private final int size;
+
+		private final int cacheLimit;
+
+		private Statistics(long hitCount, long missCount, long evictionCount, int size, int cacheLimit) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+			this.cacheLimit = cacheLimit;
+		}
+
+		/**
+		 * Return the number of lookups served from the cache.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * Return the number of lookups that required parsing a class file.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Return the ratio of lookups served from the cache, between 0 and 1.
+		 */
+		public double getHitRatio() {
+			long total = this.hitCount + this.missCount;
+			return (total > 0 ? (double) this.hitCount / total : 0);
+		}
+
+		/**
+		 * Return the number of entries evicted because of the cache limit.
+		 * Entries reclaimed by the garbage collector are not included.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		/**
+		 * Return the current number of entries, including entries that
+		 * have been reclaimed by the garbage collector but not purged yet.
+		 */
+		public int getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Return the maximum number of entries per {@code ClassLoader}.
+		 */
+		public int getCacheLimit() {
+			return this.cacheLimit;
+		}
+
+		@Override
+		public String toString() {
+			return "SharedMetadataReaderCache statistics: hits=" + this.hitCount + ", misses=" + this.missCount +
+					", evictions=" + this.evictionCount + ", size=" + this.size + ", limit=" + this.cacheLimit;
+		}
+	}
+
+
+	/**
+	 * The cached metadata for a single {@code ClassLoader}, keyed by resource
+	 * description, with its insertion order for evicting the oldest entries.
+	 */
+	private final class ClassLoaderCache {
+
+		private final WeakReference<ClassLoader> classLoader;
+
+		private final Map<String, AnnotationMetadata> metadata =
+				new ConcurrentReferenceHashMap<>(256, ConcurrentReferenceHashMap.ReferenceType.SOFT);
+
+		@SuppressWarnings("serial")
+		private final Map<String, Boolean> insertionOrder = new LinkedHashMap<String, Boolean>(256) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				if (size() > cacheLimit) {
+					if (metadata.remove(eldest.getKey()) != null) {
+						evictionCount.increment();
+					}
+					return true;
+				}
+				return false;
+			}
+		};
+
+		ClassLoaderCache(ClassLoader classLoader) {
+			this.classLoader = new WeakReference<>(classLoader);
+		}
+
+		void put(String key, AnnotationMetadata annotationMetadata) {
+			synchronized (this.insertionOrder) {
+				this.metadata.put(key, annotationMetadata);
+				// A key may come back after its metadata has been reclaimed:
+				// move it to the end rather than tracking it twice
+				this.insertionOrder.remove(key);
+				this.insertionOrder.put(key, Boolean.TRUE);
+			}
+		}
+	}
+
+}
@@ -215,6 +215,32 @@ public class AntPathMatcher implements PathMatcher {
 		return doMatch(pattern, path, false, null);
 	}
 
+	/**
+	 * Compile the given pattern into an {@link AntPathPattern} for repeated
+	 * matching, according to the current settings of this matcher.
+	 * <p>The compiled pattern matches without tokenizing the path and without
+	 * going through the pattern caches of this matcher, but does not take
+	 * overridden matching methods of a subclass into account.
+	 * @param pattern the pattern to compile
+	 * @return the compiled pattern
+	 * @see AntPathPattern#matches(String)
+	 * @see AntPathPattern#matchStart(String)
+	 * @since 5.3.40
+	 */
+	public AntPathPattern compile(String pattern) {
+		Assert.notNull(pattern, "Pattern must not be null");
+		return new AntPathPattern(pattern, this.pathSeparator, this.caseSensitive, this.trimTokens);
+	}
+
+	/**
+	 * Check whether this matcher currently uses the given settings.
+	 * @see AntPathPattern#isCompiledWith(AntPathMatcher)
+	 */
+	boolean hasSettings(String pathSeparator, boolean caseSensitive, boolean trimTokens) {
+		return (this.pathSeparator.equals(pathSeparator) &&
+				this.caseSensitive == caseSensitive && this.trimTokens == trimTokens);
+	}
+
 	/**
 	 * Actually match the given {@code path} against the given {@code pattern}.
 	 *
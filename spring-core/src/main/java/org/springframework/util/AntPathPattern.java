@@ -0,0 +1,364 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Compiled representation of an Ant-style path pattern, as obtained through
+ * {@link AntPathMatcher#compile(String)}.
+ *
+ * <p>The pattern is split into segments once, each segment being prepared for
+ * matching as a literal, a {@code *}/{@code ?} wildcard program, a {@code **}
+ * directory wildcard, or a regular expression for URI template variables.
+ * Paths are then matched in place, without tokenizing them: apart from
+ * segments with URI template variables, matching does not allocate.
+ *
+ * <p>Matching follows the rules of {@link AntPathMatcher#match} and
+ * {@link AntPathMatcher#matchStart} for the settings of the matcher at the time
+ * of compilation. Customizations through overridden {@code AntPathMatcher}
+ * methods are not taken into account.
+ *
+ * <p>Instances are immutable and thread-safe, and are meant to be held by
+ * components that match the same patterns over and over again.
+ *
+ * @since 5.3.40
+ * @see AntPathMatcher#compile(String)
+ */
+public final class AntPathPattern {
+
+	private static final int LITERAL = 0;
+
+	private static final int WILDCARD = 1;
+
+	private static final int DOUBLE_WILDCARD = 2;
+
+	private static final int TEMPLATE = 3;
+
+
+	private final String patternString;
+
+	private final String pathSeparator;
+
+	private final boolean caseSensitive;
+
+	private final boolean trimTokens;
+
+	private final Segment[] segments;
+
+	private final boolean hasDoubleWildcard;
+
+	private final boolean endsWithSeparator;
+
+
+	AntPathPattern(String pattern, String pathSeparator, boolean caseSensitive, boolean trimTokens) {
+		this.patternString = pattern;
+		this.pathSeparator = pathSeparator;
+		this.caseSensitive = caseSensitive;
+		this.trimTokens = trimTokens;
+		String[] tokens = StringUtils.tokenizeToStringArray(pattern, pathSeparator, trimTokens, true);
+		this.segments = new Segment[tokens.length];
+		boolean hasDoubleWildcard = false;
+		for (int i = 0; i < tokens.length; i++) {
+			this.segments[i] = new Segment(tokens[i], caseSensitive);
+			hasDoubleWildcard |= (this.segments[i].kind == DOUBLE_WILDCARD);
+		}
+		this.hasDoubleWildcard = hasDoubleWildcard;
+		this.endsWithSeparator = pattern.endsWith(pathSeparator);
+	}
+
+
+	/**
+	 * Return the original String pattern.
+	 */
+	public String getPatternString() {
+		return this.patternString;
+	}
+
+	/**
+	 * Match the given path against this pattern.
+	 * @param path the path to test
+	 * @return {@code true} if the path matches, as with {@link AntPathMatcher#match}
+	 */
+	public boolean matches(@Nullable String path) {
+		if (path == null || path.startsWith(this.pathSeparator) != this.patternString.startsWith(this.pathSeparator)) {
+			return false;
+		}
+		Segment[] segments = this.segments;
+		int segmentCount = segments.length;
+		int patternIndex = 0;
+		int wildcardIndex = -1;
+		int wildcardPos = -1;
+		int pos = nextSegment(path, 0);
+		while (pos != -1) {
+			if (patternIndex < segmentCount && segments[patternIndex].kind == DOUBLE_WILDCARD) {
+				// Let '**' match no segment at first, taking more segments on mismatch
+				wildcardIndex = patternIndex++;
+				wildcardPos = pos;
+				continue;
+			}
+			int end = segmentEnd(path, pos);
+			if (patternIndex < segmentCount && matchSegment(segments[patternIndex], path, pos, end)) {
+				patternIndex++;
+				pos = nextSegment(path, end);
+			} else if (wildcardIndex != -1) {
+				patternIndex = wildcardIndex + 1;
+				wildcardPos = nextSegment(path, segmentEnd(path, wildcardPos));
+				pos = wildcardPos;
+			} else {
+				return false;
+			}
+		}
+		while (patternIndex < segmentCount && segments[patternIndex].kind == DOUBLE_WILDCARD) {
+			patternIndex++;
+		}
+		if (patternIndex == segmentCount) {
+			// Same end-separator rule as AntPathMatcher.doMatch: pattern and path need
+			// to agree on a trailing separator, unless the pattern reached a '**'
+			// segment (which AntPathMatcher lets match a trailing separator as well)
+			return (this.hasDoubleWildcard || this.endsWithSeparator == path.endsWith(this.pathSeparator));
+		}
+		// Path is exhausted: a trailing '*' matches a trailing separator
+		return (!this.hasDoubleWildcard && patternIndex == segmentCount - 1 &&
+				segments[patternIndex].isSingleWildcard() && path.endsWith(this.pathSeparator));
+	}
+
+	/**
+	 * Match the given path against the start of this pattern.
+	 * @param path the path to test
+	 * @return {@code true} if the pattern matches as far as the given path goes,
+	 * as with {@link AntPathMatcher#matchStart}
+	 */
+	public boolean matchStart(@Nullable String path) {
+		if (path == null || path.startsWith(this.pathSeparator) != this.patternString.startsWith(this.pathSeparator)) {
+			return false;
+		}
+		Segment[] segments = this.segments;
+		int segmentCount = segments.length;
+		int patternIndex = 0;
+		int pos = nextSegment(path, 0);
+		while (pos != -1 && patternIndex < segmentCount) {
+			if (segments[patternIndex].kind == DOUBLE_WILDCARD) {
+				return true;
+			}
+			int end = segmentEnd(path, pos);
+			if (!matchSegment(segments[patternIndex], path, pos, end)) {
+				return false;
+			}
+			patternIndex++;
+			pos = nextSegment(path, end);
+		}
+		if (pos != -1) {
+			// Path not exhausted, but pattern is.
+			return false;
+		}
+		return (patternIndex < segmentCount || this.endsWithSeparator == path.endsWith(this.pathSeparator));
+	}
+
+	/**
+	 * Determine whether this pattern has been compiled with the current settings
+	 * of the given matcher, i.e. whether it still matches like that matcher.
+	 * <p>Components holding on to compiled patterns may use this to detect a
+	 * matcher that has been reconfigured in the meantime.
+	 * @param pathMatcher the matcher to check against
+	 * @return {@code true} if the path separator, case sensitivity and token
+	 * trimming of this pattern are those of the given matcher
+	 */
+	public boolean isCompiledWith(AntPathMatcher pathMatcher) {
+		return pathMatcher.hasSettings(this.pathSeparator, this.caseSensitive, this.trimTokens);
+	}
+
+	/**
+	 * Return the start index of the next non-empty segment of the given path,
+	 * from the given position on, or -1 if there is none.
+	 */
+	private int nextSegment(String path, int pos) {
+		int length = path.length();
+		while (pos < length) {
+			if (isSeparator(path.charAt(pos))) {
+				pos++;
+				continue;
+			}
+			int end = segmentEnd(path, pos);
+			if (!this.trimTokens || trimStart(path, pos, end) < end) {
+				return pos;
+			}
+			pos = end;
+		}
+		return -1;
+	}
+
+	private int segmentEnd(String path, int start) {
+		int length = path.length();
+		int end = start;
+		while (end < length && !isSeparator(path.charAt(end))) {
+			end++;
+		}
+		return end;
+	}
+
+	private boolean isSeparator(char c) {
+		String separator = this.pathSeparator;
+		if (separator.length() == 1) {
+			return (separator.charAt(0) == c);
+		}
+		return (separator.indexOf(c) != -1);
+	}
+
+	private boolean matchSegment(Segment segment, String path, int start, int end) {
+		if (this.trimTokens) {
+			start = trimStart(path, start, end);
+			end = trimEnd(path, start, end);
+		}
+		switch (segment.kind) {
+			case LITERAL:
+				return (end - start == segment.value.length() &&
+						path.regionMatches(!this.caseSensitive, start, segment.value, 0, end - start));
+			case WILDCARD:
+				return matchWildcards(segment.value, path, start, end);
+			case TEMPLATE:
+				Assert.state(segment.templateMatcher != null, "No template matcher");
+				return segment.templateMatcher.matchStrings(path.substring(start, end), null);
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Match the given path segment against a segment pattern with {@code *}
+	 * and {@code ?} wildcards, backtracking to the last {@code *} on mismatch.
+	 */
+	private boolean matchWildcards(String pattern, String path, int start, int end) {
+		int patternLength = pattern.length();
+		int patternPos = 0;
+		int pos = start;
+		int starPatternPos = -1;
+		int starPos = -1;
+		while (pos < end) {
+			char c = (patternPos < patternLength ? pattern.charAt(patternPos) : 0);
+			if (patternPos < patternLength && c == '*') {
+				starPatternPos = patternPos++;
+				starPos = pos;
+			} else if (patternPos < patternLength && (c == '?' || charEquals(c, path.charAt(pos)))) {
+				patternPos++;
+				pos++;
+			} else if (starPatternPos != -1) {
+				patternPos = starPatternPos + 1;
+				pos = ++starPos;
+			} else {
+				return false;
+			}
+		}
+		while (patternPos < patternLength && pattern.charAt(patternPos) == '*') {
+			patternPos++;
+		}
+		return (patternPos == patternLength);
+	}
+
+	private boolean charEquals(char c1, char c2) {
+		if (c1 == c2) {
+			return true;
+		}
+		if (this.caseSensitive) {
+			return false;
+		}
+		// Same as Pattern.CASE_INSENSITIVE in AntPathStringMatcher: US-ASCII only
+		return (c1 < 128 && c2 < 128 && toLowerCase(c1) == toLowerCase(c2));
+	}
+
+	private static char toLowerCase(char c) {
+		return (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+	}
+
+	/**
+	 * Same as {@link String#trim()}, applied to the given range.
+	 */
+	private static int trimStart(String path, int start, int end) {
+		while (start < end && path.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(String path, int start, int end) {
+		while (end > start && path.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof AntPathPattern)) {
+			return false;
+		}
+		AntPathPattern otherPattern = (AntPathPattern) other;
+		return (this.patternString.equals(otherPattern.patternString) &&
+				this.pathSeparator.equals(otherPattern.pathSeparator) &&
+				this.caseSensitive == otherPattern.caseSensitive && this.trimTokens == otherPattern.trimTokens);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.patternString.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.patternString;
+	}
+
+
+	/**
+	 * A single pre-parsed segment of the pattern.
+	 */
+	private static final class Segment {
+
+		final int kind;
+
+		final String value;
+
+		@Nullable
+		final AntPathMatcher.AntPathStringMatcher templateMatcher;
+
+		Segment(String value, boolean caseSensitive) {
+			this.value = value;
+			if (value.equals("**")) {
+				this.kind = DOUBLE_WILDCARD;
+				this.templateMatcher = null;
+			} else if (value.indexOf('{') != -1) {
+				this.kind = TEMPLATE;
+				this.templateMatcher = new AntPathMatcher.AntPathStringMatcher(value, caseSensitive);
+			} else if (value.indexOf('*') != -1 || value.indexOf('?') != -1) {
+				this.kind = WILDCARD;
+				this.templateMatcher = null;
+			} else {
+				this.kind = LITERAL;
+				this.templateMatcher = null;
+			}
+		}
+
+		boolean isSingleWildcard() {
+			return this.value.equals("*");
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.util;
 
 import java.util.Comparator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.lang.Nullable;
 
@@ -27,15 +28,23 @@ import org.springframework.lang.Nullable;
  * <p><strong>Note:</strong> This implementation is not efficient since
  * {@code PathMatcher} treats paths and patterns as Strings. For more optimized
  * performance use the {@code PathPatternRouteMatcher} from {@code spring-web}
- * which enables use of parsed routes and patterns.
+ * which enables use of parsed routes and patterns. With a plain
+ * {@link AntPathMatcher}, patterns are matched through
+ * {@link AntPathPattern compiled patterns} though.
  *
  * @author Rossen Stoyanchev
  * @since 5.2
  */
 public class SimpleRouteMatcher implements RouteMatcher {
 
+	/** Maximum number of compiled patterns to hold on to, as for AntPathMatcher's own caches. */
+	private static final int COMPILED_PATTERNS_LIMIT = 65536;
+
 	private final PathMatcher pathMatcher;
 
+	@Nullable
+	private final Map<String, AntPathPattern> compiledPatterns;
+
 
 	/**
 	 * Create a new {@code SimpleRouteMatcher} for the given
@@ -44,6 +53,8 @@ public class SimpleRouteMatcher implements RouteMatcher {
 	public SimpleRouteMatcher(PathMatcher pathMatcher) {
 		Assert.notNull(pathMatcher, "PathMatcher is required");
 		this.pathMatcher = pathMatcher;
+		// Only for a plain AntPathMatcher: subclasses may customize matching
+		this.compiledPatterns = (pathMatcher.getClass() == AntPathMatcher.class ? new ConcurrentHashMap<>() : null);
 	}
 
 	/**
@@ -71,6 +82,18 @@ public class SimpleRouteMatcher implements RouteMatcher {
 
 	@Override
 	public boolean match(String pattern, Route route) {
+		if (this.compiledPatterns != null) {
+			AntPathMatcher antPathMatcher = (AntPathMatcher) this.pathMatcher;
+			AntPathPattern compiledPattern = this.compiledPatterns.get(pattern);
+			if (compiledPattern == null || !compiledPattern.isCompiledWith(antPathMatcher)) {
+				// Not compiled yet, or the matcher has been reconfigured since
+				compiledPattern = antPathMatcher.compile(pattern);
+				if (this.compiledPatterns.size() < COMPILED_PATTERNS_LIMIT) {
+					this.compiledPatterns.put(pattern, compiledPattern);
+				}
+			}
+			return compiledPattern.matches(route.value());
+		}
 		return this.pathMatcher.match(pattern, route.value());
 	}
 
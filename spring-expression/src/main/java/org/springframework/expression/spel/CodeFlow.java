@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,9 +85,17 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Record the variables holding the active context object, i.e. the current
+	 * element while code for a selection or projection is being generated.
+	 * Variable 1 (the target) is used when empty.
+	 */
+	private final Deque<Integer> targetVariables = new ArrayDeque<>();
 
 
 	/**
@@ -105,11 +113,34 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context)), or the current element when
+	 * inside a selection or projection.
 	 * @param mv the visitor into which the load instruction should be inserted
+	 * @see #enterTargetScope(int)
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer targetVariable = this.targetVariables.peek();
+		mv.visitVarInsn(ALOAD, (targetVariable != null ? targetVariable : 1));
+	}
+
+	/**
+	 * Enter a scope in which the given variable holds the active context object,
+	 * e.g. for generating the code that is evaluated against each element of a
+	 * selection or projection.
+	 * @param variableId the variable holding the active context object
+	 * @since 5.3.40
+	 * @see #loadTarget(MethodVisitor)
+	 */
+	public void enterTargetScope(int variableId) {
+		this.targetVariables.push(variableId);
+	}
+
+	/**
+	 * Exit a scope previously entered through {@link #enterTargetScope(int)}.
+	 * @since 5.3.40
+	 */
+	public void exitTargetScope() {
+		this.targetVariables.pop();
 	}
 
 	/**
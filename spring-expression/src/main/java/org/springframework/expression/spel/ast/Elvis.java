@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -84,6 +84,15 @@ public class Elvis extends SpelNodeImpl {
 		this.children[0].generateCode(mv, cf);
 		String lastDesc = cf.lastDescriptor();
 		Assert.state(lastDesc != null, "No last descriptor");
+		if (CodeFlow.isPrimitive(lastDesc)) {
+			// A primitive value is never null: no need to evaluate the other operand
+			if (!CodeFlow.isPrimitive(this.exitTypeDescriptor)) {
+				CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
+			}
+			cf.exitCompilationScope();
+			cf.pushDescriptor(this.exitTypeDescriptor);
+			return;
+		}
 		CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
 		cf.exitCompilationScope();
 		Label elseTarget = new Label();
@@ -323,7 +323,15 @@ public class Indexer extends SpelNodeImpl {
 
 	private void generateIndexCode(MethodVisitor mv, CodeFlow cf, SpelNodeImpl indexNode, Class<?> indexType) {
 		String indexDesc = CodeFlow.toDescriptor(indexType);
-		generateCodeForArgument(mv, cf, indexNode, indexDesc);
+		// Like in getValueRef, the index is evaluated against the root object (variable 1),
+		// also within a selection or projection
+		cf.enterTargetScope(1);
+		try {
+			generateCodeForArgument(mv, cf, indexNode, indexDesc);
+		}
+		finally {
+			cf.exitTargetScope();
+		}
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2023 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -273,8 +273,7 @@ public class MethodReference extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		CachedMethodExecutor executorToCheck = this.cachedExecutor;
-		if (executorToCheck == null || executorToCheck.hasProxyTarget() ||
-				!(executorToCheck.get() instanceof ReflectiveMethodExecutor)) {
+		if (executorToCheck == null || !(executorToCheck.get() instanceof ReflectiveMethodExecutor)) {
 			return false;
 		}
 
@@ -290,6 +289,10 @@ public class MethodReference extends SpelNodeImpl {
 		}
 
 		Class<?> clazz = executor.getMethod().getDeclaringClass();
+		if (executorToCheck.hasProxyTarget()) {
+			// Only invocable through a public interface that the proxy implements
+			return (clazz.isInterface() && Modifier.isPublic(clazz.getModifiers()));
+		}
 		return (Modifier.isPublic(clazz.getModifiers()) || executor.getPublicDeclaringClass() != null);
 	}
 
@@ -328,24 +331,21 @@ public class MethodReference extends SpelNodeImpl {
 			CodeFlow.insertBoxIfNecessary(mv, descriptor.charAt(0));
 		}
 
-		String classDesc;
-		if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
-			classDesc = method.getDeclaringClass().getName().replace('.', '/');
-		}
-		else {
-			Class<?> publicDeclaringClass = methodExecutor.getPublicDeclaringClass();
-			Assert.state(publicDeclaringClass != null, "No public declaring class");
-			classDesc = publicDeclaringClass.getName().replace('.', '/');
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (!Modifier.isPublic(declaringClass.getModifiers())) {
+			declaringClass = methodExecutor.getPublicDeclaringClass();
+			Assert.state(declaringClass != null, "No public declaring class");
 		}
+		String classDesc = declaringClass.getName().replace('.', '/');
+		boolean isInterface = declaringClass.isInterface();
 
 		if (!isStaticMethod && (descriptor == null || !descriptor.substring(1).equals(classDesc))) {
 			CodeFlow.insertCheckCast(mv, "L" + classDesc);
 		}
 
 		generateCodeForArguments(mv, cf, method, this.children);
-		mv.visitMethodInsn((isStaticMethod ? INVOKESTATIC : (method.isDefault() ? INVOKEINTERFACE : INVOKEVIRTUAL)),
-				classDesc, method.getName(), CodeFlow.createSignatureDescriptor(method),
-				method.getDeclaringClass().isInterface());
+		mv.visitMethodInsn((isStaticMethod ? INVOKESTATIC : (isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL)),
+				classDesc, method.getName(), CodeFlow.createSignatureDescriptor(method), isInterface);
 		cf.pushDescriptor(this.exitTypeDescriptor);
 
 		if (this.originalPrimitiveExitTypeDescriptor != null) {
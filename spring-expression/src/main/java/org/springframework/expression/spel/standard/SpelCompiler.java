@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,11 @@ package org.springframework.expression.spel.standard;
 
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
@@ -30,6 +34,7 @@ import org.springframework.asm.Opcodes;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.CompiledExpression;
+import org.springframework.expression.spel.SpelNode;
 import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.ast.SpelNodeImpl;
 import org.springframework.lang.Nullable;
@@ -117,11 +122,54 @@ public final class SpelCompiler implements Opcodes {
 		}
 
 		if (logger.isDebugEnabled()) {
-			logger.debug("SpEL: unable to compile " + expression.toStringAST());
+			List<SpelNode> nonCompilableNodes = findNonCompilableNodes(expression);
+			if (!nonCompilableNodes.isEmpty()) {
+				StringJoiner nodes = new StringJoiner(", ");
+				for (SpelNode node : nonCompilableNodes) {
+					nodes.add(node.getClass().getSimpleName() + " '" + node.toStringAST() +
+							"' at position " + node.getStartPosition());
+				}
+				logger.debug("SpEL: unable to compile " + expression.toStringAST() +
+						" - not compilable: " + nodes);
+			}
+			else {
+				logger.debug("SpEL: unable to compile " + expression.toStringAST());
+			}
 		}
 		return null;
 	}
 
+	/**
+	 * Find the nodes that prevent compilation of the given expression AST,
+	 * i.e. the innermost nodes that are not compilable while all of their
+	 * children are. Such nodes are typically either not supported by the
+	 * compiler or have not been evaluated yet, e.g. the second operand of
+	 * an Elvis operator whose first operand has never been {@code null}.
+	 * @param expression the expression AST to check
+	 * @return the blocking nodes, or an empty list if the expression is compilable
+	 */
+	static List<SpelNode> findNonCompilableNodes(SpelNodeImpl expression) {
+		if (expression.isCompilable()) {
+			return Collections.emptyList();
+		}
+		List<SpelNode> result = new ArrayList<>();
+		collectNonCompilableNodes(expression, result);
+		return result;
+	}
+
+	private static void collectNonCompilableNodes(SpelNodeImpl node, List<SpelNode> result) {
+		int resultSize = result.size();
+		for (int i = 0; i < node.getChildCount(); i++) {
+			SpelNodeImpl child = (SpelNodeImpl) node.getChild(i);
+			if (!child.isCompilable()) {
+				collectNonCompilableNodes(child, result);
+			}
+		}
+		if (result.size() == resultSize) {
+			result.add(node);
+		}
+	}
+
 	private int getNextSuffix() {
 		return this.suffixId.incrementAndGet();
 	}
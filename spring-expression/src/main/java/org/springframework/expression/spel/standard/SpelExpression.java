@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.expression.spel.standard;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.core.convert.TypeDescriptor;
@@ -78,6 +79,9 @@ public class SpelExpression implements Expression {
 	// give up trying to compile it when it just doesn't seem to be possible.
 	private final AtomicInteger failedAttempts = new AtomicInteger();
 
+	// Total time in nanoseconds spent on compilation attempts, guarded by this expression
+	private volatile long compilationTime;
+
 
 	/**
 	 * Construct an expression, only used by the parser.
@@ -523,6 +527,7 @@ public class SpelExpression implements Expression {
 				// Compiled by another thread before this thread got into the sync block
 				return true;
 			}
+			long startTime = System.nanoTime();
 			try {
 				SpelCompiler compiler = SpelCompiler.getCompiler(this.configuration.getCompilerClassLoader());
 				compiledAst = compiler.compile(this.ast);
@@ -552,9 +557,25 @@ public class SpelExpression implements Expression {
 					throw new SpelEvaluationException(ex, SpelMessage.EXCEPTION_COMPILING_EXPRESSION);
 				}
 			}
+			finally {
+				this.compilationTime += System.nanoTime() - startTime;
+			}
 		}
 	}
 
+	/**
+	 * Return the nodes of this expression that currently prevent its compilation,
+	 * i.e. the innermost nodes that are not compilable while all of their children
+	 * are. Nodes may become compilable once the expression has been evaluated,
+	 * as compilation relies on type information gathered during interpretation.
+	 * @return the blocking nodes, or an empty list if the expression is compilable
+	 * @since 5.3.40
+	 * @see #compileExpression()
+	 */
+	public List<SpelNode> getNonCompilableNodes() {
+		return SpelCompiler.findNonCompilableNodes(this.ast);
+	}
+
 	/**
 	 * Cause an expression to revert to being interpreted if it has been using a compiled
 	 * form. It also resets the compilation attempt failure count (an expression is normally no
@@ -566,6 +587,23 @@ public class SpelExpression implements Expression {
 		this.failedAttempts.set(0);
 	}
 
+	/**
+	 * Return whether this expression currently has a compiled form.
+	 * @since 5.3.40
+	 */
+	boolean isCompiled() {
+		return (this.compiledAst != null);
+	}
+
+	/**
+	 * Return the total time in nanoseconds spent on compilation attempts
+	 * for this expression.
+	 * @since 5.3.40
+	 */
+	long getCompilationTime() {
+		return this.compilationTime;
+	}
+
 	/**
 	 * Return the Abstract Syntax Tree for the expression.
 	 */
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Bounded cache of parsed {@link Expression} instances, to be held by
+ * components that repeatedly evaluate the same expression strings, e.g.
+ * the expression evaluators for caching and event listener annotations.
+ *
+ * <p>Entries are keyed by the expression string and an optional context such
+ * as the annotated method that declares the expression. Each entry is weighed
+ * by the number of AST nodes of the parsed expression, as an indication of the
+ * size of the parsed and compiled state it holds. Once the total weight exceeds
+ * the configured limit, the oldest entries are evicted and
+ * {@linkplain SpelExpression#revertToInterpreted() reverted} so that their
+ * generated classes can be reclaimed. Entries are softly referenced as well.
+ *
+ * <p>The {@linkplain #SpelExpressionCache() default} weight limit is
+ * {@value #DEFAULT_WEIGHT_LIMIT}, which can be changed through the
+ * {@value #WEIGHT_LIMIT_PROPERTY_NAME} property, with 0 leaving the cache
+ * unbounded.
+ *
+ * @since 5.3.40
+ * @see SpelExpression#compileExpression()
+ */
+public class SpelExpressionCache {
+
+	/**
+	 * System property that specifies the default maximum total weight of an
+	 * expression cache, with 0 leaving it unbounded.
+	 * <p>The default is {@value #DEFAULT_WEIGHT_LIMIT}.
+	 */
+	public static final String WEIGHT_LIMIT_PROPERTY_NAME = "spring.expression.cache.limit";
+
+	/** Default maximum total weight of an expression cache in AST nodes: 65536. */
+	public static final int DEFAULT_WEIGHT_LIMIT = 65536;
+
+	private static final long defaultWeightLimit = determineWeightLimit();
+
+
+	private final long weightLimit;
+
+	private final ConcurrentReferenceHashMap<CacheKey, Expression> cache = new ConcurrentReferenceHashMap<>(64);
+
+	/** Weight per key in insertion order, guarded by itself; only used if bounded. */
+	private final LinkedHashMap<CacheKey, Long> insertionOrder = new LinkedHashMap<>(64);
+
+	private long weight;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder evictedCompilationTime = new LongAdder();
+
+
+	/**
+	 * Create a new cache with the default maximum total weight.
+	 * @see #WEIGHT_LIMIT_PROPERTY_NAME
+	 */
+	public SpelExpressionCache() {
+		this(defaultWeightLimit);
+	}
+
+	/**
+	 * Create a new cache with the given maximum total weight.
+	 * @param weightLimit the maximum total number of AST nodes of all cached
+	 * expressions, with 0 leaving the cache unbounded
+	 */
+	public SpelExpressionCache(long weightLimit) {
+		Assert.isTrue(weightLimit >= 0, "Weight limit must not be negative");
+		this.weightLimit = weightLimit;
+	}
+
+
+	/**
+	 * Return the {@link Expression} for the given expression string, parsing
+	 * it with the given function and caching the result if necessary.
+	 * @param expressionString the raw expression string
+	 * @param context an additional discriminator for the expression, e.g. the
+	 * annotated element that declares it, or {@code null} if none
+	 * @param parser the function to parse the expression string with
+	 * @return the parsed expression, possibly shared with other callers
+	 */
+	public Expression getExpression(String expressionString, @Nullable Object context,
+			Function<String, Expression> parser) {
+
+		CacheKey key = new CacheKey(expressionString, context);
+		Expression expression = this.cache.get(key);
+		if (expression != null) {
+			this.hitCount.increment();
+			return expression;
+		}
+		this.missCount.increment();
+		expression = parser.apply(expressionString);
+		Expression existing = this.cache.putIfAbsent(key, expression);
+		if (existing != null) {
+			return existing;
+		}
+		if (this.weightLimit > 0) {
+			track(key, weigh(expression));
+		}
+		return expression;
+	}
+
+	private void track(CacheKey key, long keyWeight) {
+		synchronized (this.insertionOrder) {
+			// The key may come back after its expression has been reclaimed:
+			// replace its previous weight rather than tracking it twice
+			Long previousWeight = this.insertionOrder.remove(key);
+			if (previousWeight != null) {
+				this.weight -= previousWeight;
+			}
+			this.insertionOrder.put(key, keyWeight);
+			this.weight += keyWeight;
+			Iterator<Map.Entry<CacheKey, Long>> it = this.insertionOrder.entrySet().iterator();
+			while (this.weight > this.weightLimit && it.hasNext()) {
+				Map.Entry<CacheKey, Long> eldest = it.next();
+				if (eldest.getKey() == key) {
+					break;
+				}
+				it.remove();
+				this.weight -= eldest.getValue();
+				Expression evicted = this.cache.remove(eldest.getKey());
+				if (evicted != null) {
+					this.evictionCount.increment();
+					release(evicted);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Clear the cache. The hit, miss and eviction counts are not reset.
+	 */
+	public void clear() {
+		synchronized (this.insertionOrder) {
+			this.insertionOrder.clear();
+			this.weight = 0;
+		}
+		for (Expression expression : this.cache.values()) {
+			release(expression);
+		}
+		this.cache.clear();
+	}
+
+	/**
+	 * Return the current statistics of this cache.
+	 */
+	public Statistics getStatistics() {
+		int size = 0;
+		int compiledCount = 0;
+		long compilationTime = this.evictedCompilationTime.sum();
+		for (Expression expression : this.cache.values()) {
+			size++;
+			if (expression instanceof SpelExpression) {
+				SpelExpression spelExpression = (SpelExpression) expression;
+				if (spelExpression.isCompiled()) {
+					compiledCount++;
+				}
+				compilationTime += spelExpression.getCompilationTime();
+			}
+		}
+		long weight;
+		synchronized (this.insertionOrder) {
+			weight = this.weight;
+		}
+		return new Statistics(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum(),
+				size, weight, this.weightLimit, compiledCount, compilationTime);
+	}
+
+	private void release(Expression expression) {
+		if (expression instanceof SpelExpression) {
+			SpelExpression spelExpression = (SpelExpression) expression;
+			this.evictedCompilationTime.add(spelExpression.getCompilationTime());
+			spelExpression.revertToInterpreted();
+		}
+		else if (expression instanceof CompositeStringExpression) {
+			for (Expression child : ((CompositeStringExpression) expression).getExpressions()) {
+				release(child);
+			}
+		}
+	}
+
+
+	private static long weigh(Expression expression) {
+		if (expression instanceof SpelExpression) {
+			return countNodes(((SpelExpression) expression).getAST());
+		}
+		if (expression instanceof CompositeStringExpression) {
+			long weight = 1;
+			for (Expression child : ((CompositeStringExpression) expression).getExpressions()) {
+				weight += weigh(child);
+			}
+			return weight;
+		}
+		return 1;
+	}
+
+	private static long countNodes(SpelNode node) {
+		long count = 1;
+		for (int i = 0; i < node.getChildCount(); i++) {
+			count += countNodes(node.getChild(i));
+		}
+		return count;
+	}
+
+	private static long determineWeightLimit() {
+		String limit = SpringProperties.getProperty(WEIGHT_LIMIT_PROPERTY_NAME);
+		if (limit != null) {
+			try {
+				return Math.max(0, Long.parseLong(limit.trim()));
+			}
+			catch (NumberFormatException ex) {
+				// fall back to default
+			}
+		}
+		return DEFAULT_WEIGHT_LIMIT;
+	}
+
+
+	/**
+	 * Point-in-time statistics of a {@link SpelExpressionCache}.
+	 */
+	public static final class Statistics {
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		private final int size;
+
+		private final long weight;
+
+		private final long weightLimit;
+
+		private final int compiledCount;
+
+		private final long compilationTime;
+
+		Statistics(long hitCount, long missCount, long evictionCount, int size, long weight,
+				long weightLimit, int compiledCount, long compilationTime) {
+
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+			this.weight = weight;
+			this.weightLimit = weightLimit;
+			this.compiledCount = compiledCount;
+			this.compilationTime = compilationTime;
+		}
+
+		/**
+		 * Return the number of lookups served by a cached expression.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * Return the number of lookups that parsed a new expression.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Return the ratio of lookups served by a cached expression,
+		 * or 0 if there were no lookups.
+		 */
+		public double getHitRate() {
+			long total = this.hitCount + this.missCount;
+			return (total > 0 ? (double) this.hitCount / total : 0);
+		}
+
+		/**
+		 * Return the number of expressions evicted because of the weight limit.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		/**
+		 * Return the number of cached expressions.
+		 */
+		public int getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Return the total weight of the cached expressions in AST nodes,
+		 * or 0 if the cache is unbounded and therefore does not weigh them.
+		 */
+		public long getWeight() {
+			return this.weight;
+		}
+
+		/**
+		 * Return the maximum total weight of the cached expressions,
+		 * or 0 if the cache is unbounded.
+		 */
+		public long getWeightLimit() {
+			return this.weightLimit;
+		}
+
+		/**
+		 * Return the number of cached expressions that are currently compiled.
+		 */
+		public int getCompiledCount() {
+			return this.compiledCount;
+		}
+
+		/**
+		 * Return the total time in nanoseconds spent on compiling cached
+		 * expressions, including expressions evicted in the meantime.
+		 */
+		public long getCompilationTime() {
+			return this.compilationTime;
+		}
+
+		@Override
+		public String toString() {
+			return "SpelExpressionCache statistics: hits=" + this.hitCount + ", misses=" + this.missCount +
+					", evictions=" + this.evictionCount + ", size=" + this.size + ", weight=" + this.weight +
+					", limit=" + this.weightLimit + ", compiled=" + this.compiledCount +
+					", compilationTime=" + this.compilationTime / 1000000 + "ms";
+		}
+	}
+
+
+	private static final class CacheKey {
+
+		private final String expressionString;
+
+		@Nullable
+		private final Object context;
+
+		CacheKey(String expressionString, @Nullable Object context) {
+			this.expressionString = expressionString;
+			this.context = context;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.expressionString.equals(otherKey.expressionString) &&
+					ObjectUtils.nullSafeEquals(this.context, otherKey.context));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.expressionString.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.context);
+		}
+	}
+
+}
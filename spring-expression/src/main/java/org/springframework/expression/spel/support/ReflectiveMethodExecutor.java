@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -93,12 +93,18 @@ public class ReflectiveMethodExecutor implements MethodExecutor {
 	 * because of visibility restrictions. For example if a non-public class overrides toString(),
 	 * this helper method will walk up the type hierarchy to find the first public type that declares
 	 * the method (if there is one!). For toString() it may walk as far as Object.
+	 * <p>If no public class declares the method, a public interface declaring it is
+	 * returned, e.g. {@link java.util.List} for {@code size()} on an unmodifiable list.
 	 */
 	@Nullable
 	public Class<?> getPublicDeclaringClass() {
 		if (!this.computedPublicDeclaringClass) {
-			this.publicDeclaringClass =
-					discoverPublicDeclaringClass(this.originalMethod, this.originalMethod.getDeclaringClass());
+			Class<?> declaringClass = this.originalMethod.getDeclaringClass();
+			Class<?> publicDeclaringClass = discoverPublicDeclaringClass(this.originalMethod, declaringClass);
+			if (publicDeclaringClass == null && !Modifier.isStatic(this.originalMethod.getModifiers())) {
+				publicDeclaringClass = discoverPublicDeclaringInterface(this.originalMethod, declaringClass);
+			}
+			this.publicDeclaringClass = publicDeclaringClass;
 			this.computedPublicDeclaringClass = true;
 		}
 		return this.publicDeclaringClass;
@@ -121,6 +127,24 @@ public class ReflectiveMethodExecutor implements MethodExecutor {
 		return null;
 	}
 
+	@Nullable
+	private Class<?> discoverPublicDeclaringInterface(Method method, Class<?> clazz) {
+		for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(clazz)) {
+			if (Modifier.isPublic(ifc.getModifiers())) {
+				try {
+					Method ifcMethod = ifc.getMethod(method.getName(), method.getParameterTypes());
+					if (ifcMethod.getReturnType() == method.getReturnType()) {
+						return ifc;
+					}
+				}
+				catch (NoSuchMethodException ex) {
+					// Continue with next interface...
+				}
+			}
+		}
+		return null;
+	}
+
 	public boolean didArgumentConversionOccur() {
 		return this.argumentConversionOccurred;
 	}
@@ -170,9 +170,11 @@ public class DestinationPatternsMessageCondition
 			return this;
 		}
 
+		RouteMatcher.Route route = (destination instanceof RouteMatcher.Route ?
+				(RouteMatcher.Route) destination : this.routeMatcher.parseRoute((String) destination));
 		List<String> matches = null;
 		for (String pattern : this.patterns) {
-			if (pattern.equals(destination) || matchPattern(pattern, destination)) {
+			if (pattern.equals(destination) || this.routeMatcher.match(pattern, route)) {
 				if (matches == null) {
 					matches = new ArrayList<>();
 				}
@@ -187,12 +189,6 @@ public class DestinationPatternsMessageCondition
 		return new DestinationPatternsMessageCondition(new LinkedHashSet<>(matches), this.routeMatcher);
 	}
 
-	private boolean matchPattern(String pattern, Object destination) {
-		return destination instanceof RouteMatcher.Route ?
-				this.routeMatcher.match(pattern, (RouteMatcher.Route) destination) :
-				((SimpleRouteMatcher) this.routeMatcher).getPathMatcher().match(pattern, (String) destination);
-	}
-
 	private Comparator<String> getPatternComparator(Object destination) {
 		return destination instanceof RouteMatcher.Route ?
 			this.routeMatcher.getPatternComparator((RouteMatcher.Route) destination) :
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonInputMessage;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Benchmarks for the per-call {@code ObjectReader} and {@code ObjectWriter}
+ * overhead when decoding and encoding small JSON payloads, with and without
+ * a JSON view, through the Jackson codecs and message converter.
+ *
+ * @see AbstractJackson2Decoder
+ * @see AbstractJackson2Encoder
+ * @see org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2ObjectReaderWriterBenchmark {
+
+	/**
+	 * Benchmark data holding a serialized {@link Project}, along with the
+	 * codecs and converter to process it with.
+	 */
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"false", "true"})
+		boolean withJsonView;
+
+		ObjectMapper objectMapper;
+
+		JavaType javaType;
+
+		Jackson2JsonDecoder jsonDecoder;
+
+		Jackson2JsonEncoder jsonEncoder;
+
+		MappingJackson2HttpMessageConverter converter;
+
+		DataBufferFactory bufferFactory;
+
+		ResolvableType resolvableType;
+
+		Map<String, Object> hints;
+
+		Project project;
+
+		byte[] json;
+
+		@Setup
+		public void setup() throws IOException {
+			this.objectMapper = new Jackson2ObjectMapperBuilder().build();
+			this.javaType = this.objectMapper.constructType(Project.class);
+			this.jsonDecoder = new Jackson2JsonDecoder(this.objectMapper);
+			this.jsonEncoder = new Jackson2JsonEncoder(this.objectMapper);
+			this.converter = new MappingJackson2HttpMessageConverter(this.objectMapper);
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.resolvableType = ResolvableType.forClass(Project.class);
+			this.hints = (this.withJsonView ?
+					Collections.singletonMap(Jackson2CodecSupport.JSON_VIEW_HINT, Summary.class) :
+					Collections.emptyMap());
+			this.project = new Project("spring", 2);
+			this.json = this.objectMapper.writeValueAsBytes(this.project);
+		}
+	}
+
+	@Benchmark
+	public Object decodeWithNewObjectReader(BenchmarkData data) throws IOException {
+		return (data.withJsonView ?
+				data.objectMapper.readerWithView(Summary.class).forType(data.javaType) :
+				data.objectMapper.readerFor(data.javaType)).readValue(data.json);
+	}
+
+	@Benchmark
+	public Object decode(BenchmarkData data) {
+		DataBuffer buffer = data.bufferFactory.wrap(data.json);
+		return data.jsonDecoder.decode(buffer, data.resolvableType, MediaType.APPLICATION_JSON, data.hints);
+	}
+
+	@Benchmark
+	public DataBuffer encodeValue(BenchmarkData data) {
+		return data.jsonEncoder.encodeValue(data.project, data.bufferFactory, data.resolvableType,
+				MediaType.APPLICATION_JSON, data.hints);
+	}
+
+	@Benchmark
+	public Object converterRead(BenchmarkData data) throws IOException {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		InputStream body = new ByteArrayInputStream(data.json);
+		HttpInputMessage inputMessage = (data.withJsonView ?
+				new MappingJacksonInputMessage(body, headers, Summary.class) :
+				new MappingJacksonInputMessage(body, headers));
+		return data.converter.read(Project.class, null, inputMessage);
+	}
+
+	@Benchmark
+	public byte[] converterWrite(BenchmarkData data) throws IOException {
+		Object value = data.project;
+		if (data.withJsonView) {
+			MappingJacksonValue container = new MappingJacksonValue(value);
+			container.setSerializationView(Summary.class);
+			value = container;
+		}
+		ByteArrayOutputMessage outputMessage = new ByteArrayOutputMessage();
+		data.converter.write(value, MediaType.APPLICATION_JSON, outputMessage);
+		return outputMessage.body.toByteArray();
+	}
+
+
+	/**
+	 * JSON view used for the view-based benchmarks.
+	 */
+	public interface Summary {
+	}
+
+
+	private static class ByteArrayOutputMessage implements HttpOutputMessage {
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+		@Override
+		public OutputStream getBody() {
+			return this.body;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Sub-interface of {@code HttpOutputMessage} for server responses that can
+ * have a file transferred to the body by the server itself, e.g. through the
+ * operating system's {@code sendfile} support, without copying its contents
+ * through the JVM heap.
+ *
+ * @since 5.3.40
+ * @see ZeroCopyHttpOutputMessage
+ */
+public interface FileTransferHttpOutputMessage extends HttpOutputMessage {
+
+	/**
+	 * Have the given region of a file transferred as the body of this message,
+	 * if supported for the current exchange.
+	 * <p>If the transfer is accepted, the body must not be written through
+	 * {@link #getBody()} anymore, though it may still be flushed. The
+	 * {@code Content-Length} header must match the given count.
+	 * @param file the file to transfer
+	 * @param position the position within the file from which to start
+	 * @param count the number of bytes to transfer
+	 * @return {@code true} if the server takes over the transfer;
+	 * {@code false} if the body needs to be written by the caller
+	 * @throws IOException in case of I/O errors
+	 */
+	boolean transferFile(File file, long position, long count) throws IOException;
+
+}
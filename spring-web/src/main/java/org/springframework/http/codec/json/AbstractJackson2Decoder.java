@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,7 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.MimeType;
 
 /**
@@ -65,6 +66,8 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 
 	private int maxInMemorySize = 256 * 1024;
 
+	private final Map<MapperCacheKey, ObjectReader> objectReaderCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -175,7 +178,7 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 	public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		return DataBufferUtils.join(input, this.maxInMemorySize)
+		return DataBufferUtils.joinComposite(input, this.maxInMemorySize)
 				.flatMap(dataBuffer -> Mono.justOrEmpty(decode(dataBuffer, elementType, mimeType, hints)));
 	}
 
@@ -212,9 +215,11 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		}
 		JavaType javaType = getJavaType(elementType.getType(), contextClass);
 		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
-		return jsonView != null ?
-				mapper.readerWithView(jsonView).forType(javaType) :
-				mapper.readerFor(javaType);
+		MapperCacheKey cacheKey = MapperCacheKey.forReader(mapper, javaType, jsonView);
+		return this.objectReaderCache.computeIfAbsent(cacheKey, key ->
+				jsonView != null ?
+						mapper.readerWithView(jsonView).forType(javaType) :
+						mapper.readerFor(javaType));
 	}
 
 	@Nullable
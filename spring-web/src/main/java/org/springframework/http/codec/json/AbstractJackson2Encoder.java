@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,6 +55,7 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.MimeType;
 
 /**
@@ -83,6 +84,8 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 
 	private final List<MediaType> streamingMediaTypes = new ArrayList<>(1);
 
+	private final Map<MapperCacheKey, ObjectWriter> objectWriterCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -303,13 +306,13 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			@Nullable Class<?> jsonView, @Nullable Map<String, Object> hints) {
 
 		JavaType javaType = getJavaType(valueType.getType(), null);
-		if (jsonView == null && hints != null) {
-			jsonView = (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT);
-		}
-		ObjectWriter writer = (jsonView != null ? mapper.writerWithView(jsonView) : mapper.writer());
-		if (javaType.isContainerType()) {
-			writer = writer.forType(javaType);
-		}
+		Class<?> view = (jsonView == null && hints != null ?
+				(Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : jsonView);
+		MapperCacheKey cacheKey = MapperCacheKey.forWriter(mapper, javaType, view);
+		ObjectWriter writer = this.objectWriterCache.computeIfAbsent(cacheKey, key -> {
+			ObjectWriter objectWriter = (view != null ? mapper.writerWithView(view) : mapper.writer());
+			return (javaType.isContainerType() ? objectWriter.forType(javaType) : objectWriter);
+		});
 		return customizeWriter(writer, mimeType, valueType, hints);
 	}
 
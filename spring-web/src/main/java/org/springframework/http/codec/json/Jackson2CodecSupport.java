@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,6 +50,12 @@ import org.springframework.util.ObjectUtils;
 /**
  * Base class providing support methods for Jackson 2.9 encoding and decoding.
  *
+ * <p>As of 5.3.40, decoders and encoders cache the {@code ObjectReader} and
+ * {@code ObjectWriter} for a given {@code ObjectMapper}, type and JSON view.
+ * Cached instances are only reused as long as the mapper keeps the same
+ * configuration, so that changes made to a mapper after it has first been
+ * used still apply.
+ *
  * @author Sebastien Deleuze
  * @author Rossen Stoyanchev
  * @since 5.0
@@ -277,4 +283,82 @@ public abstract class Jackson2CodecSupport {
 		return this.defaultObjectMapper;
 	}
 
+	/**
+	 * Key for {@code ObjectReader} and {@code ObjectWriter} instances cached by
+	 * subclasses, per {@code ObjectMapper}, target type and JSON view. The key
+	 * also holds the configuration and factories of the mapper at the time, all
+	 * compared by identity: Jackson replaces them whenever the mapper is
+	 * reconfigured, e.g. when a feature is changed or a module is registered,
+	 * which makes earlier cached instances unreachable through the cache.
+	 * The Jackson message converters use a key of their own.
+	 * @see org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter
+	 */
+	static final class MapperCacheKey {
+
+		private final ObjectMapper mapper;
+
+		private final Object[] mapperState;
+
+		private final JavaType javaType;
+
+		@Nullable
+		private final Class<?> jsonView;
+
+		private MapperCacheKey(ObjectMapper mapper, Object[] mapperState, JavaType javaType,
+				@Nullable Class<?> jsonView) {
+
+			this.mapper = mapper;
+			this.mapperState = mapperState;
+			this.javaType = javaType;
+			this.jsonView = jsonView;
+		}
+
+		/**
+		 * Create a key for an {@code ObjectReader} of the given mapper.
+		 */
+		static MapperCacheKey forReader(ObjectMapper mapper, JavaType javaType, @Nullable Class<?> jsonView) {
+			Object[] mapperState = {mapper.getDeserializationConfig(), mapper.getDeserializationContext()};
+			return new MapperCacheKey(mapper, mapperState, javaType, jsonView);
+		}
+
+		/**
+		 * Create a key for an {@code ObjectWriter} of the given mapper.
+		 */
+		static MapperCacheKey forWriter(ObjectMapper mapper, JavaType javaType, @Nullable Class<?> jsonView) {
+			Object[] mapperState = {mapper.getSerializationConfig(), mapper.getSerializerFactory(),
+					mapper.getSerializerProvider()};
+			return new MapperCacheKey(mapper, mapperState, javaType, jsonView);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MapperCacheKey)) {
+				return false;
+			}
+			MapperCacheKey otherKey = (MapperCacheKey) other;
+			if (this.mapper != otherKey.mapper || this.mapperState.length != otherKey.mapperState.length) {
+				return false;
+			}
+			for (int i = 0; i < this.mapperState.length; i++) {
+				if (this.mapperState[i] != otherKey.mapperState[i]) {
+					return false;
+				}
+			}
+			return (this.javaType.equals(otherKey.javaType) && this.jsonView == otherKey.jsonView);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = System.identityHashCode(this.mapper);
+			for (Object state : this.mapperState) {
+				result = 31 * result + System.identityHashCode(state);
+			}
+			result = 31 * result + this.javaType.hashCode();
+			return 31 * result + ObjectUtils.nullSafeHashCode(this.jsonView);
+		}
+	}
+
 }
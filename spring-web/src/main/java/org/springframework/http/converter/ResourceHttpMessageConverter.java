@@ -16,6 +16,7 @@
 
 package org.springframework.http.converter;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -23,6 +24,7 @@ import java.io.InputStream;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.FileTransferHttpOutputMessage;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -135,6 +137,15 @@ public class ResourceHttpMessageConverter extends AbstractHttpMessageConverter<R
 	protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
 			throws IOException, HttpMessageNotWritableException {
 
+		if (outputMessage instanceof FileTransferHttpOutputMessage && resource.isFile()) {
+			File file = resource.getFile();
+			long length = file.length();
+			if (length == outputMessage.getHeaders().getContentLength() &&
+					((FileTransferHttpOutputMessage) outputMessage).transferFile(file, 0, length)) {
+				return;
+			}
+		}
+
 		// We cannot use try-with-resources here for the InputStream, since we have
 		// custom handling of the close() method in a finally-block.
 		try {
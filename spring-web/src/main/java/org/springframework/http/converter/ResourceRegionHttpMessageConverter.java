@@ -26,6 +26,7 @@ import java.util.Collection;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.FileTransferHttpOutputMessage;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
@@ -154,7 +155,13 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		responseHeaders.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
 		responseHeaders.setContentLength(rangeLength);
 
-		InputStream in = region.getResource().getInputStream();
+		Resource resource = region.getResource();
+		if (outputMessage instanceof FileTransferHttpOutputMessage && resource.isFile() &&
+				((FileTransferHttpOutputMessage) outputMessage).transferFile(resource.getFile(), start, rangeLength)) {
+			return;
+		}
+
+		InputStream in = resource.getInputStream();
 		// We cannot use try-with-resources here for the InputStream, since we have
 		// custom handling of the close() method in a finally-block.
 		try {
@@ -61,6 +61,8 @@ import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StreamUtils;
 import org.springframework.util.TypeUtils;
 
@@ -70,6 +72,12 @@ import org.springframework.util.TypeUtils;
  *
  * <p>Compatible with Jackson 2.9 to 2.12, as of Spring 5.3.
  *
+ * <p>As of 5.3.40, the {@link ObjectReader} and {@link ObjectWriter} for a
+ * given {@code ObjectMapper}, type and JSON view are cached. Cached instances
+ * are only reused as long as the mapper keeps the same configuration, so that
+ * changes made to a mapper after it has first been used, e.g. through
+ * {@link #getObjectMapper()}, still apply.
+ *
  * @author Arjen Poutsma
  * @author Keith Donald
  * @author Rossen Stoyanchev
@@ -113,6 +121,10 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	@Nullable
 	private PrettyPrinter ssePrettyPrinter;
 
+	private final Map<MapperCacheKey, ObjectReader> objectReaderCache = new ConcurrentReferenceHashMap<>(64);
+
+	private final Map<MapperCacheKey, ObjectWriter> objectWriterCache = new ConcurrentReferenceHashMap<>(64);
+
 	protected AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
 		this.defaultObjectMapper = objectMapper;
 		DefaultPrettyPrinter prettyPrinter = new DefaultPrettyPrinter();
@@ -194,6 +206,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		Map<MediaType, ObjectMapper> registrations =
 				this.objectMapperRegistrations.computeIfAbsent(clazz, c -> new LinkedHashMap<>());
 		registrar.accept(registrations);
+		// Drop cached readers and writers of mappers that may no longer be in use
+		this.objectReaderCache.clear();
+		this.objectWriterCache.clear();
 	}
 
 	/**
@@ -248,6 +263,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		if (this.prettyPrint != null) {
 			this.defaultObjectMapper.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
 		}
+		// Cached readers and writers hold a snapshot of the previous configuration
+		this.objectReaderCache.clear();
+		this.objectWriterCache.clear();
 	}
 
 	@Override
@@ -391,23 +409,14 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				"UTF-32".equals(charset.name());
 		try {
 			InputStream inputStream = StreamUtils.nonClosing(inputMessage.getBody());
-			if (inputMessage instanceof MappingJacksonInputMessage) {
-				Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
-				if (deserializationView != null) {
-					ObjectReader objectReader = objectMapper.readerWithView(deserializationView).forType(javaType);
-					if (isUnicode) {
-						return objectReader.readValue(inputStream);
-					} else {
-						Reader reader = new InputStreamReader(inputStream, charset);
-						return objectReader.readValue(reader);
-					}
-				}
-			}
+			Class<?> deserializationView = (inputMessage instanceof MappingJacksonInputMessage ?
+					((MappingJacksonInputMessage) inputMessage).getDeserializationView() : null);
+			ObjectReader objectReader = getObjectReader(objectMapper, javaType, deserializationView);
 			if (isUnicode) {
-				return objectMapper.readValue(inputStream, javaType);
+				return objectReader.readValue(inputStream);
 			} else {
 				Reader reader = new InputStreamReader(inputStream, charset);
-				return objectMapper.readValue(reader, javaType);
+				return objectReader.readValue(reader);
 			}
 		} catch (InvalidDefinitionException ex) {
 			throw new HttpMessageConversionException("Type definition error: " + ex.getType(), ex);
@@ -464,19 +473,12 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				javaType = getJavaType(type, null);
 			}
 
-			ObjectWriter objectWriter = (serializationView != null ?
-					objectMapper.writerWithView(serializationView) : objectMapper.writer());
+			boolean eventStream = (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+			ObjectWriter objectWriter = getObjectWriter(objectMapper,
+					(javaType != null && javaType.isContainerType() ? javaType : null), serializationView, eventStream);
 			if (filters != null) {
 				objectWriter = objectWriter.with(filters);
 			}
-			if (javaType != null && javaType.isContainerType()) {
-				objectWriter = objectWriter.forType(javaType);
-			}
-			SerializationConfig config = objectWriter.getConfig();
-			if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
-					config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
-				objectWriter = objectWriter.with(this.ssePrettyPrinter);
-			}
 			objectWriter.writeValue(generator, value);
 
 			writeSuffix(generator, object);
@@ -488,6 +490,45 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		}
 	}
 
+	/**
+	 * Return a cached {@link ObjectReader} for the given mapper, type and
+	 * deserialization view, creating it if necessary.
+	 */
+	private ObjectReader getObjectReader(ObjectMapper objectMapper, JavaType javaType,
+			@Nullable Class<?> deserializationView) {
+
+		Object[] mapperState = {objectMapper.getDeserializationConfig(), objectMapper.getDeserializationContext()};
+		MapperCacheKey cacheKey = new MapperCacheKey(objectMapper, mapperState, javaType, deserializationView, false);
+		return this.objectReaderCache.computeIfAbsent(cacheKey, key -> (deserializationView != null ?
+				objectMapper.readerWithView(deserializationView).forType(javaType) :
+				objectMapper.readerFor(javaType)));
+	}
+
+	/**
+	 * Return a cached {@link ObjectWriter} for the given mapper, container type
+	 * and serialization view, creating it if necessary. The writer for an
+	 * event stream uses the SSE pretty printer if indentation is enabled.
+	 */
+	private ObjectWriter getObjectWriter(ObjectMapper objectMapper, @Nullable JavaType javaType,
+			@Nullable Class<?> serializationView, boolean eventStream) {
+
+		Object[] mapperState = {objectMapper.getSerializationConfig(), objectMapper.getSerializerFactory(),
+				objectMapper.getSerializerProvider()};
+		MapperCacheKey cacheKey = new MapperCacheKey(objectMapper, mapperState, javaType, serializationView, eventStream);
+		return this.objectWriterCache.computeIfAbsent(cacheKey, key -> {
+			ObjectWriter objectWriter = (serializationView != null ?
+					objectMapper.writerWithView(serializationView) : objectMapper.writer());
+			if (javaType != null) {
+				objectWriter = objectWriter.forType(javaType);
+			}
+			SerializationConfig config = objectWriter.getConfig();
+			if (eventStream && config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+				objectWriter = objectWriter.with(this.ssePrettyPrinter);
+			}
+			return objectWriter;
+		});
+	}
+
 	/**
 	 * Write a prefix before the main content.
 	 *
@@ -553,4 +594,71 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		return super.getContentLength(object, contentType);
 	}
 
+
+	/**
+	 * Key for cached {@link ObjectReader} and {@link ObjectWriter} instances, per
+	 * {@link ObjectMapper}, type, JSON view and whether an event stream is written.
+	 * The key also holds the configuration and factories of the mapper at the time,
+	 * all compared by identity: Jackson replaces them whenever the mapper is
+	 * reconfigured, so that a reconfigured mapper does not match earlier entries.
+	 * @see org.springframework.http.codec.json.Jackson2CodecSupport
+	 */
+	private static final class MapperCacheKey {
+
+		private final ObjectMapper objectMapper;
+
+		private final Object[] mapperState;
+
+		@Nullable
+		private final JavaType javaType;
+
+		@Nullable
+		private final Class<?> view;
+
+		private final boolean eventStream;
+
+		MapperCacheKey(ObjectMapper objectMapper, Object[] mapperState, @Nullable JavaType javaType,
+				@Nullable Class<?> view, boolean eventStream) {
+
+			this.objectMapper = objectMapper;
+			this.mapperState = mapperState;
+			this.javaType = javaType;
+			this.view = view;
+			this.eventStream = eventStream;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MapperCacheKey)) {
+				return false;
+			}
+			MapperCacheKey otherKey = (MapperCacheKey) other;
+			if (this.objectMapper != otherKey.objectMapper ||
+					this.mapperState.length != otherKey.mapperState.length) {
+				return false;
+			}
+			for (int i = 0; i < this.mapperState.length; i++) {
+				if (this.mapperState[i] != otherKey.mapperState[i]) {
+					return false;
+				}
+			}
+			return (ObjectUtils.nullSafeEquals(this.javaType, otherKey.javaType) &&
+					this.view == otherKey.view && this.eventStream == otherKey.eventStream);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = System.identityHashCode(this.objectMapper);
+			for (Object state : this.mapperState) {
+				result = 31 * result + System.identityHashCode(state);
+			}
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.javaType);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.view);
+			return 31 * result + Boolean.hashCode(this.eventStream);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.http.server;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
@@ -23,8 +24,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.FileTransferHttpOutputMessage;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
@@ -34,14 +38,38 @@ import org.springframework.util.CollectionUtils;
 /**
  * {@link ServerHttpResponse} implementation that is based on a {@link HttpServletResponse}.
  *
+ * <p>When created with the corresponding request, files can be
+ * {@linkplain #transferFile transferred} through the {@code sendfile}
+ * support of Apache Tomcat, if enabled on the connector.
+ *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
  * @since 3.0
  */
-public class ServletServerHttpResponse implements ServerHttpResponse {
+public class ServletServerHttpResponse implements ServerHttpResponse, FileTransferHttpOutputMessage {
+
+	/**
+	 * The minimum number of bytes to {@linkplain #transferFile transfer} through
+	 * {@code sendfile}, as for Tomcat's {@code DefaultServlet}: 48 KB.
+	 * Smaller files are written faster through the output stream.
+	 * @since 5.3.40
+	 */
+	public static final long MIN_FILE_TRANSFER_SIZE = 48 * 1024;
+
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
 
 	private final HttpServletResponse servletResponse;
 
+	@Nullable
+	private final HttpServletRequest servletRequest;
+
 	private final HttpHeaders headers;
 
 	private boolean headersWritten = false;
@@ -59,8 +87,21 @@ public class ServletServerHttpResponse implements ServerHttpResponse {
 	 * @param servletResponse the servlet response
 	 */
 	public ServletServerHttpResponse(HttpServletResponse servletResponse) {
+		this(servletResponse, null);
+	}
+
+	/**
+	 * Construct a new instance of the ServletServerHttpResponse based on the given
+	 * {@link HttpServletResponse} and its corresponding {@link HttpServletRequest},
+	 * enabling {@linkplain #transferFile file transfers} where supported.
+	 * @param servletResponse the servlet response
+	 * @param servletRequest the servlet request, or {@code null} if not available
+	 * @since 5.3.40
+	 */
+	public ServletServerHttpResponse(HttpServletResponse servletResponse, @Nullable HttpServletRequest servletRequest) {
 		Assert.notNull(servletResponse, "HttpServletResponse must not be null");
 		this.servletResponse = servletResponse;
+		this.servletRequest = servletRequest;
 		// 初始化空的 HttpHeaders
 		this.headers = new ServletResponseHttpHeaders();
 	}
@@ -99,6 +140,29 @@ public class ServletServerHttpResponse implements ServerHttpResponse {
 		return this.servletResponse.getOutputStream();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation hands the file over to Tomcat's {@code sendfile}
+	 * support, provided that it is enabled for the request, the response is
+	 * neither committed nor wrapped, and the region is at least
+	 * {@link #MIN_FILE_TRANSFER_SIZE} bytes.
+	 * @since 5.3.40
+	 */
+	@Override
+	public boolean transferFile(File file, long position, long count) throws IOException {
+		HttpServletRequest request = this.servletRequest;
+		if (request == null || this.bodyUsed || count < MIN_FILE_TRANSFER_SIZE || "HEAD".equals(request.getMethod()) ||
+				this.servletResponse.isCommitted() || this.servletResponse instanceof ServletResponseWrapper ||
+				!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+			return false;
+		}
+		// Tomcat requires the canonical path and an exclusive end position
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getCanonicalPath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, position);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, position + count);
+		return true;
+	}
+
 	@Override
 	public void flush() throws IOException {
 		writeHeaders();
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method.support;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Base superclass for handler method accessors generated by the
+ * {@link HandlerMethodCompiler}. A generated subclass invokes the target
+ * method directly, i.e. without going through {@link Method#invoke}, and
+ * propagates any exception thrown by the method as is.
+ *
+ * <p>The generated code does not check its arguments: callers are expected
+ * to check them through {@link #canInvoke} first, and to fall back on
+ * reflection otherwise.
+ *
+ * @since 5.3.40
+ * @see HandlerMethodCompiler
+ */
+public abstract class HandlerMethodAccessor {
+
+	@Nullable
+	private Class<?> targetType;
+
+	private Class<?>[] parameterTypes = new Class<?>[0];
+
+	private boolean[] primitiveParameters = new boolean[0];
+
+
+	/**
+	 * Initialize this accessor with the method it invokes.
+	 */
+	final void init(Method method) {
+		this.targetType = (Modifier.isStatic(method.getModifiers()) ? null : method.getDeclaringClass());
+		Class<?>[] types = method.getParameterTypes();
+		boolean[] primitives = new boolean[types.length];
+		for (int i = 0; i < types.length; i++) {
+			primitives[i] = types[i].isPrimitive();
+			types[i] = ClassUtils.resolvePrimitiveIfNecessary(types[i]);
+		}
+		this.parameterTypes = types;
+		this.primitiveParameters = primitives;
+	}
+
+	/**
+	 * Whether the given target and arguments match the signature of the
+	 * invoked method, i.e. whether {@link #invoke} can be called safely.
+	 * @param target the target instance
+	 * @param args the argument values
+	 */
+	public final boolean canInvoke(@Nullable Object target, Object[] args) {
+		if (this.targetType != null && !this.targetType.isInstance(target)) {
+			return false;
+		}
+		Class<?>[] types = this.parameterTypes;
+		if (args.length != types.length) {
+			return false;
+		}
+		for (int i = 0; i < types.length; i++) {
+			Object arg = args[i];
+			if (arg == null ? this.primitiveParameters[i] : !types[i].isInstance(arg)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Invoke the method on the given target with the given arguments.
+	 * @param target the target instance, ignored for static methods
+	 * @param args the argument values, previously checked via {@link #canInvoke}
+	 * @return the return value of the method, boxed if necessary,
+	 * or {@code null} for a {@code void} method
+	 * @throws Exception any exception thrown by the method
+	 */
+	@Nullable
+	public abstract Object invoke(@Nullable Object target, Object[] args) throws Exception;
+
+}
@@ -24,13 +24,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 
 /**
  * Resolves method parameters by delegating to a list of registered
  * {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}.
- * Previously resolved method parameters are cached for faster lookups.
+ * Previously resolved method parameters are cached for faster lookups,
+ * and the resolvers for all parameters of a handler method can be obtained
+ * at once through {@link #getArgumentResolvers(MethodParameter[])}.
  *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
@@ -43,6 +46,9 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodParameter[], HandlerMethodArgumentResolver[]> argumentResolversCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
 	 */
@@ -94,6 +100,7 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 	public void clear() {
 		this.argumentResolvers.clear();
 		this.argumentResolverCache.clear();
+		this.argumentResolversCache.clear();
 	}
 
 	/**
@@ -126,6 +133,30 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
 	}
 
+	/**
+	 * Return the resolvers for the given method parameters, i.e. the resolution
+	 * plan of a handler method, which saves looking up the resolver of each
+	 * parameter on every invocation.
+	 * <p>The given array is expected to be the shared parameter array of a
+	 * handler method, as the plan is cached by array identity.
+	 * @param parameters the method parameters to resolve
+	 * @return the resolver for each parameter, in the same order, with
+	 * {@code null} for a parameter that is not supported by any resolver
+	 * @since 5.3.40
+	 * @see org.springframework.web.method.HandlerMethod#getMethodParameters()
+	 */
+	public HandlerMethodArgumentResolver[] getArgumentResolvers(MethodParameter[] parameters) {
+		HandlerMethodArgumentResolver[] result = this.argumentResolversCache.get(parameters);
+		if (result == null) {
+			result = new HandlerMethodArgumentResolver[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				result[i] = getArgumentResolver(parameters[i]);
+			}
+			this.argumentResolversCache.put(parameters, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
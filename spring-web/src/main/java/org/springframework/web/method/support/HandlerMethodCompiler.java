@@ -0,0 +1,386 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method.support;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.KotlinDetector;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Generates {@link HandlerMethodAccessor} classes that invoke handler methods
+ * directly instead of through reflection, avoiding the argument array checks,
+ * boxing and access checks of {@link Method#invoke} on every call.
+ *
+ * <p>Compilation is off by default and can be switched on through the
+ * {@value #COMPILER_ENABLED_PROPERTY_NAME} system property. Methods are
+ * invoked reflectively until they have been invoked {@value #INVOCATION_COUNT_THRESHOLD}
+ * times, so that cold methods never pay for class generation. Methods that
+ * are not accessible from a generated class (e.g. non-public methods or
+ * methods of non-public classes), and Kotlin suspending functions, are
+ * always invoked through reflection.
+ *
+ * <p>As with the {@code SpelCompiler}, a compiler is created per class loader
+ * and defines the generated classes in a child class loader of it, which is
+ * periodically replaced so that unused classes can be garbage collected.
+ *
+ * @since 5.3.40
+ * @see InvocableHandlerMethod
+ */
+public final class HandlerMethodCompiler implements Opcodes {
+
+	/**
+	 * System property that instructs Spring to generate direct-call accessors
+	 * for frequently invoked handler methods.
+	 * <p>The default is "false", i.e. handler methods are always invoked through
+	 * reflection.
+	 * @see org.springframework.core.SpringProperties
+	 */
+	public static final String COMPILER_ENABLED_PROPERTY_NAME = "spring.web.method.compiler.enabled";
+
+	/**
+	 * Number of reflective invocations of a method before an accessor is
+	 * generated for it.
+	 */
+	public static final int INVOCATION_COUNT_THRESHOLD = 100;
+
+	private static final int CLASSES_DEFINED_LIMIT = 100;
+
+	private static final String ACCESSOR_CLASS = Type.getInternalName(HandlerMethodAccessor.class);
+
+	private static final boolean compilerEnabled = SpringProperties.getFlag(COMPILER_ENABLED_PROPERTY_NAME);
+
+	private static final Log logger = LogFactory.getLog(HandlerMethodCompiler.class);
+
+	// A compiler is created for each classloader, it manages a child class loader of that
+	// classloader and the child is used to load the generated accessors.
+	private static final Map<ClassLoader, HandlerMethodCompiler> compilers = new ConcurrentReferenceHashMap<>();
+
+	private static final Map<Method, CompilationState> compilationStates = new ConcurrentReferenceHashMap<>();
+
+
+	// The child ClassLoader used to load the generated accessor classes
+	private volatile ChildClassLoader childClassLoader;
+
+	// Counter suffix for generated classes within this compiler instance
+	private final AtomicInteger suffixId = new AtomicInteger(1);
+
+
+	private HandlerMethodCompiler(ClassLoader classLoader) {
+		this.childClassLoader = new ChildClassLoader(classLoader);
+	}
+
+
+	/**
+	 * Return the generated accessor for the given method, compiling it once
+	 * the method has been invoked often enough.
+	 * @param method the method to invoke
+	 * @return the accessor, or {@code null} if compilation is disabled, the
+	 * method is not invoked often enough yet, or cannot be compiled, in which
+	 * case the method should be invoked through reflection
+	 */
+	@Nullable
+	public static HandlerMethodAccessor getAccessor(Method method) {
+		if (!compilerEnabled) {
+			return null;
+		}
+		CompilationState state = compilationStates.computeIfAbsent(method, key -> new CompilationState());
+		HandlerMethodAccessor accessor = state.accessor;
+		if (accessor != null || state.failed) {
+			return accessor;
+		}
+		if (state.invocationCount.incrementAndGet() < INVOCATION_COUNT_THRESHOLD) {
+			return null;
+		}
+		synchronized (state) {
+			if (state.accessor == null && !state.failed) {
+				accessor = compile(method);
+				if (accessor != null) {
+					state.accessor = accessor;
+				}
+				else {
+					state.failed = true;
+				}
+			}
+			return state.accessor;
+		}
+	}
+
+	/**
+	 * Generate an accessor for the given method, regardless of how often it
+	 * has been invoked.
+	 * @param method the method to compile
+	 * @return the accessor, or {@code null} if the method cannot be compiled
+	 */
+	@Nullable
+	public static HandlerMethodAccessor compile(Method method) {
+		if (!isCompilable(method)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Handler method not compilable: " + method.toGenericString());
+			}
+			return null;
+		}
+		ClassLoader classLoader = method.getDeclaringClass().getClassLoader();
+		if (classLoader == null) {
+			classLoader = ClassUtils.getDefaultClassLoader();
+		}
+		try {
+			return getCompiler(classLoader).createAccessor(method);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to compile handler method " + method.toGenericString(), ex);
+			}
+			return null;
+		}
+	}
+
+	private static HandlerMethodCompiler getCompiler(ClassLoader classLoader) {
+		// Quick check for existing compiler without lock contention
+		HandlerMethodCompiler compiler = compilers.get(classLoader);
+		if (compiler == null) {
+			// Full lock now since we're creating a child ClassLoader
+			synchronized (compilers) {
+				compiler = compilers.get(classLoader);
+				if (compiler == null) {
+					compiler = new HandlerMethodCompiler(classLoader);
+					compilers.put(classLoader, compiler);
+				}
+			}
+		}
+		return compiler;
+	}
+
+	/**
+	 * Whether the given method can be invoked from a generated class defined
+	 * in a child class loader, i.e. in a different runtime package.
+	 */
+	private static boolean isCompilable(Method method) {
+		if (!Modifier.isPublic(method.getModifiers()) || !isPublic(method.getDeclaringClass()) ||
+				KotlinDetector.isSuspendingFunction(method)) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (!isPublic(parameterType)) {
+				return false;
+			}
+		}
+		ClassLoader classLoader = method.getDeclaringClass().getClassLoader();
+		return (classLoader == null || ClassUtils.isVisible(HandlerMethodAccessor.class, classLoader));
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		if (type.isPrimitive()) {
+			return true;
+		}
+		for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private HandlerMethodAccessor createAccessor(Method method) throws ReflectiveOperationException {
+		Class<? extends HandlerMethodAccessor> clazz = createAccessorClass(method);
+		HandlerMethodAccessor accessor = ReflectionUtils.accessibleConstructor(clazz).newInstance();
+		accessor.init(method);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Compiled handler method " + method.toGenericString());
+		}
+		return accessor;
+	}
+
+	/**
+	 * Generate the class that invokes the given method and define it.
+	 * The generated class will be a subtype of HandlerMethodAccessor.
+	 */
+	private Class<? extends HandlerMethodAccessor> createAccessorClass(Method method) {
+		// Create class outline 'handlermethod/AccessorNNN extends org.springframework.web.method.support.HandlerMethodAccessor'
+		String className = "handlermethod/Accessor" + this.suffixId.incrementAndGet();
+		ClassWriter cw = new AccessorClassWriter();
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, ACCESSOR_CLASS, null);
+
+		// Create default constructor
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, ACCESSOR_CLASS, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(1, 1);
+		mv.visitEnd();
+
+		// Create invoke() method
+		mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;",
+				null, new String[] {"java/lang/Exception"});
+		mv.visitCode();
+
+		Class<?> declaringClass = method.getDeclaringClass();
+		String owner = Type.getInternalName(declaringClass);
+		boolean isStatic = Modifier.isStatic(method.getModifiers());
+		if (!isStatic) {
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, owner);
+		}
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(AALOAD);
+			insertUnboxOrCast(mv, parameterTypes[i]);
+		}
+		int opcode = (isStatic ? INVOKESTATIC : declaringClass.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL);
+		mv.visitMethodInsn(opcode, owner, method.getName(), Type.getMethodDescriptor(method),
+				declaringClass.isInterface());
+		insertBox(mv, method.getReturnType());
+		mv.visitInsn(ARETURN);
+
+		mv.visitMaxs(0, 0);  // not supplied due to COMPUTE_MAXS
+		mv.visitEnd();
+		cw.visitEnd();
+
+		return loadClass(className.replace('/', '.'), cw.toByteArray());
+	}
+
+	private static void insertUnboxOrCast(MethodVisitor mv, Class<?> type) {
+		if (!type.isPrimitive()) {
+			if (type != Object.class) {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+			}
+			return;
+		}
+		Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+		String wrapperName = Type.getInternalName(wrapper);
+		mv.visitTypeInsn(CHECKCAST, wrapperName);
+		mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, type.getName() + "Value",
+				"()" + Type.getDescriptor(type), false);
+	}
+
+	private static void insertBox(MethodVisitor mv, Class<?> type) {
+		if (type == void.class) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else if (type.isPrimitive()) {
+			Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+			String wrapperName = Type.getInternalName(wrapper);
+			mv.visitMethodInsn(INVOKESTATIC, wrapperName, "valueOf",
+					"(" + Type.getDescriptor(type) + ")L" + wrapperName + ";", false);
+		}
+	}
+
+	/**
+	 * Load a generated accessor class. Makes sure the classloaders aren't used too much
+	 * because they anchor generated classes in memory and prevent GC.
+	 * @param name the name of the class
+	 * @param bytes the bytecode for the class
+	 * @return the Class object for the generated accessor
+	 */
+	@SuppressWarnings("unchecked")
+	private Class<? extends HandlerMethodAccessor> loadClass(String name, byte[] bytes) {
+		ChildClassLoader ccl = this.childClassLoader;
+		if (ccl.getClassesDefinedCount() >= CLASSES_DEFINED_LIMIT) {
+			synchronized (this) {
+				ChildClassLoader currentCcl = this.childClassLoader;
+				if (ccl == currentCcl) {
+					// Still the same ClassLoader that needs to be replaced...
+					ccl = new ChildClassLoader(ccl.getParent());
+					this.childClassLoader = ccl;
+				}
+				else {
+					// Already replaced by some other thread, let's pick it up.
+					ccl = currentCcl;
+				}
+			}
+		}
+		return (Class<? extends HandlerMethodAccessor>) ccl.defineClass(name, bytes);
+	}
+
+
+	/**
+	 * Per-method invocation count and generated accessor.
+	 */
+	private static final class CompilationState {
+
+		final AtomicInteger invocationCount = new AtomicInteger();
+
+		@Nullable
+		volatile HandlerMethodAccessor accessor;
+
+		volatile boolean failed;
+	}
+
+
+	/**
+	 * A ChildClassLoader will load the generated accessor classes.
+	 */
+	private static class ChildClassLoader extends URLClassLoader {
+
+		private static final URL[] NO_URLS = new URL[0];
+
+		private final AtomicInteger classesDefinedCount = new AtomicInteger(0);
+
+		public ChildClassLoader(@Nullable ClassLoader classLoader) {
+			super(NO_URLS, classLoader);
+		}
+
+		public Class<?> defineClass(String name, byte[] bytes) {
+			Class<?> clazz = super.defineClass(name, bytes, 0, bytes.length);
+			this.classesDefinedCount.incrementAndGet();
+			return clazz;
+		}
+
+		public int getClassesDefinedCount() {
+			return this.classesDefinedCount.get();
+		}
+	}
+
+
+	/**
+	 * An ASM ClassWriter extension bound to the compiler's ClassLoader.
+	 */
+	private class AccessorClassWriter extends ClassWriter {
+
+		public AccessorClassWriter() {
+			super(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+		}
+
+		@Override
+		protected ClassLoader getClassLoader() {
+			return childClassLoader;
+		}
+	}
+
+}
@@ -179,6 +179,12 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		// 每个形参对应的解析器 (按 HandlerMethod 缓存，避免每次调用都遍历 supportsParameter)
+		// 子类可能覆盖了 supportsParameter/resolveArgument，此时不走缓存
+		HandlerMethodArgumentResolver[] argumentResolvers =
+				(this.resolvers.getClass() == HandlerMethodArgumentResolverComposite.class ?
+						this.resolvers.getArgumentResolvers(parameters) : null);
+
 		// 先把[实参]数组准备好
 		Object[] args = new Object[parameters.length];
 
@@ -196,12 +202,14 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			}
 
 			// 从[素材库]找不到，则通过方法参数解析器找，比如 ServletRequest Session 这些对象的注入
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = (argumentResolvers != null ? argumentResolvers[i] :
+					this.resolvers.supportsParameter(parameter) ? this.resolvers : null);
+			if (resolver == null) {
 				throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
 			}
 
 			try {
-				args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
+				args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 			} catch (Exception ex) {
 				// Leave stack trace for later, exception may actually be resolved and handled...
 				if (logger.isDebugEnabled()) {
@@ -218,10 +226,20 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	/**
 	 * Invoke the handler method with the given argument values.
+	 * <p>Frequently invoked methods are called through a generated accessor
+	 * if the {@link HandlerMethodCompiler} is enabled, and through reflection
+	 * otherwise.
 	 */
 	@Nullable
 	protected Object doInvoke(Object... args) throws Exception {
 		Method method = getBridgedMethod();
+
+		// 如果开启了编译，热点方法通过生成的字节码直接调用，方法抛出的异常原样传播
+		HandlerMethodAccessor accessor = HandlerMethodCompiler.getAccessor(method);
+		if (accessor != null && accessor.canInvoke(getBean(), args)) {
+			return accessor.invoke(getBean(), args);
+		}
+
 		try {
 			if (KotlinDetector.isSuspendingFunction(method)) {
 				return CoroutinesUtils.invokeSuspendingFunction(method, getBean(), args);
@@ -26,13 +26,16 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
  * Resolves method parameters by delegating to a list of registered
  * {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}.
- * Previously resolved method parameters are cached for faster lookups.
+ * Previously resolved method parameters are cached for faster lookups,
+ * and the resolvers for all parameters of a handler method can be obtained
+ * at once through {@link #getArgumentResolvers(MethodParameter[])}.
  *
  * @author Rossen Stoyanchev
  * @since 5.1.3
@@ -44,6 +47,9 @@ class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentRes
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodParameter[], HandlerMethodArgumentResolver[]> argumentResolversCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
@@ -88,6 +94,7 @@ class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentRes
 	public void clear() {
 		this.argumentResolvers.clear();
 		this.argumentResolverCache.clear();
+		this.argumentResolversCache.clear();
 	}
 
 
@@ -119,6 +126,26 @@ class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentRes
 		return resolver.resolveArgument(parameter, bindingContext, exchange);
 	}
 
+	/**
+	 * Return the resolvers for the given method parameters, i.e. the resolution
+	 * plan of a handler method, cached by identity of the shared parameter array.
+	 * @param parameters the method parameters to resolve
+	 * @return the resolver for each parameter, in the same order, with
+	 * {@code null} for a parameter that is not supported by any resolver
+	 * @since 5.3.40
+	 */
+	public HandlerMethodArgumentResolver[] getArgumentResolvers(MethodParameter[] parameters) {
+		HandlerMethodArgumentResolver[] result = this.argumentResolversCache.get(parameters);
+		if (result == null) {
+			result = new HandlerMethodArgumentResolver[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				result[i] = getArgumentResolver(parameters[i]);
+			}
+			this.argumentResolversCache.put(parameters, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
@@ -22,8 +22,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
+import reactor.core.Fuseable;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.CoroutinesUtils;
@@ -38,6 +38,8 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodAccessor;
+import org.springframework.web.method.support.HandlerMethodCompiler;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerResult;
 import org.springframework.web.server.ServerWebExchange;
@@ -142,7 +144,18 @@ public class InvocableHandlerMethod extends HandlerMethod {
 					value = CoroutinesUtils.invokeSuspendingFunction(method, getBean(), args);
 				}
 				else {
-					value = method.invoke(getBean(), args);
+					HandlerMethodAccessor accessor = HandlerMethodCompiler.getAccessor(method);
+					if (accessor != null && accessor.canInvoke(getBean(), args)) {
+						try {
+							value = accessor.invoke(getBean(), args);
+						}
+						catch (Throwable ex) {
+							return Mono.error(ex);
+						}
+					}
+					else {
+						value = method.invoke(getBean(), args);
+					}
 				}
 			}
 			catch (IllegalArgumentException ex) {
@@ -189,30 +202,58 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
-		List<Mono<Object>> argMonos = new ArrayList<>(parameters.length);
-		for (MethodParameter parameter : parameters) {
+		HandlerMethodArgumentResolver[] argumentResolvers = this.resolvers.getArgumentResolvers(parameters);
+		Object[] args = new Object[parameters.length];
+		List<Mono<Object>> argMonos = null;
+		int[] argMonoIndexes = null;
+		for (int i = 0; i < parameters.length; i++) {
+			MethodParameter parameter = parameters[i];
 			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
 			Object providedArg = findProvidedArgument(parameter, providedArgs);
 			if (providedArg != null) {
-				argMonos.add(Mono.just(providedArg));
+				args[i] = providedArg;
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = argumentResolvers[i];
+			if (resolver == null) {
 				return Mono.error(new IllegalStateException(
 						formatArgumentError(parameter, "No suitable resolver")));
 			}
+			Mono<Object> argMono;
 			try {
-				argMonos.add(this.resolvers.resolveArgument(parameter, bindingContext, exchange)
+				argMono = resolver.resolveArgument(parameter, bindingContext, exchange);
+				if (argMono instanceof Fuseable.ScalarCallable) {
+					// Value already available (e.g. from a sync resolver): no need to zip it
+					args[i] = ((Fuseable.ScalarCallable<?>) argMono).call();
+					continue;
+				}
+				argMono = argMono
 						.defaultIfEmpty(NO_ARG_VALUE)
-						.doOnError(ex -> logArgumentErrorIfNecessary(exchange, parameter, ex)));
+						.doOnError(ex -> logArgumentErrorIfNecessary(exchange, parameter, ex));
 			}
 			catch (Exception ex) {
 				logArgumentErrorIfNecessary(exchange, parameter, ex);
-				argMonos.add(Mono.error(ex));
+				argMono = Mono.error(ex);
+			}
+			if (argMonos == null) {
+				argMonos = new ArrayList<>(parameters.length - i);
+				argMonoIndexes = new int[parameters.length - i];
 			}
+			argMonoIndexes[argMonos.size()] = i;
+			argMonos.add(argMono);
+		}
+		if (argMonos == null) {
+			return Mono.just(args);
 		}
-		return Mono.zip(argMonos, values ->
-				Stream.of(values).map(value -> value != NO_ARG_VALUE ? value : null).toArray());
+		// Remaining arguments are resolved asynchronously, all subscribed to at once
+		int[] indexes = argMonoIndexes;
+		return Mono.zip(argMonos, values -> {
+			Object[] result = args.clone();
+			for (int i = 0; i < values.length; i++) {
+				result[indexes[i]] = (values[i] != NO_ARG_VALUE ? values[i] : null);
+			}
+			return result;
+		});
 	}
 
 	private void logArgumentErrorIfNecessary(ServerWebExchange exchange, MethodParameter parameter, Throwable ex) {
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.ViewResolverRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.view.AbstractView;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+import org.springframework.web.testfixture.servlet.MockServletConfig;
+import org.springframework.web.testfixture.servlet.MockServletContext;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+/**
+ * Benchmarks for dispatching requests through {@link DispatcherServlet},
+ * covering handler lookup, argument resolution, {@code @ResponseBody} and
+ * {@code @RequestBody} handling with Jackson, and view rendering.
+ * <p>The {@code mappingCount} parameter registers additional pattern-based
+ * mappings next to the benchmark controller, the {@code payloadSize}
+ * parameter grows the bodies to read and write, and the {@code lookup}
+ * parameter selects the handler lookup strategy.
+ *
+ * @see org.springframework.web.servlet.handler.AbstractHandlerMethodMapping
+ * @see org.springframework.web.method.support.HandlerMethodArgumentResolverComposite
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DispatcherServletBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class DispatcherData {
+
+		@Param({"10", "500", "1500"})
+		int mappingCount;
+
+		@Param({"1", "100", "1000"})
+		int payloadSize;
+
+		@Param({"default", "lookupTree", "matchCache"})
+		String lookup;
+
+		MockServletContext servletContext;
+
+		AnnotationConfigWebApplicationContext context;
+
+		DispatcherServlet servlet;
+
+		RequestMappingHandlerMapping handlerMapping;
+
+		String lookupPath;
+
+		byte[] requestBody;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.servletContext = new MockServletContext();
+			this.context = new AnnotationConfigWebApplicationContext();
+			this.context.setServletContext(this.servletContext);
+			this.context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+					Collections.singletonMap(BenchmarkConfig.LOOKUP_PROPERTY, this.lookup)));
+			this.context.register(BenchmarkConfig.class);
+			this.context.refresh();
+
+			this.servlet = new DispatcherServlet(this.context);
+			this.servlet.init(new MockServletConfig(this.servletContext));
+
+			this.handlerMapping = this.context.getBean(RequestMappingHandlerMapping.class);
+			Object handler = this.context.getBean(MappingsController.class);
+			Method method = ClassUtils.getMethod(MappingsController.class, "handle", String.class);
+			for (int i = 0; i < this.mappingCount; i++) {
+				RequestMappingInfo info = RequestMappingInfo.paths("/resources" + i + "/{id}")
+						.methods(RequestMethod.GET)
+						.options(this.handlerMapping.getBuilderConfiguration())
+						.build();
+				this.handlerMapping.registerMapping(info, handler, method);
+			}
+			this.lookupPath = "/resources" + (this.mappingCount / 2) + "/42";
+			this.requestBody = createJsonPayload(this.payloadSize);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.servlet.destroy();
+			this.context.close();
+		}
+
+		MockHttpServletRequest createRequest(String method, String requestUri) {
+			MockHttpServletRequest request = new MockHttpServletRequest(this.servletContext, method, requestUri);
+			request.addHeader("Accept", MediaType.APPLICATION_JSON_VALUE);
+			return request;
+		}
+
+		private static byte[] createJsonPayload(int size) {
+			StringBuilder builder = new StringBuilder("[");
+			for (int i = 0; i < size; i++) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				builder.append("{\"name\":\"project").append(i).append("\",\"url\":\"https://spring.io/projects/")
+						.append(i).append("\",\"stars\":").append(i).append('}');
+			}
+			return builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	@Benchmark
+	public void handlerLookup(DispatcherData data, Blackhole bh) throws Exception {
+		MockHttpServletRequest request = data.createRequest("GET", data.lookupPath);
+		if (data.handlerMapping.usesPathPatterns()) {
+			ServletRequestPathUtils.parseAndCache(request);
+		}
+		bh.consume(data.handlerMapping.getHandler(request));
+	}
+
+	@Benchmark
+	public void argumentResolution(DispatcherData data, Blackhole bh) throws Exception {
+		MockHttpServletRequest request = data.createRequest("GET", "/projects/spring-framework/releases");
+		request.addParameter("version", "5.3.40");
+		request.addHeader("X-Request-Id", "42");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		data.servlet.service(request, response);
+		bh.consume(response.getContentAsByteArray());
+	}
+
+	@Benchmark
+	public void responseBody(DispatcherData data, Blackhole bh) throws Exception {
+		MockHttpServletRequest request = data.createRequest("GET", "/projects");
+		request.addParameter("size", String.valueOf(data.payloadSize));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		data.servlet.service(request, response);
+		bh.consume(response.getContentAsByteArray());
+	}
+
+	@Benchmark
+	public void requestBody(DispatcherData data, Blackhole bh) throws Exception {
+		MockHttpServletRequest request = data.createRequest("POST", "/projects");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(data.requestBody);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		data.servlet.service(request, response);
+		bh.consume(response.getContentAsByteArray());
+	}
+
+	@Benchmark
+	public void viewRendering(DispatcherData data, Blackhole bh) throws Exception {
+		MockHttpServletRequest request = data.createRequest("GET", "/projects/view");
+		request.addParameter("size", String.valueOf(data.payloadSize));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		data.servlet.service(request, response);
+		bh.consume(response.getContentAsByteArray());
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	static class BenchmarkConfig extends WebMvcConfigurationSupport {
+
+		static final String LOOKUP_PROPERTY = "benchmark.lookup";
+
+		@Bean
+		public ProjectController projectController() {
+			return new ProjectController();
+		}
+
+		@Bean
+		public MappingsController mappingsController() {
+			return new MappingsController();
+		}
+
+		@Override
+		protected RequestMappingHandlerMapping createRequestMappingHandlerMapping() {
+			RequestMappingHandlerMapping handlerMapping = new RequestMappingHandlerMapping();
+			String lookup = getApplicationContext().getEnvironment().getProperty(LOOKUP_PROPERTY, "default");
+			if ("lookupTree".equals(lookup)) {
+				handlerMapping.setUseLookupTree(true);
+			}
+			else if ("matchCache".equals(lookup)) {
+				handlerMapping.setMatchCacheLimit(256);
+			}
+			return handlerMapping;
+		}
+
+		@Override
+		protected void configureViewResolvers(ViewResolverRegistry registry) {
+			registry.viewResolver((viewName, locale) -> new ProjectsView());
+		}
+	}
+
+
+	@Controller
+	static class ProjectController {
+
+		@GetMapping("/projects/{name}/releases")
+		@ResponseBody
+		public String releases(@PathVariable String name, @RequestParam String version,
+				@RequestHeader("X-Request-Id") long requestId, Locale locale) {
+
+			return name + ":" + version + ":" + requestId;
+		}
+
+		@GetMapping(path = "/projects", produces = MediaType.APPLICATION_JSON_VALUE)
+		@ResponseBody
+		public List<Project> projects(@RequestParam int size) {
+			return createProjects(size);
+		}
+
+		@PostMapping(path = "/projects", consumes = MediaType.APPLICATION_JSON_VALUE)
+		@ResponseBody
+		public int addProjects(@RequestBody List<Project> projects) {
+			return projects.size();
+		}
+
+		@GetMapping("/projects/view")
+		public String projectsView(@RequestParam int size, Model model) {
+			model.addAttribute("projects", createProjects(size));
+			return "projects";
+		}
+
+		private static List<Project> createProjects(int size) {
+			List<Project> projects = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				projects.add(new Project("project" + i, "https://spring.io/projects/" + i, i));
+			}
+			return projects;
+		}
+	}
+
+
+	/**
+	 * Target of the mappings registered programmatically, without annotations
+	 * in order to not be detected as a handler.
+	 */
+	static class MappingsController {
+
+		public String handle(@PathVariable String id) {
+			return id;
+		}
+	}
+
+
+	static class ProjectsView extends AbstractView {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request,
+				HttpServletResponse response) throws IOException, ServletException {
+
+			response.setContentType("text/html");
+			StringBuilder builder = new StringBuilder("<ul>");
+			for (Project project : (List<Project>) model.get("projects")) {
+				builder.append("<li><a href=\"").append(project.getUrl()).append("\">")
+						.append(project.getName()).append("</a> (").append(project.getStars()).append(")</li>");
+			}
+			response.getWriter().write(builder.append("</ul>").toString());
+		}
+	}
+
+
+	public static class Project {
+
+		private String name;
+
+		private String url;
+
+		private int stars;
+
+		public Project() {
+		}
+
+		public Project(String name, String url, int stars) {
+			this.name = name;
+			this.url = url;
+			this.stars = stars;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getUrl() {
+			return this.url;
+		}
+
+		public void setUrl(String url) {
+			this.url = url;
+		}
+
+		public int getStars() {
+			return this.stars;
+		}
+
+		public void setStars(int stars) {
+			this.stars = stars;
+		}
+	}
+
+}
@@ -81,6 +81,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	private boolean detectHandlerMethodsInAncestorContexts = false;
 
+	private boolean useLookupTree = false;
+
 	@Nullable
 	private HandlerMethodMappingNamingStrategy<T> namingStrategy;
 
@@ -108,6 +110,35 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		this.detectHandlerMethodsInAncestorContexts = detectHandlerMethodsInAncestorContexts;
 	}
 
+	/**
+	 * Whether to compile the registered mappings into a prefix tree keyed by
+	 * the literal leading segments of their path patterns and by HTTP method.
+	 * <p>Default is "false": Requests without a direct path match are matched
+	 * against all registered mappings. Switch this flag on to evaluate only the
+	 * mappings whose literal path prefix and HTTP method are compatible with the
+	 * request, which keeps the lookup cost flat as the number of mappings grows.
+	 * <p>Requires {@link #getMappingLookupPatterns} and
+	 * {@link #getMappingLookupMethods} to be implemented, and must be set before
+	 * the initialization of handler methods.
+	 *
+	 * @since 5.3.40
+	 */
+	public void setUseLookupTree(boolean useLookupTree) {
+		Assert.state(this.mappingRegistry.getRegistrations().isEmpty(),
+				"The lookup tree must be enabled before the initialization of " +
+						"request mappings through InitializingBean#afterPropertiesSet.");
+		this.useLookupTree = useLookupTree;
+	}
+
+	/**
+	 * Whether the registered mappings are compiled into a prefix tree.
+	 *
+	 * @since 5.3.40
+	 */
+	public boolean isUseLookupTree() {
+		return this.useLookupTree;
+	}
+
 	/**
 	 * Configure the naming strategy to use for assigning a default name to every
 	 * mapped handler method.
@@ -394,6 +425,30 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 	}
 
+	/**
+	 * Invoked after a mapping has been added to the registry, while still
+	 * holding the write lock of the registry, i.e. before any lookup can
+	 * observe the new mapping. Can be used to invalidate derived state such
+	 * as caches of lookup results.
+	 * <p>The default implementation is empty.
+	 *
+	 * @param mapping the registered mapping
+	 * @since 5.3.40
+	 */
+	protected void handlerMethodRegistered(T mapping) {
+	}
+
+	/**
+	 * Invoked after a mapping has been removed from the registry, while still
+	 * holding the write lock of the registry.
+	 * <p>The default implementation is empty.
+	 *
+	 * @param mapping the unregistered mapping
+	 * @since 5.3.40
+	 */
+	protected void handlerMethodUnregistered(T mapping) {
+	}
+
 	// Handler method lookup
 
 	/**
@@ -445,8 +500,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 
 		// 2. 如果无法通过 Direct Path 找到映射信息，只能遍历所有的 Mapping [效率非常差]
+		// 如果开启了前缀树，只需要遍历与路径前缀和请求方法相容的 Mapping
 		if (matches.isEmpty()) {
-			addMatchingMappings(this.mappingRegistry.getRegistrations().keySet(), matches, request);
+			Collection<T> candidates = this.mappingRegistry.getMappingsByLookupTree(lookupPath, request.getMethod());
+			addMatchingMappings(candidates != null ? candidates : this.mappingRegistry.getRegistrations().keySet(),
+					matches, request);
 		}
 
 		// 3. 如果存在任何匹配信息，继续寻找最好的
@@ -609,6 +667,31 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return urls;
 	}
 
+	/**
+	 * Return the path patterns of the given mapping, used to place it in the
+	 * lookup tree when {@link #setUseLookupTree lookup tree} is enabled.
+	 * <p>The default implementation returns an empty set, in which case the
+	 * mapping is evaluated for every request without a direct path match.
+	 *
+	 * @since 5.3.40
+	 */
+	protected Set<String> getMappingLookupPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Return the names of the HTTP methods the given mapping is restricted to,
+	 * used to place it in the lookup tree when {@link #setUseLookupTree lookup
+	 * tree} is enabled.
+	 * <p>The default implementation returns an empty set, i.e. the mapping is
+	 * a candidate for all HTTP methods.
+	 *
+	 * @since 5.3.40
+	 */
+	protected Set<String> getMappingLookupMethods(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -655,6 +738,12 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
+		/**
+		 * 前缀树，只有开启 useLookupTree 时才会构建
+		 */
+		@Nullable
+		private MappingLookupTree<T> lookupTree;
+
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
 		/**
@@ -676,6 +765,20 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.pathLookup.get(urlPath);
 		}
 
+		/**
+		 * Return candidate mappings for the given URL path and HTTP method from
+		 * the lookup tree, or {@code null} if the lookup tree is not in use or
+		 * cannot be applied to the given path, in which case all mappings need
+		 * to be checked. Not thread-safe.
+		 *
+		 * @see #acquireReadLock()
+		 * @since 5.3.40
+		 */
+		@Nullable
+		public Collection<T> getMappingsByLookupTree(String urlPath, String httpMethod) {
+			return (this.lookupTree != null ? this.lookupTree.getCandidates(urlPath, httpMethod) : null);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -730,6 +833,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.pathLookup.add(path, mapping);
 				}
 
+				if (isUseLookupTree()) {
+					if (this.lookupTree == null) {
+						this.lookupTree = new MappingLookupTree<>();
+					}
+					this.lookupTree.add(mapping, getMappingLookupPatterns(mapping), getMappingLookupMethods(mapping));
+				}
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					// 得到一个名字
@@ -747,6 +857,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				// 将 mapping 和注册的信息加到注册表
 				this.registry.put(mapping,
 						new MappingRegistration<>(mapping, handlerMethod, directPaths, name, corsConfig != null));
+
+				handlerMethodRegistered(mapping);
 			} finally {
 				this.readWriteLock.writeLock().unlock();
 			}
@@ -810,9 +922,17 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				if (this.lookupTree != null) {
+					this.lookupTree.remove(registration.getMapping(),
+							getMappingLookupPatterns(registration.getMapping()),
+							getMappingLookupMethods(registration.getMapping()));
+				}
+
 				removeMappingName(registration);
 
 				this.corsLookup.remove(registration.getHandlerMethod());
+
+				handlerMethodUnregistered(registration.getMapping());
 			} finally {
 				this.readWriteLock.writeLock().unlock();
 			}
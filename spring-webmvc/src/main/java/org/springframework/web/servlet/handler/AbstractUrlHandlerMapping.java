@@ -22,6 +22,7 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -31,8 +32,10 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.util.AntPathPattern;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -73,6 +76,8 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 
 	private final Map<PathPattern, Object> pathPatternHandlerMap = new LinkedHashMap<>();
 
+	private final Map<String, AntPathPattern> antPathPatterns = new ConcurrentHashMap<>();
+
 
 	@Override
 	public void setPatternParser(PathPatternParser patternParser) {
@@ -228,6 +233,27 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return buildPathExposingHandler(handler, pattern.getPatternString(), pathWithinMapping, null);
 	}
 
+	/**
+	 * Match a registered pattern against the given lookup path, through a
+	 * compiled {@link AntPathPattern} if a plain {@link AntPathMatcher} is in use.
+	 * @since 5.3.40
+	 */
+	private boolean matchPattern(String pattern, String lookupPath) {
+		PathMatcher pathMatcher = getPathMatcher();
+		if (pathMatcher.getClass() != AntPathMatcher.class) {
+			// Custom matcher or AntPathMatcher subclass, possibly with custom matching
+			return pathMatcher.match(pattern, lookupPath);
+		}
+		AntPathMatcher antPathMatcher = (AntPathMatcher) pathMatcher;
+		AntPathPattern antPathPattern = this.antPathPatterns.get(pattern);
+		if (antPathPattern == null || !antPathPattern.isCompiledWith(antPathMatcher)) {
+			// Not compiled yet, or the matcher has been replaced or reconfigured since
+			antPathPattern = antPathMatcher.compile(pattern);
+			this.antPathPatterns.put(pattern, antPathPattern);
+		}
+		return antPathPattern.matches(lookupPath);
+	}
+
 	/**
 	 * Look up a handler instance for the given URL path. This method is used
 	 * when String pattern matching with {@code PathMatcher} is in use.
@@ -250,11 +276,11 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		List<String> matchingPatterns = new ArrayList<>();
 		for (String registeredPattern : this.handlerMap.keySet()) {
 			// ant 匹配器
-			if (getPathMatcher().match(registeredPattern, lookupPath)) {
+			if (matchPattern(registeredPattern, lookupPath)) {
 				matchingPatterns.add(registeredPattern);
 			}
 			else if (useTrailingSlashMatch()) {
-				if (!registeredPattern.endsWith("/") && getPathMatcher().match(registeredPattern + "/", lookupPath)) {
+				if (!registeredPattern.endsWith("/") && matchPattern(registeredPattern + "/", lookupPath)) {
 					matchingPatterns.add(registeredPattern + "/");
 				}
 			}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Prefix tree over the leading literal segments of mapping path patterns,
+ * used by {@link AbstractHandlerMethodMapping} to narrow down the mappings
+ * to evaluate for a request that has no direct path match.
+ *
+ * <p>Each mapping is stored at the node reached by the literal segments of
+ * its patterns, stopping at the first segment with a wildcard or URI variable
+ * and never including the last segment (which may be subject to suffix or
+ * trailing slash matching). Within a node, mappings are further keyed by their
+ * declared HTTP methods. A lookup walks the request path and collects the
+ * mappings of every node along the way, so the result is always a superset
+ * of the mappings that can actually match the request.
+ *
+ * <p>Segments are compared case-insensitively, which keeps the tree valid
+ * for case-insensitive pattern matching as well. This class is not
+ * thread-safe; access is guarded by the read-write lock of the registry.
+ *
+ * @since 5.3.40
+ * @param <T> the mapping type
+ */
+final class MappingLookupTree<T> {
+
+	private static final String HEAD = "HEAD";
+
+	private static final String GET = "GET";
+
+	private static final String OPTIONS = "OPTIONS";
+
+
+	private final Node<T> root = new Node<>();
+
+
+	/**
+	 * Add a mapping to the tree.
+	 * @param mapping the mapping to add
+	 * @param patterns the path patterns of the mapping
+	 * @param methods the HTTP methods of the mapping, or empty for all methods
+	 */
+	public void add(T mapping, Set<String> patterns, Set<String> methods) {
+		if (patterns.isEmpty()) {
+			this.root.add(mapping, methods);
+			return;
+		}
+		for (String pattern : patterns) {
+			getOrCreateNode(pattern).add(mapping, methods);
+		}
+	}
+
+	/**
+	 * Remove a mapping from the tree.
+	 * @param mapping the mapping to remove
+	 * @param patterns the path patterns the mapping was added with
+	 * @param methods the HTTP methods the mapping was added with
+	 */
+	public void remove(T mapping, Set<String> patterns, Set<String> methods) {
+		if (patterns.isEmpty()) {
+			this.root.remove(mapping, methods);
+			return;
+		}
+		for (String pattern : patterns) {
+			getOrCreateNode(pattern).remove(mapping, methods);
+		}
+	}
+
+	/**
+	 * Return the candidate mappings for the given lookup path and HTTP method.
+	 * @param lookupPath the lookup path of the request
+	 * @param httpMethod the HTTP method of the request
+	 * @return the candidate mappings, or {@code null} if the lookup path cannot
+	 * be reliably matched against the tree (e.g. it contains encoded characters),
+	 * in which case all mappings need to be evaluated
+	 */
+	@Nullable
+	public Collection<T> getCandidates(String lookupPath, String httpMethod) {
+		Set<T> result = new LinkedHashSet<>();
+		Node<T> node = this.root;
+		node.collect(httpMethod, result);
+		int length = lookupPath.length();
+		int start = 0;
+		while (start < length) {
+			int end = lookupPath.indexOf('/', start);
+			if (end == -1) {
+				end = length;
+			}
+			if (end > start) {
+				String segment = lookupPath.substring(start, end);
+				if (segment.indexOf('%') != -1) {
+					return null;
+				}
+				int semicolonIndex = segment.indexOf(';');
+				if (semicolonIndex != -1) {
+					segment = segment.substring(0, semicolonIndex);
+				}
+				node = node.getChild(segment.toLowerCase(Locale.ROOT));
+				if (node == null) {
+					break;
+				}
+				node.collect(httpMethod, result);
+			}
+			start = end + 1;
+		}
+		return result;
+	}
+
+	private Node<T> getOrCreateNode(String pattern) {
+		Node<T> node = this.root;
+		List<String> segments = new ArrayList<>();
+		for (String segment : pattern.split("/")) {
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		// The last segment is never a literal key: it may be matched with a
+		// suffix pattern, a file extension or matrix variables.
+		for (int i = 0; i < segments.size() - 1; i++) {
+			String segment = segments.get(i);
+			if (!isLiteral(segment)) {
+				break;
+			}
+			node = node.getOrCreateChild(segment.toLowerCase(Locale.ROOT));
+		}
+		return node;
+	}
+
+	private static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}' || c == '%' || c == ';' || c == '\\') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static final class Node<T> {
+
+		@Nullable
+		private Map<String, Node<T>> children;
+
+		private final List<T> anyMethodMappings = new ArrayList<>(0);
+
+		@Nullable
+		private Map<String, List<T>> methodMappings;
+
+		@Nullable
+		Node<T> getChild(String segment) {
+			return (this.children != null ? this.children.get(segment) : null);
+		}
+
+		Node<T> getOrCreateChild(String segment) {
+			if (this.children == null) {
+				this.children = new HashMap<>(4);
+			}
+			return this.children.computeIfAbsent(segment, key -> new Node<>());
+		}
+
+		void add(T mapping, Set<String> methods) {
+			if (methods.isEmpty()) {
+				addIfAbsent(this.anyMethodMappings, mapping);
+				return;
+			}
+			if (this.methodMappings == null) {
+				this.methodMappings = new HashMap<>(4);
+			}
+			for (String method : methods) {
+				addIfAbsent(this.methodMappings.computeIfAbsent(method, key -> new ArrayList<>(1)), mapping);
+			}
+		}
+
+		void remove(T mapping, Set<String> methods) {
+			if (methods.isEmpty()) {
+				this.anyMethodMappings.remove(mapping);
+				return;
+			}
+			if (this.methodMappings != null) {
+				for (String method : methods) {
+					List<T> mappings = this.methodMappings.get(method);
+					if (mappings != null) {
+						mappings.remove(mapping);
+						if (mappings.isEmpty()) {
+							this.methodMappings.remove(method);
+						}
+					}
+				}
+			}
+		}
+
+		void collect(String httpMethod, Set<T> result) {
+			result.addAll(this.anyMethodMappings);
+			if (this.methodMappings == null) {
+				return;
+			}
+			if (OPTIONS.equals(httpMethod)) {
+				// Pre-flight requests are matched against the requested method,
+				// and plain OPTIONS requests need all mappings for the "Allow" header
+				for (List<T> mappings : this.methodMappings.values()) {
+					result.addAll(mappings);
+				}
+				return;
+			}
+			result.addAll(this.methodMappings.getOrDefault(httpMethod, Collections.emptyList()));
+			if (HEAD.equals(httpMethod)) {
+				result.addAll(this.methodMappings.getOrDefault(GET, Collections.emptyList()));
+			}
+		}
+
+		private static <T> void addIfAbsent(List<T> list, T mapping) {
+			if (!list.contains(mapping)) {
+				list.add(mapping);
+			}
+		}
+
+	}
+
+}
@@ -20,12 +20,16 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 
@@ -38,12 +42,14 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.UnsatisfiedServletRequestParameterException;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
@@ -68,6 +74,9 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 	private static final Method HTTP_OPTIONS_HANDLE_METHOD;
 
+	private static final String PENDING_MATCH_ATTRIBUTE =
+			RequestMappingInfoHandlerMapping.class.getName() + ".pendingMatch";
+
 	static {
 		try {
 			HTTP_OPTIONS_HANDLE_METHOD = HttpOptionsHandler.class.getMethod("handle");
@@ -77,10 +86,101 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		}
 	}
 
+	private volatile int matchCacheLimit;
+
+	/** Fast access cache for match results, returning already cached instances without a global lock. */
+	private final Map<MatchCacheKey, CachedMatch> matchAccessCache = new ConcurrentHashMap<>(256);
+
+	/** Map from key to match result, synchronized for match result insertion and eviction. */
+	@SuppressWarnings("serial")
+	private final Map<MatchCacheKey, CachedMatch> matchInsertionCache =
+			new LinkedHashMap<MatchCacheKey, CachedMatch>(256) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<MatchCacheKey, CachedMatch> eldest) {
+					if (size() > getMatchCacheLimit()) {
+						matchAccessCache.remove(eldest.getKey());
+						return true;
+					}
+					else {
+						return false;
+					}
+				}
+			};
+
+	/**
+	 * Mappings with "params", "headers" or custom conditions, i.e. with
+	 * conditions that are not reflected in a {@link MatchCacheKey}.
+	 */
+	private final Set<RequestMappingInfo> uncacheableMappings = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder matchCacheHits = new LongAdder();
+
+	private final LongAdder matchCacheMisses = new LongAdder();
+
+
 	protected RequestMappingInfoHandlerMapping() {
 		setHandlerMethodMappingNamingStrategy(new RequestMappingInfoHandlerMethodMappingNamingStrategy());
 	}
 
+	/**
+	 * Specify the maximum number of entries for the cache of match results,
+	 * keyed by HTTP method, lookup path, "Content-Type" and "Accept" headers.
+	 * <p>Default is 0, i.e. no caching: all mappings that are candidates for
+	 * the lookup path are evaluated on every request. With a positive limit,
+	 * the best matching mapping for a request signature is cached and
+	 * subsequent requests with the same signature skip the evaluation and
+	 * sorting of candidate mappings.
+	 * <p>Lookup paths that can be matched by a mapping with "params",
+	 * "headers" or custom conditions are never cached. Caching also assumes
+	 * that the requested media types are determined from the "Accept" header
+	 * only, which is the default content negotiation strategy: match results
+	 * are not cached if {@link #isHeaderContentNegotiation()} returns
+	 * {@code false}.
+	 * <p>Only successful matches are cached, with the eldest entries evicted
+	 * once the limit is reached. The cache is cleared whenever a mapping is
+	 * registered or unregistered.
+	 *
+	 * @since 5.3.40
+	 * @see #getMatchCacheHitCount()
+	 * @see #getMatchCacheMissCount()
+	 */
+	public void setMatchCacheLimit(int matchCacheLimit) {
+		Assert.isTrue(matchCacheLimit >= 0, "Match cache limit must not be negative");
+		this.matchCacheLimit = matchCacheLimit;
+		clearMatchCache();
+	}
+
+	/**
+	 * Return the maximum number of entries for the cache of match results,
+	 * or 0 if match results are not cached.
+	 *
+	 * @since 5.3.40
+	 */
+	public int getMatchCacheLimit() {
+		return this.matchCacheLimit;
+	}
+
+	/**
+	 * Return the number of lookups served from the cache of match results.
+	 *
+	 * @since 5.3.40
+	 * @see #setMatchCacheLimit(int)
+	 */
+	public long getMatchCacheHitCount() {
+		return this.matchCacheHits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that could not be served from the cache
+	 * of match results and required the evaluation of candidate mappings.
+	 *
+	 * @since 5.3.40
+	 * @see #setMatchCacheLimit(int)
+	 */
+	public long getMatchCacheMissCount() {
+		return this.matchCacheMisses.sum();
+	}
+
 	/**
 	 * Get the URL path patterns associated with the supplied {@link RequestMappingInfo}.
 	 */
@@ -95,6 +195,60 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getDirectPaths();
 	}
 
+	@Override
+	protected Set<String> getMappingLookupPatterns(RequestMappingInfo info) {
+		return info.getPatternValues();
+	}
+
+	@Override
+	protected Set<String> getMappingLookupMethods(RequestMappingInfo info) {
+		Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+		if (methods.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<String> result = new LinkedHashSet<>(methods.size());
+		for (RequestMethod method : methods) {
+			result.add(method.name());
+		}
+		return result;
+	}
+
+	@Override
+	protected void handlerMethodRegistered(RequestMappingInfo info) {
+		if (!info.getParamsCondition().isEmpty() || !info.getHeadersCondition().isEmpty() ||
+				info.getCustomCondition() != null) {
+			this.uncacheableMappings.add(info);
+		}
+		clearMatchCache();
+	}
+
+	@Override
+	protected void handlerMethodUnregistered(RequestMappingInfo info) {
+		this.uncacheableMappings.remove(info);
+		clearMatchCache();
+	}
+
+	private void clearMatchCache() {
+		synchronized (this.matchInsertionCache) {
+			this.matchAccessCache.clear();
+			this.matchInsertionCache.clear();
+		}
+	}
+
+	/**
+	 * Whether the requested media types are determined from the "Accept"
+	 * header only, as assumed by the {@link #setMatchCacheLimit match cache}.
+	 * <p>The default implementation returns {@code true}, in line with the
+	 * default content negotiation of {@link RequestMappingInfo RequestMappingInfos}.
+	 * Subclasses with a configurable content negotiation strategy should
+	 * override this accordingly.
+	 *
+	 * @since 5.3.40
+	 */
+	protected boolean isHeaderContentNegotiation() {
+		return true;
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
@@ -128,6 +282,64 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		}
 	}
 
+	/**
+	 * Look up the best matching handler method through the cache of match
+	 * results, if {@link #setMatchCacheLimit enabled}, falling back on the
+	 * evaluation of candidate mappings in case of a cache miss.
+	 */
+	@Override
+	@Nullable
+	protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+		if (this.matchCacheLimit == 0 || CorsUtils.isPreFlightRequest(request) || !isHeaderContentNegotiation()) {
+			return super.lookupHandlerMethod(lookupPath, request);
+		}
+
+		MatchCacheKey key = new MatchCacheKey(lookupPath, request);
+		CachedMatch cachedMatch = this.matchAccessCache.get(key);
+		if (cachedMatch != null) {
+			this.matchCacheHits.increment();
+			request.setAttribute(BEST_MATCHING_HANDLER_ATTRIBUTE, cachedMatch.handlerMethod);
+			handleMatch(cachedMatch.info, lookupPath, request);
+			return cachedMatch.handlerMethod;
+		}
+
+		this.matchCacheMisses.increment();
+		if (!isCacheable(request)) {
+			return super.lookupHandlerMethod(lookupPath, request);
+		}
+
+		// handleMatch 会把最佳匹配的 info 记录到 PendingMatch 中
+		PendingMatch pendingMatch = new PendingMatch();
+		request.setAttribute(PENDING_MATCH_ATTRIBUTE, pendingMatch);
+		try {
+			HandlerMethod handlerMethod = super.lookupHandlerMethod(lookupPath, request);
+			if (handlerMethod != null && pendingMatch.info != null) {
+				synchronized (this.matchInsertionCache) {
+					cachedMatch = new CachedMatch(pendingMatch.info, handlerMethod);
+					this.matchAccessCache.put(key, cachedMatch);
+					this.matchInsertionCache.put(key, cachedMatch);
+				}
+			}
+			return handlerMethod;
+		} finally {
+			request.removeAttribute(PENDING_MATCH_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Whether the match result for the given request depends only on its
+	 * {@link MatchCacheKey}, i.e. whether no mapping with "params", "headers"
+	 * or custom conditions matches the lookup path.
+	 */
+	private boolean isCacheable(HttpServletRequest request) {
+		for (RequestMappingInfo info : this.uncacheableMappings) {
+			if (info.getActivePatternsCondition().getMatchingCondition(request) != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Expose URI template variables, matrix variables, and producible media types in the request.
 	 *
@@ -139,6 +351,11 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		super.handleMatch(info, lookupPath, request); // request mapping info
 
+		Object pendingMatch = request.getAttribute(PENDING_MATCH_ATTRIBUTE);
+		if (pendingMatch instanceof PendingMatch) {
+			((PendingMatch) pendingMatch).info = info;
+		}
+
 		RequestCondition<?> condition = info.getActivePatternsCondition();
 
 		// 请求条件是新版的匹配器，还是旧版的 Ant 匹配器
@@ -554,4 +771,115 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 	}
 
+
+	/**
+	 * Signature of a request with regard to the conditions of a
+	 * {@link RequestMappingInfo}, excluding "params", "headers" and custom
+	 * conditions.
+	 */
+	private static final class MatchCacheKey {
+
+		private final String lookupPath;
+
+		private final String method;
+
+		private final boolean errorDispatch;
+
+		@Nullable
+		private final String contentType;
+
+		private final boolean hasBody;
+
+		@Nullable
+		private final String accept;
+
+		private final int hashCode;
+
+		MatchCacheKey(String lookupPath, HttpServletRequest request) {
+			this.lookupPath = lookupPath;
+			this.method = request.getMethod();
+			this.errorDispatch = DispatcherType.ERROR.equals(request.getDispatcherType());
+			this.contentType = request.getContentType();
+			this.hasBody = hasBody(request);
+			this.accept = getAcceptHeader(request);
+			int result = this.lookupPath.hashCode();
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.method);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.contentType);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.accept);
+			result = 31 * result + (this.errorDispatch ? 1 : 0);
+			result = 31 * result + (this.hasBody ? 1 : 0);
+			this.hashCode = result;
+		}
+
+		private static boolean hasBody(HttpServletRequest request) {
+			String contentLength = request.getHeader(HttpHeaders.CONTENT_LENGTH);
+			String transferEncoding = request.getHeader(HttpHeaders.TRANSFER_ENCODING);
+			return StringUtils.hasText(transferEncoding) ||
+					(StringUtils.hasText(contentLength) && !contentLength.trim().equals("0"));
+		}
+
+		@Nullable
+		private static String getAcceptHeader(HttpServletRequest request) {
+			Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT);
+			if (values == null || !values.hasMoreElements()) {
+				return null;
+			}
+			String accept = values.nextElement();
+			if (!values.hasMoreElements()) {
+				return accept;
+			}
+			StringBuilder builder = new StringBuilder(accept);
+			while (values.hasMoreElements()) {
+				builder.append(',').append(values.nextElement());
+			}
+			return builder.toString();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MatchCacheKey)) {
+				return false;
+			}
+			MatchCacheKey otherKey = (MatchCacheKey) other;
+			return (this.hashCode == otherKey.hashCode &&
+					this.lookupPath.equals(otherKey.lookupPath) &&
+					ObjectUtils.nullSafeEquals(this.method, otherKey.method) &&
+					this.errorDispatch == otherKey.errorDispatch &&
+					ObjectUtils.nullSafeEquals(this.contentType, otherKey.contentType) &&
+					this.hasBody == otherKey.hasBody &&
+					ObjectUtils.nullSafeEquals(this.accept, otherKey.accept));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+
+	private static final class CachedMatch {
+
+		final RequestMappingInfo info;
+
+		final HandlerMethod handlerMethod;
+
+		CachedMatch(RequestMappingInfo info, HandlerMethod handlerMethod) {
+			this.info = info;
+			this.handlerMethod = handlerMethod;
+		}
+	}
+
+
+	/**
+	 * Holder for the best matching info of an in-progress lookup.
+	 */
+	private static final class PendingMatch {
+
+		@Nullable
+		RequestMappingInfo info;
+	}
+
 }
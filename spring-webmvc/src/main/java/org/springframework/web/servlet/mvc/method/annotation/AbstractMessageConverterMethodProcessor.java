@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -135,7 +135,7 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 	protected ServletServerHttpResponse createOutputMessage(NativeWebRequest webRequest) {
 		HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
 		Assert.state(response != null, "No HttpServletResponse");
-		return new ServletServerHttpResponse(response);
+		return new ServletServerHttpResponse(response, webRequest.getNativeRequest(HttpServletRequest.class));
 	}
 
 	/**
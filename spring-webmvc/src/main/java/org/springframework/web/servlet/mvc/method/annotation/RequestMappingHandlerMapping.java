@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,8 @@ import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringValueResolver;
 import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -186,6 +188,21 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 		return this.contentNegotiationManager;
 	}
 
+	/**
+	 * Return {@code true} only if the configured {@link ContentNegotiationManager}
+	 * consists of {@link HeaderContentNegotiationStrategy} instances.
+	 * @since 5.3.40
+	 */
+	@Override
+	protected boolean isHeaderContentNegotiation() {
+		for (ContentNegotiationStrategy strategy : this.contentNegotiationManager.getStrategies()) {
+			if (!(strategy instanceof HeaderContentNegotiationStrategy)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -585,7 +585,7 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		setHeaders(response, resource, mediaType);
 
 		// Content phase
-		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
+		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response, request);
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
 			this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);